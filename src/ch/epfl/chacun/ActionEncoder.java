@@ -30,6 +30,48 @@ public class ActionEncoder {
      * @throws IllegalArgumentException If the position index is invalid.
      */
     public static StateAction withPlacedTile(GameState state, PlacedTile placedTile) {
+        String action = encodePlacedTile(state, placedTile);
+        return new StateAction(state.withPlacedTile(placedTile), action);
+    }
+
+    /**
+     * Encodes a new occupant action into a StateAction object.
+     *
+     * @param state The current game state.
+     * @param occ   The new occupant.
+     * @return A StateAction object representing the action.
+     */
+    public static StateAction withNewOccupant(GameState state, Occupant occ) {
+        if (occ == null) {
+            return new StateAction(state, encodeNewOccupant(null));
+        }
+        return new StateAction(state.withNewOccupant(occ), encodeNewOccupant(occ));
+    }
+
+    /**
+     * Encodes an occupant removal action into a StateAction object.
+     *
+     * @param state The current game state.
+     * @param occ   The occupant to be removed.
+     * @return A StateAction object representing the action.
+     */
+    public static StateAction withOccupantRemoved(GameState state, Occupant occ) {
+        if (occ == null) {
+            return new StateAction(state, encodeOccupantRemoved(state, null));
+        }
+        String action = encodeOccupantRemoved(state, occ);
+        return new StateAction(state.withOccupantRemoved(occ), action);
+    }
+
+    /**
+     * Encodes a tile placement action, without applying it to the game state.
+     *
+     * @param state      The current game state.
+     * @param placedTile The tile to place.
+     * @return The encoded action.
+     * @throws IllegalArgumentException If the position index is invalid.
+     */
+    public static String encodePlacedTile(GameState state, PlacedTile placedTile) {
         List<Pos> insertionPositions = new ArrayList<>(state.board().insertionPositions().stream().toList());
         insertionPositions.sort(Comparator.comparingInt(Pos::x).thenComparingInt(Pos::y));
         int indexOfPos = insertionPositions.indexOf(placedTile.pos());
@@ -47,47 +89,44 @@ public class ActionEncoder {
         }
 
         int action = (indexOfPos << 2) | rotationBits;
-        return new StateAction(state.withPlacedTile(placedTile), Base32.encodeBits10(action));
+        return Base32.encodeBits10(action);
     }
 
     /**
-     * Encodes a new occupant action into a StateAction object.
+     * Encodes a new occupant action, without applying it to the game state.
      *
-     * @param state The current game state.
-     * @param occ   The new occupant.
-     * @return A StateAction object representing the action.
+     * @param occ The new occupant, or null if the player does not place any occupant.
+     * @return The encoded action.
      */
-    public static StateAction withNewOccupant(GameState state, Occupant occ) {
+    public static String encodeNewOccupant(Occupant occ) {
         if (occ == null) {
-            return new StateAction(state, "7");
+            return "7";
         }
         int action = 0;
         if (occ.kind() != Occupant.Kind.PAWN) {
             action |= 1 << 4; // Set the most significant bit if the occupant is not a pawn
         }
         action |= (occ.zoneId() % 10) & 0b1111; // Set the four least significant bits to the zoneId
-        return new StateAction(state.withNewOccupant(occ), Base32.encodeBits5(action));
+        return Base32.encodeBits5(action);
     }
 
     /**
-     * Encodes an occupant removal action into a StateAction object.
+     * Encodes an occupant removal action, without applying it to the game state.
      *
      * @param state The current game state.
-     * @param occ   The occupant to be removed.
-     * @return A StateAction object representing the action.
+     * @param occ   The occupant to be removed, or null if the player does not remove any occupant.
+     * @return The encoded action.
      */
-    public static StateAction withOccupantRemoved(GameState state, Occupant occ) {
+    public static String encodeOccupantRemoved(GameState state, Occupant occ) {
         if (occ == null) {
-            return new StateAction(state, "7");
+            return "7";
         }
         StringBuilder action = new StringBuilder();
         List<Occupant> boardOccupants = new ArrayList<>(state.board().occupants().stream().toList());
         boardOccupants.sort(Comparator.comparingInt(Occupant::zoneId));
         int occIndex = boardOccupants.indexOf(occ);
         action.append(Integer.toBinaryString(occIndex));
-        return new StateAction(
-                state.withOccupantRemoved(occ),
-                Base32.encodeBits5(Integer.parseInt(action.toString())));
+        return Base32.encodeBits5(Integer.parseInt(action.toString()));
     }
 
     /**
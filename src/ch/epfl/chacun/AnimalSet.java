@@ -0,0 +1,187 @@
+package ch.epfl.chacun;
+
+import java.util.*;
+
+/**
+ * An immutable set of animals, stored as one {@link IntSet} of animal ids per kind of animal. Adding animals
+ * only builds the sets of the kinds that change, the others being shared with the previous set, and testing
+ * whether an animal is in the set does not compute any hash.
+ *
+ * <p>It is a {@link Set} like any other, equal to any set holding the same animals, but cannot be modified.
+ * As animal ids are derived from tile ids, they are small and never negative.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class AnimalSet extends AbstractSet<Animal> {
+    private static final Animal.Kind[] KINDS = Animal.Kind.values();
+
+    /**
+     * The empty set of animals.
+     */
+    public static final AnimalSet EMPTY = new AnimalSet(emptyIds());
+
+    // Ids of the animals in the set, by kind ordinal, shared between successive sets
+    private final IntSet[] ids;
+    private final int size;
+    private int hash;
+
+    /**
+     * Constructs a new AnimalSet with the given sets of ids by kind.
+     *
+     * @param ids the ids of the animals, by kind ordinal
+     */
+    private AnimalSet(IntSet[] ids) {
+        this.ids = ids;
+        int size = 0;
+        for (IntSet kindIds : ids) size += kindIds.size();
+        this.size = size;
+    }
+
+    /**
+     * Returns a set of the given animals, or the given collection itself if it already is an AnimalSet.
+     *
+     * @param animals the animals
+     * @return a set of the given animals
+     * @throws IllegalArgumentException if the id of one of the animals is negative
+     * @throws NullPointerException     if one of the animals is null
+     */
+    public static AnimalSet copyOf(Collection<Animal> animals) {
+        return animals instanceof AnimalSet set ? set : EMPTY.withAll(animals);
+    }
+
+    /**
+     * Returns a set of the animals of this set and of the given collection. This set is returned as is if it
+     * already contains all the given animals.
+     *
+     * @param animals the animals to add
+     * @return a set of the animals of this set and of the given collection
+     * @throws IllegalArgumentException if the id of one of the animals is negative
+     * @throws NullPointerException     if one of the animals is null
+     */
+    public AnimalSet withAll(Collection<Animal> animals) {
+        if (animals instanceof AnimalSet other) return union(other);
+
+        IntSet.Builder[] added = null;
+        for (Animal animal : animals) {
+            Preconditions.checkArgument(animal.id() >= 0);
+            if (contains(animal)) continue;
+            if (added == null) added = new IntSet.Builder[KINDS.length];
+            int kind = animal.kind().ordinal();
+            if (added[kind] == null) added[kind] = new IntSet.Builder();
+            added[kind].add(animal.id());
+        }
+        if (added == null) return this;
+
+        IntSet[] newIds = ids.clone();
+        for (int kind = 0; kind < KINDS.length; ++kind) {
+            if (added[kind] != null) newIds[kind] = ids[kind].union(added[kind].build());
+        }
+        return new AnimalSet(newIds);
+    }
+
+    /**
+     * Returns the set of the animals of this set that are not in the given one.
+     *
+     * @param other the animals to remove
+     * @return the set of the animals of this set that are not in the given one
+     */
+    public AnimalSet difference(AnimalSet other) {
+        IntSet[] newIds = new IntSet[KINDS.length];
+        for (int kind = 0; kind < KINDS.length; ++kind) newIds[kind] = ids[kind].difference(other.ids[kind]);
+        return sameIds(newIds) ? this : new AnimalSet(newIds);
+    }
+
+    /**
+     * Returns the number of animals of the given kind in this set.
+     *
+     * @param kind the kind of animal
+     * @return the number of animals of the given kind
+     */
+    public int count(Animal.Kind kind) {
+        return ids[kind.ordinal()].size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Animal animal && ids[animal.kind().ordinal()].contains(animal.id());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Animal> iterator() {
+        return new Iterator<>() {
+            private int kind = 0;
+            private Iterator<Integer> kindIds = ids[0].iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!kindIds.hasNext() && kind < KINDS.length - 1) kindIds = ids[++kind].iterator();
+                return kindIds.hasNext();
+            }
+
+            @Override
+            public Animal next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return new Animal(kindIds.next(), KINDS[kind]);
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AnimalSet other)) return super.equals(o);
+        return size == other.size && Arrays.equals(ids, other.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = super.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the set of the animals of this set and of the given one.
+     *
+     * @param other the other set
+     * @return the union of both sets, this set itself if it already contains the other one
+     */
+    private AnimalSet union(AnimalSet other) {
+        IntSet[] newIds = new IntSet[KINDS.length];
+        for (int kind = 0; kind < KINDS.length; ++kind) newIds[kind] = ids[kind].union(other.ids[kind]);
+        return sameIds(newIds) ? this : new AnimalSet(newIds);
+    }
+
+    /**
+     * Returns whether the given sets of ids are those of this set, which the operations of IntSet return
+     * when they change nothing.
+     *
+     * @param newIds the sets of ids, by kind ordinal
+     * @return true if every set of ids is the same instance as that of this set, false otherwise
+     */
+    private boolean sameIds(IntSet[] newIds) {
+        for (int kind = 0; kind < KINDS.length; ++kind) {
+            if (newIds[kind] != ids[kind]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns one empty set of ids per kind of animal.
+     *
+     * @return the empty sets of ids, by kind ordinal
+     */
+    private static IntSet[] emptyIds() {
+        IntSet[] ids = new IntSet[KINDS.length];
+        Arrays.fill(ids, IntSet.EMPTY);
+        return ids;
+    }
+}
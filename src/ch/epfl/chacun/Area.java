@@ -239,12 +239,12 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
      *
      * @return The set of tile IDs in the area.
      */
-    public Set<Integer> tileIds() {
-        Set<Integer> tileIds = new HashSet<>();
+    public IntSet tileIds() {
+        IntSet.Builder tileIds = new IntSet.Builder();
         for (Z zone : zones) {
             tileIds.add(zone.tileId());
         }
-        return tileIds;
+        return tileIds.build();
     }
 
     /**
@@ -11,28 +11,45 @@ public final class Board {
     private final PlacedTile[] placedTilesInArray;
     private final int[] placedTilesOrder;
     private final ZonePartitions zonePartitions;
-    private final Set<Animal> deletedAnimals;
+    private final AnimalSet deletedAnimals;
+    private final PlacementOutcome lastPlacementOutcome;
+    private int hash;
+    // Derived results, computed at most once per board as boards are immutable
+    private final Memo<Set<Pos>> insertionPositions = new Memo<>();
+    private final Memo<Set<Occupant>> occupants = new Memo<>();
+    private final Memo<int[][]> occupantCounts = new Memo<>();
+    private final Memo<Set<Occupant>> lastTilePotentialOccupants = new Memo<>();
     public final static int REACH = 12;
-    private final static int MAX_TILES = (REACH * 2 + 1) * (REACH * 2 + 1);
-    public final static Board EMPTY = new Board(new PlacedTile[MAX_TILES], new int[0], ZonePartitions.EMPTY, Set.of());
+    final static int WIDTH = REACH * 2 + 1;
+    final static int MAX_TILES = WIDTH * WIDTH;
+    public final static Board EMPTY = new Board(
+            new PlacedTile[MAX_TILES],
+            new int[0],
+            ZonePartitions.EMPTY,
+            AnimalSet.EMPTY,
+            PlacementOutcome.NONE);
 
     /**
-     * Constructs a new Board with the given placed tiles, order of placed tiles, zone partitions, and deleted animals.
+     * Constructs a new Board with the given placed tiles, order of placed tiles, zone partitions, deleted animals
+     * and outcome of the last placement.
      *
-     * @param placedTiles      the placed tiles on the board
-     * @param placedTilesOrder the order of the placed tiles
-     * @param zonePartitions   the partitions of the zones on the board
-     * @param deletedAnimals   the set of deleted animals on the board
+     * @param placedTiles          the placed tiles on the board
+     * @param placedTilesOrder     the order of the placed tiles
+     * @param zonePartitions       the partitions of the zones on the board
+     * @param deletedAnimals       the set of deleted animals on the board
+     * @param lastPlacementOutcome the areas closed or triggered by the last placed tile
      */
     private Board(
             PlacedTile[] placedTiles,
             int[] placedTilesOrder,
             ZonePartitions zonePartitions,
-            Set<Animal> deletedAnimals) {
+            AnimalSet deletedAnimals,
+            PlacementOutcome lastPlacementOutcome) {
         this.placedTilesInArray = placedTiles;
         this.placedTilesOrder = placedTilesOrder;
         this.zonePartitions = zonePartitions;
         this.deletedAnimals = deletedAnimals;
+        this.lastPlacementOutcome = lastPlacementOutcome;
     }
 
     /**
@@ -48,6 +65,16 @@ public final class Board {
         return placedTilesInArray[pos.x() + REACH + (pos.y() + REACH) * (REACH * 2 + 1)];
     }
 
+    /**
+     * Returns the tile in the given cell of the board, cells being numbered row by row from the top left one.
+     *
+     * @param index the index of the cell, between 0 (included) and {@link #MAX_TILES} (excluded)
+     * @return the tile in the given cell, or null if the cell is empty
+     */
+    PlacedTile tileAtIndex(int index) {
+        return placedTilesInArray[index];
+    }
+
     /**
      * Returns the tile with the given ID.
      *
@@ -67,18 +94,27 @@ public final class Board {
     /**
      * Returns the set of cancelled animals.
      *
-     * @return the set of cancelled animals
+     * @return the set of cancelled animals, which cannot be modified
      */
-    public Set<Animal> cancelledAnimals() {
-        return Collections.unmodifiableSet(deletedAnimals);
+    public AnimalSet cancelledAnimals() {
+        return deletedAnimals;
     }
 
     /**
      * Returns the set of occupants of the board.
      *
-     * @return the set of occupants
+     * @return the unmodifiable set of occupants
      */
     public Set<Occupant> occupants() {
+        return occupants.get(this::computeOccupants);
+    }
+
+    /**
+     * Computes the set of occupants of the board.
+     *
+     * @return the unmodifiable set of occupants
+     */
+    private Set<Occupant> computeOccupants() {
         Set<Occupant> occupants = new HashSet<>();
         for (int orderId : placedTilesOrder) {
             PlacedTile placedTile = tileWithId(orderId);
@@ -86,7 +122,7 @@ public final class Board {
                 occupants.add(placedTile.occupant());
             }
         }
-        return occupants;
+        return Collections.unmodifiableSet(occupants);
     }
 
 
@@ -184,15 +220,108 @@ public final class Board {
      * @return the count of the given occupant kind for the given player
      */
     public int occupantCount(PlayerColor player, Occupant.Kind occupantKind) {
-        int count = 0;
+        // Only the starting tile has no placer, and it is never occupied
+        if (player == null) return 0;
+        return occupantCounts.get(this::computeOccupantCounts)[occupantKind.ordinal()][player.ordinal()];
+    }
+
+    /**
+     * Returns the number of occupants of the given kind each player has placed on the board.
+     *
+     * @param occupantKind the kind of occupant
+     * @return the number of occupants of the given kind by player, players without any being absent
+     */
+    public Map<PlayerColor, Integer> occupantCounts(Occupant.Kind occupantKind) {
+        int[] counts = occupantCounts.get(this::computeOccupantCounts)[occupantKind.ordinal()];
+        Map<PlayerColor, Integer> result = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : PlayerColor.ALL) {
+            if (counts[player.ordinal()] > 0) result.put(player, counts[player.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the occupants of every kind of every player in a single pass over the placed tiles.
+     *
+     * @return the counts, indexed by occupant kind and then by player
+     */
+    private int[][] computeOccupantCounts() {
+        int[][] counts = new int[Occupant.Kind.values().length][PlayerColor.ALL.size()];
         for (int orderId : placedTilesOrder) {
             PlacedTile placedTile = tileWithId(orderId);
-            if (placedTile.placer() == player && placedTile.occupant() != null &&
-                    placedTile.occupant().kind() == occupantKind) {
-                count++;
+            if (placedTile.placer() != null && placedTile.occupant() != null) {
+                counts[placedTile.occupant().kind().ordinal()][placedTile.placer().ordinal()] += 1;
             }
         }
-        return count;
+        return counts;
+    }
+
+    /**
+     * Returns the occupants the placer of the last placed tile can still place on it: the zones must be
+     * unoccupied and the placer must have a free occupant of the right kind.
+     *
+     * @return the unmodifiable set of potential occupants of the last placed tile
+     * @throws NullPointerException if no tile was placed yet
+     */
+    public Set<Occupant> lastTilePotentialOccupants() {
+        return lastTilePotentialOccupants.get(this::computeLastTilePotentialOccupants);
+    }
+
+    /**
+     * Computes the potential occupants of the last placed tile.
+     *
+     * @return the unmodifiable set of potential occupants of the last placed tile
+     */
+    private Set<Occupant> computeLastTilePotentialOccupants() {
+        PlacedTile lastPlaced = lastPlacedTile();
+        return lastTilePotentialOccupants(
+                lastPlaced,
+                occupantCount(lastPlaced.placer(), Occupant.Kind.PAWN) < Occupant.occupantsCount(Occupant.Kind.PAWN),
+                occupantCount(lastPlaced.placer(), Occupant.Kind.HUT) < Occupant.occupantsCount(Occupant.Kind.HUT));
+    }
+
+    /**
+     * Computes the potential occupants of the last placed tile, given that tile and whether its placer has a
+     * free pawn and a free hut, for callers that already know them without searching the board.
+     *
+     * @param lastPlaced  the last placed tile
+     * @param hasFreePawn whether the placer of the last placed tile has a free pawn
+     * @param hasFreeHut  whether the placer of the last placed tile has a free hut
+     * @return the unmodifiable set of potential occupants of the last placed tile
+     */
+    Set<Occupant> lastTilePotentialOccupants(PlacedTile lastPlaced, boolean hasFreePawn, boolean hasFreeHut) {
+        Set<Occupant> potentialOccupants = new HashSet<>();
+        for (Occupant occ : lastPlaced.potentialOccupants()) {
+            if (occ.kind() == Occupant.Kind.HUT && hasFreeHut) {
+                switch (lastPlaced.zoneWithId(occ.zoneId())) {
+                    case Zone.Lake lake:
+                        if (!riverSystemArea(lake).isOccupied()) potentialOccupants.add(occ);
+                        break;
+                    case Zone.River river:
+                        if (!riverSystemArea(river).isOccupied() && !river.hasLake()) potentialOccupants.add(occ);
+                        break;
+                    default:
+                        break;
+                }
+            } else {
+                if (hasFreePawn) {
+                    switch (lastPlaced.zoneWithId(occ.zoneId())) {
+                        case Zone.Meadow meadow:
+                            if (!meadowArea(meadow).isOccupied()) potentialOccupants.add(occ);
+                            break;
+                        case Zone.Forest forest:
+                            if (!forestArea(forest).isOccupied()) potentialOccupants.add(occ);
+                            break;
+                        case Zone.River river:
+                            if (!riverArea(river).isOccupied()) potentialOccupants.add(occ);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableSet(potentialOccupants);
     }
 
     /**
@@ -221,9 +350,18 @@ public final class Board {
     /**
      * Returns the set of possible insertion positions.
      *
-     * @return the set of possible insertion positions
+     * @return the unmodifiable set of possible insertion positions
      */
     public Set<Pos> insertionPositions() {
+        return insertionPositions.get(this::computeInsertionPositions);
+    }
+
+    /**
+     * Computes the set of possible insertion positions.
+     *
+     * @return the unmodifiable set of possible insertion positions
+     */
+    private Set<Pos> computeInsertionPositions() {
         Set<Pos> insertionPositions = new HashSet<>();
         for (PlacedTile placed : placedTilesInArray) {
             if (placed != null) {
@@ -235,7 +373,7 @@ public final class Board {
                 }
             }
         }
-        return insertionPositions;
+        return Collections.unmodifiableSet(insertionPositions);
     }
 
     /**
@@ -258,24 +396,55 @@ public final class Board {
         return tileWithId(lastPlacedId);
     }
 
+    /**
+     * Returns the number of tiles placed on the board.
+     *
+     * @return the number of placed tiles
+     */
+    public int tileCount() {
+        return placedTilesOrder.length;
+    }
+
+    /**
+     * Returns the tiles placed after the given number of tiles, in the order they were placed.
+     *
+     * @param count the number of tiles placed first, which are left out
+     * @return the tiles placed after the first ones, empty if there are none
+     */
+    public List<PlacedTile> tilesPlacedAfter(int count) {
+        List<PlacedTile> tiles = new ArrayList<>();
+        for (int i = Math.max(0, count); i < placedTilesOrder.length; i += 1) {
+            tiles.add(tileWithId(placedTilesOrder[i]));
+        }
+        return tiles;
+    }
+
+    /**
+     * Returns the outcome of the last placement: the areas it closed and the special powers it triggered.
+     * The areas reflect the current occupants of the board.
+     *
+     * @return the outcome of the last placement, or {@link PlacementOutcome#NONE} if the board is empty
+     */
+    public PlacementOutcome lastPlacementOutcome() {
+        return lastPlacementOutcome;
+    }
+
+    /**
+     * Returns the partitions of the zones of this board.
+     *
+     * @return the partitions of the zones
+     */
+    ZonePartitions zonePartitions() {
+        return zonePartitions;
+    }
+
     /**
      * Returns the set of forests closed by the last tile.
      *
      * @return the set of forests closed by the last tile
      */
     public Set<Area<Zone.Forest>> forestsClosedByLastTile() {
-        Set<Area<Zone.Forest>> closedForests = new HashSet<>();
-        if (placedTilesOrder.length > 0) {
-            PlacedTile lastPlaced = lastPlacedTile();
-            for (Zone.Forest forest : lastPlaced.forestZones()) {
-                if (forestArea(forest).isClosed()) {
-                    closedForests.add(forestArea(forest));
-                }
-            }
-        } else {
-            return Set.of();
-        }
-        return closedForests;
+        return lastPlacementOutcome.closedForests();
     }
 
     /**
@@ -284,18 +453,7 @@ public final class Board {
      * @return the set of rivers closed by the last tile
      */
     public Set<Area<Zone.River>> riversClosedByLastTile() {
-        Set<Area<Zone.River>> closedRivers = new HashSet<>();
-        if (placedTilesOrder.length > 0) {
-            PlacedTile lastPlaced = lastPlacedTile();
-            for (Zone.River river : lastPlaced.riverZones()) {
-                if (riverArea(river).isClosed()) {
-                    closedRivers.add(riverArea(river));
-                }
-            }
-        } else {
-            return Set.of();
-        }
-        return closedRivers;
+        return lastPlacementOutcome.closedRivers();
     }
 
     /**
@@ -305,30 +463,7 @@ public final class Board {
      * @return true if the tile can be added, false otherwise
      */
     public boolean canAddTile(PlacedTile tile) {
-        boolean contained = insertionPositions().contains(tile.pos());
-        if (!contained) return false;
-
-        Direction[] directions = Direction.ALL.toArray(Direction[]::new);
-        for (Direction direction : directions) {
-            PlacedTile neighbour = tileAt(tile.pos().neighbor(direction));
-            if (neighbour != null && !areTilesCompatible(neighbour, tile, direction)) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    /**
-     * Returns whether the given tiles are compatible in the given direction: if their two sides are compatible
-     *
-     * @param tile1     the first tile
-     * @param tile2     the second tile
-     * @param direction the direction
-     * @return true if the tiles are compatible, false otherwise
-     */
-    private static boolean areTilesCompatible(PlacedTile tile1, PlacedTile tile2, Direction direction) {
-        return tile1.side(direction.opposite()).isSameKindAs(tile2.side(direction));
+        return PlacementKernel.local().canPlace(this, tile.tile(), tile.rotation(), tile.pos());
     }
 
     /**
@@ -338,15 +473,7 @@ public final class Board {
      * @return true if the tile can be placed, false otherwise
      */
     public boolean couldPlaceTile(Tile tile) {
-        Set<Pos> possibleInsertionsPositions = insertionPositions();
-        for (Pos pos : possibleInsertionsPositions) {
-            for (Rotation rotation : Rotation.ALL) {
-                if (canAddTile(new PlacedTile(tile, PlayerColor.GREEN, rotation, pos, null))) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return PlacementKernel.local().hasPlacement(this, tile);
     }
 
     /**
@@ -373,7 +500,13 @@ public final class Board {
                         tileAt(tile.pos().neighbor(direction)).side(direction.opposite()));
             }
         }
-        return new Board(newPlacedTiles, newPlacedTilesOrder, newPartitionsBuilder.build(), deletedAnimals);
+        ZonePartitions newPartitions = newPartitionsBuilder.build();
+        return new Board(
+                newPlacedTiles,
+                newPlacedTilesOrder,
+                newPartitions,
+                deletedAnimals,
+                PlacementOutcome.of(tile, newPartitions));
     }
 
     /**
@@ -392,7 +525,13 @@ public final class Board {
         newPlacedTiles[indexInPlacedTiles] = tile.withOccupant(occupant);
         ZonePartitions.Builder zonePartitions = new ZonePartitions.Builder(this.zonePartitions);
         zonePartitions.addInitialOccupant(tile.placer(), occupant.kind(), tile.zoneWithId(zoneId));
-        return new Board(newPlacedTiles, placedTilesOrder, zonePartitions.build(), deletedAnimals);
+        ZonePartitions newPartitions = zonePartitions.build();
+        return new Board(
+                newPlacedTiles,
+                placedTilesOrder,
+                newPartitions,
+                deletedAnimals,
+                lastPlacementOutcome.resolvedIn(newPartitions));
     }
 
     /**
@@ -409,7 +548,13 @@ public final class Board {
         newPlacedTiles[indexInPlacedTiles] = tile.withNoOccupant();
         ZonePartitions.Builder zonePartitions = new ZonePartitions.Builder(this.zonePartitions);
         zonePartitions.removePawn(tile.placer(), tile.zoneWithId(zoneId));
-        return new Board(newPlacedTiles, placedTilesOrder, zonePartitions.build(), deletedAnimals);
+        ZonePartitions newPartitions = zonePartitions.build();
+        return new Board(
+                newPlacedTiles,
+                placedTilesOrder,
+                newPartitions,
+                deletedAnimals,
+                lastPlacementOutcome.resolvedIn(newPartitions));
     }
 
     /**
@@ -430,6 +575,7 @@ public final class Board {
      * @return a new board without gatherers or fishers in the given forests and rivers
      */
     public Board withoutGatherersOrFishersIn(Set<Area<Zone.Forest>> forests, Set<Area<Zone.River>> rivers) {
+        if (forests.isEmpty() && rivers.isEmpty()) return this;
         ZonePartitions.Builder partitionsBuilder = new ZonePartitions.Builder(zonePartitions);
         for (Area<Zone.Forest> forest : forests) {
             partitionsBuilder.clearGatherers(forest);
@@ -439,10 +585,12 @@ public final class Board {
         }
         PlacedTile[] newPlacedTiles = removeOccupantsInZonePartitionsForest(forests, placedTilesInArray.clone());
         newPlacedTiles = removeOccupantsInZonePartitionsRiver(rivers, newPlacedTiles);
+        ZonePartitions newPartitions = partitionsBuilder.build();
         return new Board(newPlacedTiles,
                 placedTilesOrder,
-                partitionsBuilder.build(),
-                deletedAnimals);
+                newPartitions,
+                deletedAnimals,
+                lastPlacementOutcome.resolvedIn(newPartitions));
     }
 
     /**
@@ -537,9 +685,14 @@ public final class Board {
      * @return a new board with more cancelled animals
      */
     public Board withMoreCancelledAnimals(Set<Animal> newlyCancelledAnimals) {
-        Set<Animal> newCancelledAnimals = new HashSet<>(deletedAnimals);
-        newCancelledAnimals.addAll(newlyCancelledAnimals);
-        return new Board(placedTilesInArray, placedTilesOrder, zonePartitions, newCancelledAnimals);
+        AnimalSet newCancelledAnimals = deletedAnimals.withAll(newlyCancelledAnimals);
+        if (newCancelledAnimals == deletedAnimals) return this;
+        return new Board(
+                placedTilesInArray,
+                placedTilesOrder,
+                zonePartitions,
+                newCancelledAnimals,
+                lastPlacementOutcome);
     }
 
     /**
@@ -556,40 +709,263 @@ public final class Board {
         if (!(obj instanceof Board other)) {
             return false;
         }
+        // Boards of different turns almost always differ in their tiles or their cached hash codes,
+        // so the deep comparison below only runs for boards that are most likely equal
+        if (placedTilesOrder.length != other.placedTilesOrder.length || hashCode() != other.hashCode()) {
+            return false;
+        }
         return Arrays.equals(placedTilesInArray, other.placedTilesInArray) &&
                 Arrays.equals(placedTilesOrder, other.placedTilesOrder) &&
                 Objects.equals(zonePartitions, other.zonePartitions) &&
                 Objects.equals(deletedAnimals, other.deletedAnimals);
     }
 
+    /**
+     * Returns the hash code of this board, computed once and then cached.
+     *
+     * @return the hash code of this board
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(
-                Arrays.hashCode(placedTilesInArray),
-                Arrays.hashCode(placedTilesOrder), zonePartitions, deletedAnimals);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(
+                    Arrays.hashCode(placedTilesInArray),
+                    Arrays.hashCode(placedTilesOrder), zonePartitions, deletedAnimals);
+            hash = h;
+        }
+        return h;
     }
 
+    /**
+     * Represents everything a single tile placement closed or triggered, computed once when the tile is added
+     * to the board so that the end of the turn does not have to query the partitions again.
+     *
+     * @param tile                   the placed tile, or null if no tile was placed yet
+     * @param closedForests          the forests closed by the tile
+     * @param closedRivers           the rivers closed by the tile
+     * @param closedRiverSystems     the river systems closed by the tile, through one of its lakes
+     * @param forestClosedWithMenhir a closed forest containing a menhir, or null if there is none
+     * @param logboatRiverSystems    the river systems containing a lake of the tile with the log boat
+     * @param raftRiverSystems       the closed river systems containing the raft
+     * @author Bjork Pedersen (376143)
+     */
+    public record PlacementOutcome(PlacedTile tile,
+                                   Set<Area<Zone.Forest>> closedForests,
+                                   Set<Area<Zone.River>> closedRivers,
+                                   Set<Area<Zone.Water>> closedRiverSystems,
+                                   Area<Zone.Forest> forestClosedWithMenhir,
+                                   Set<Area<Zone.Water>> logboatRiverSystems,
+                                   Set<Area<Zone.Water>> raftRiverSystems) {
+
+        /**
+         * The outcome of an empty board, on which no tile has been placed.
+         */
+        public static final PlacementOutcome NONE =
+                new PlacementOutcome(null, Set.of(), Set.of(), Set.of(), null, Set.of(), Set.of());
+
+        /**
+         * Constructor for PlacementOutcome. Makes it immutable by copying the sets, keeping their order, which
+         * is that of the zones of the tile (see {@link Tile#zones()}).
+         */
+        public PlacementOutcome {
+            closedForests = ordered(closedForests);
+            closedRivers = ordered(closedRivers);
+            closedRiverSystems = ordered(closedRiverSystems);
+            logboatRiverSystems = ordered(logboatRiverSystems);
+            raftRiverSystems = ordered(raftRiverSystems);
+        }
 
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
+        /**
+         * Computes the outcome of placing the given tile, in a single pass over its zones.
+         *
+         * @param tile       the tile that was just placed
+         * @param partitions the partitions of the board once the tile is placed
+         * @return the outcome of the placement
+         */
+        private static PlacementOutcome of(PlacedTile tile, ZonePartitions partitions) {
+            // Most placements neither close anything nor have the log boat, and need no set
+            PlacementKernel kernel = PlacementKernel.local();
+            if (kernel.placementEffects(tile, partitions) == 0) {
+                return new PlacementOutcome(tile, Set.of(), Set.of(), Set.of(), null, Set.of(), Set.of());
+            }
+            Set<Area<Zone.Forest>> closedForests = new LinkedHashSet<>();
+            Set<Area<Zone.River>> closedRivers = new LinkedHashSet<>();
+            Set<Area<Zone.Water>> closedRiverSystems = new LinkedHashSet<>();
+            Set<Area<Zone.Water>> logboatRiverSystems = new LinkedHashSet<>();
+            Set<Area<Zone.Water>> raftRiverSystems = new LinkedHashSet<>();
+            Area<Zone.Forest> forestClosedWithMenhir = null;
+
+            for (int i = 0, count = kernel.loadTileZones(tile.tile()); i < count; ++i) {
+                switch (kernel.tileZone(i)) {
+                    case Zone.Forest forest -> {
+                        Area<Zone.Forest> area = partitions.forests().areaContaining(forest);
+                        if (area.isClosed()) {
+                            closedForests.add(area);
+                            if (forestClosedWithMenhir == null && Area.hasMenhir(area)) {
+                                forestClosedWithMenhir = area;
+                            }
+                        }
+                    }
+                    case Zone.River river -> {
+                        Area<Zone.River> area = partitions.rivers().areaContaining(river);
+                        if (area.isClosed()) closedRivers.add(area);
+                    }
+                    case Zone.Lake lake -> {
+                        Area<Zone.Water> area = partitions.riverSystems().areaContaining(lake);
+                        if (lake.specialPower() == Zone.SpecialPower.LOGBOAT) logboatRiverSystems.add(area);
+                        if (area.isClosed()) {
+                            closedRiverSystems.add(area);
+                            if (area.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) raftRiverSystems.add(area);
+                        }
+                    }
+                    case Zone.Meadow ignored -> {
+                    }
+                }
+            }
+            return new PlacementOutcome(
+                    tile,
+                    closedForests,
+                    closedRivers,
+                    closedRiverSystems,
+                    forestClosedWithMenhir,
+                    logboatRiverSystems,
+                    raftRiverSystems);
+        }
 
+        /**
+         * Returns the areas closed by the placement, each once, in the order of the zones of the tile that
+         * closed them: a forest for a forest zone, a river for a river zone and a river system for a lake.
+         *
+         * @return the closed areas in the order of the zones of the tile
+         */
+        public List<Area<? extends Zone>> closedAreas() {
+            List<Area<? extends Zone>> areas = new ArrayList<>();
+            if (isEmpty()) {
+                return areas;
+            }
+            for (Zone zone : tile.tile().zones()) {
+                Area<? extends Zone> area = switch (zone) {
+                    case Zone.Forest forest -> closedForest(forest);
+                    case Zone.River river -> closedRiver(river);
+                    case Zone.Lake lake -> closedRiverSystem(lake);
+                    case Zone.Meadow ignored -> null;
+                };
+                if (area != null && !areas.contains(area)) areas.add(area);
+            }
+            return areas;
+        }
 
+        /**
+         * Returns the closed forest containing the given forest zone of the tile.
+         *
+         * @param forest the forest zone
+         * @return the closed forest containing the zone, or null if its forest is not closed
+         */
+        public Area<Zone.Forest> closedForest(Zone.Forest forest) {
+            return areaContaining(closedForests, forest);
+        }
 
+        /**
+         * Returns the closed river containing the given river zone of the tile.
+         *
+         * @param river the river zone
+         * @return the closed river containing the zone, or null if its river is not closed
+         */
+        public Area<Zone.River> closedRiver(Zone.River river) {
+            return areaContaining(closedRivers, river);
+        }
 
+        /**
+         * Returns the closed river system containing the given lake of the tile.
+         *
+         * @param lake the lake
+         * @return the closed river system containing the lake, or null if its river system is not closed
+         */
+        public Area<Zone.Water> closedRiverSystem(Zone.Lake lake) {
+            return areaContaining(closedRiverSystems, lake);
+        }
 
+        /**
+         * Returns whether the placement neither closed an area nor triggered a log boat.
+         *
+         * @return true if there is nothing to score for this placement, false otherwise
+         */
+        public boolean isEmpty() {
+            return closedForests.isEmpty()
+                    && closedRivers.isEmpty()
+                    && closedRiverSystems.isEmpty()
+                    && logboatRiverSystems.isEmpty();
+        }
 
+        /**
+         * Returns this outcome with its areas looked up again in the given partitions, so that they reflect
+         * occupants added or removed since the placement. Closing is not affected by occupants.
+         *
+         * @param partitions the partitions of the board the outcome now belongs to
+         * @return the outcome with up-to-date areas
+         */
+        private PlacementOutcome resolvedIn(ZonePartitions partitions) {
+            if (isEmpty()) {
+                return this;
+            }
+            Set<Area<Zone.Water>> riverSystems = resolved(closedRiverSystems, partitions.riverSystems());
+            Set<Area<Zone.Water>> rafts = new LinkedHashSet<>();
+            for (Area<Zone.Water> riverSystem : riverSystems) {
+                if (riverSystem.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) rafts.add(riverSystem);
+            }
+            return new PlacementOutcome(
+                    tile,
+                    resolved(closedForests, partitions.forests()),
+                    resolved(closedRivers, partitions.rivers()),
+                    riverSystems,
+                    forestClosedWithMenhir == null
+                            ? null
+                            : partitions.forests().areaContaining(forestClosedWithMenhir.zones().iterator().next()),
+                    resolved(logboatRiverSystems, partitions.riverSystems()),
+                    rafts);
+        }
 
+        /**
+         * Looks up the areas containing the given areas in the given partition.
+         *
+         * @param areas     the areas to look up
+         * @param partition the partition to look them up in
+         * @param <Z>       the type of the zones of the areas
+         * @return the areas of the partition containing the given areas
+         */
+        private static <Z extends Zone> Set<Area<Z>> resolved(Set<Area<Z>> areas, ZonePartition<Z> partition) {
+            Set<Area<Z>> result = new LinkedHashSet<>();
+            for (Area<Z> area : areas) {
+                result.add(partition.areaContaining(area.zones().iterator().next()));
+            }
+            return result;
+        }
 
+        /**
+         * Returns the area of the given ones containing the given zone.
+         *
+         * @param areas the areas
+         * @param zone  the zone
+         * @param <Z>   the type of the zones of the areas
+         * @return the area containing the zone, or null if none does
+         */
+        private static <Z extends Zone> Area<Z> areaContaining(Set<Area<Z>> areas, Z zone) {
+            for (Area<Z> area : areas) {
+                if (area.zones().contains(zone)) return area;
+            }
+            return null;
+        }
 
+        /**
+         * Returns an unmodifiable copy of the given set iterating in the same order.
+         *
+         * @param set the set to copy
+         * @param <T> the type of the elements
+         * @return an unmodifiable copy of the set, in the same order
+         */
+        private static <T> Set<T> ordered(Set<T> set) {
+            return set.isEmpty() ? Set.of() : Collections.unmodifiableSet(new LinkedHashSet<>(set));
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package ch.epfl.chacun;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Represents the insertion positions of a board that none of the tiles left in the decks can ever fill,
+ * and the forests and rivers that therefore can never be closed.
+ *
+ * <p>Whether a tile can fill an insertion position only depends on the kinds of the sides facing it, which
+ * form the pattern of the position, and on the side signature of the tile. The pattern of each position is
+ * kept, and only the patterns of the neighbours of the last placed tile are updated when a tile is placed.
+ * As tiles are only ever removed from the decks and added around positions, a dead spot stays dead until
+ * the end of the game.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class DeadSpots {
+    // Number of different patterns, each direction being either empty or facing a side of one of three kinds
+    private static final int PATTERN_COUNT = 1 << (2 * Direction.COUNT);
+    // Side signatures that can fill a position, as sets of bits, by pattern
+    private static final int[] FILLING_SIGNATURES = fillingSignatures();
+
+    private final Board board;
+    // Pattern of each cell of the board, 0 for the cells that are not insertion positions
+    private final byte[] patterns;
+    // Side signatures of the tiles left in the decks, as a set of bits
+    private final int signatures;
+    private final Memo<Set<Pos>> deadPositions = new Memo<>();
+
+    /**
+     * Constructs a new DeadSpots.
+     *
+     * @param board      the board
+     * @param patterns   the patterns of the cells of the board, which are not copied
+     * @param signatures the side signatures of the tiles left
+     */
+    private DeadSpots(Board board, byte[] patterns, int signatures) {
+        this.board = board;
+        this.patterns = patterns;
+        this.signatures = signatures;
+    }
+
+    /**
+     * Computes the dead spots of the given board, for the tiles left in the given decks.
+     *
+     * @param board     the board
+     * @param tileDecks the decks the tiles left are drawn from
+     * @return the dead spots of the board
+     */
+    public static DeadSpots of(Board board, TileDecks tileDecks) {
+        byte[] patterns = new byte[Board.MAX_TILES];
+        for (int cell = 0; cell < Board.MAX_TILES; cell += 1) {
+            patterns[cell] = pattern(board, cell);
+        }
+        return new DeadSpots(board, patterns, signatures(tileDecks));
+    }
+
+    /**
+     * Returns the dead spots of the given board, which must be the board of these dead spots with one more
+     * tile, its last placed tile, for the tiles left in the given decks. Only the patterns of the positions
+     * around that tile are computed again.
+     *
+     * @param newBoard  the board with the new tile
+     * @param tileDecks the decks the tiles left are drawn from
+     * @return the dead spots of the new board
+     * @throws IllegalArgumentException if the new board has no last placed tile, or if it was already
+     *                                  placed on the board of these dead spots
+     */
+    public DeadSpots withPlacedTile(Board newBoard, TileDecks tileDecks) {
+        PlacedTile placedTile = newBoard.lastPlacedTile();
+        Preconditions.checkArgument(placedTile != null && board.tileAt(placedTile.pos()) == null);
+
+        byte[] newPatterns = patterns.clone();
+        int cell = PlacementKernel.cellIndex(placedTile.pos().x(), placedTile.pos().y());
+        newPatterns[cell] = 0;
+        for (int d = 0; d < Direction.COUNT; d += 1) {
+            int neighbour = PlacementKernel.neighbourCell(cell, d);
+            if (neighbour >= 0) newPatterns[neighbour] = pattern(newBoard, neighbour);
+        }
+        return new DeadSpots(newBoard, newPatterns, signatures(tileDecks));
+    }
+
+    /**
+     * Returns the board of these dead spots.
+     *
+     * @return the board
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * Returns whether the given position is an insertion position that no tile left can fill.
+     *
+     * @param pos the position
+     * @return true if the position is a dead spot, false otherwise
+     */
+    public boolean isDead(Pos pos) {
+        if (Math.abs(pos.x()) > Board.REACH || Math.abs(pos.y()) > Board.REACH) return false;
+        return isDead(PlacementKernel.cellIndex(pos.x(), pos.y()));
+    }
+
+    /**
+     * Returns the insertion positions that no tile left can fill.
+     *
+     * @return an unmodifiable set of the dead spots
+     */
+    public Set<Pos> deadPositions() {
+        return deadPositions.get(() -> {
+            Set<Pos> dead = new HashSet<>();
+            for (int cell = 0; cell < Board.MAX_TILES; cell += 1) {
+                if (isDead(cell)) {
+                    dead.add(new Pos(cell % Board.WIDTH - Board.REACH, cell / Board.WIDTH - Board.REACH));
+                }
+            }
+            return Collections.unmodifiableSet(dead);
+        });
+    }
+
+    /**
+     * Returns the open forests bordering a dead spot, which can therefore never be closed.
+     *
+     * @return the forests that can never be closed
+     */
+    public Set<Area<Zone.Forest>> unclosableForests() {
+        Set<Area<Zone.Forest>> forests = new HashSet<>();
+        for (Pos pos : deadPositions()) {
+            for (Direction direction : Direction.ALL) {
+                if (sideFacing(pos, direction) instanceof TileSide.Forest forestSide) {
+                    forests.add(board.forestArea(forestSide.forest()));
+                }
+            }
+        }
+        return forests;
+    }
+
+    /**
+     * Returns the open rivers bordering a dead spot, which can therefore never be closed.
+     *
+     * @return the rivers that can never be closed
+     */
+    public Set<Area<Zone.River>> unclosableRivers() {
+        Set<Area<Zone.River>> rivers = new HashSet<>();
+        for (Pos pos : deadPositions()) {
+            for (Direction direction : Direction.ALL) {
+                if (sideFacing(pos, direction) instanceof TileSide.River riverSide) {
+                    rivers.add(board.riverArea(riverSide.river()));
+                }
+            }
+        }
+        return rivers;
+    }
+
+    /**
+     * Returns the side of the tile next to the given position in the given direction that faces it.
+     *
+     * @param pos       the position
+     * @param direction the direction of the neighbour
+     * @return the side facing the position, or null if there is no tile in that direction
+     */
+    private TileSide sideFacing(Pos pos, Direction direction) {
+        PlacedTile neighbour = board.tileAt(pos.neighbor(direction));
+        return neighbour == null ? null : neighbour.side(direction.opposite());
+    }
+
+    /**
+     * Returns whether the given cell is an insertion position that no tile left can fill.
+     *
+     * @param cell the index of the cell
+     * @return true if the cell is a dead spot, false otherwise
+     */
+    private boolean isDead(int cell) {
+        return patterns[cell] != 0 && (FILLING_SIGNATURES[patterns[cell] & 0xFF] & signatures) == 0;
+    }
+
+    /**
+     * Returns the pattern of the given cell: two bits by direction, 0 if there is no neighbour in that
+     * direction, or the kind of the side of the neighbour facing the cell plus one otherwise.
+     *
+     * @param board the board
+     * @param cell  the index of the cell
+     * @return the pattern of the cell, 0 if it is occupied or has no neighbour
+     */
+    private static byte pattern(Board board, int cell) {
+        if (board.tileAtIndex(cell) != null) return 0;
+        int pattern = 0;
+        for (int d = 0; d < Direction.COUNT; d += 1) {
+            int neighbourCell = PlacementKernel.neighbourCell(cell, d);
+            PlacedTile neighbour = neighbourCell < 0 ? null : board.tileAtIndex(neighbourCell);
+            if (neighbour == null) continue;
+            int facing = (d + 2) % Direction.COUNT;
+            TileSide side = PlacementKernel.sideOf(neighbour.tile(),
+                    Math.floorMod(facing - neighbour.rotation().ordinal(), Direction.COUNT));
+            pattern |= (PlacementKernel.sideKind(side) + 1) << (2 * d);
+        }
+        return (byte) pattern;
+    }
+
+    /**
+     * Returns the side signatures of the tiles left in the given decks.
+     *
+     * @param tileDecks the decks
+     * @return the side signatures of the tiles left, as a set of bits
+     */
+    private static int signatures(TileDecks tileDecks) {
+        return tileDecks.composition(Tile.Kind.NORMAL).sideSignatureMask()
+                | tileDecks.composition(Tile.Kind.MENHIR).sideSignatureMask();
+    }
+
+    /**
+     * Computes, for each pattern, the side signatures that can fill a position of that pattern.
+     *
+     * @return the side signatures filling each pattern, as sets of bits
+     */
+    private static int[] fillingSignatures() {
+        int[] filling = new int[PATTERN_COUNT];
+        for (int signature = 0; signature < DeckComposition.SideSignature.COUNT; signature += 1) {
+            int[] kinds = DeckComposition.SideSignature.sideKinds(signature);
+            for (int pattern = 0; pattern < PATTERN_COUNT; pattern += 1) {
+                for (int rotation = 0; rotation < Rotation.COUNT; rotation += 1) {
+                    if (fills(kinds, rotation, pattern)) {
+                        filling[pattern] |= 1 << signature;
+                        break;
+                    }
+                }
+            }
+        }
+        return filling;
+    }
+
+    /**
+     * Returns whether a tile with the given side kinds, rotated by the given rotation, fits a position of
+     * the given pattern.
+     *
+     * @param kinds    the side kinds of the tile, by direction ordinal
+     * @param rotation the ordinal of the rotation
+     * @param pattern  the pattern of the position
+     * @return true if the tile fits, false otherwise
+     */
+    private static boolean fills(int[] kinds, int rotation, int pattern) {
+        for (int d = 0; d < Direction.COUNT; d += 1) {
+            int facing = (pattern >> (2 * d)) & 0b11;
+            if (facing != 0 && facing - 1 != kinds[Math.floorMod(d - rotation, Direction.COUNT)]) return false;
+        }
+        return true;
+    }
+}
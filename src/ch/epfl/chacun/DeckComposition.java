@@ -0,0 +1,320 @@
+package ch.epfl.chacun;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Represents what is left in a deck: the number of tiles of each side signature, the animals, fish,
+ * special powers and menhirs they hold, and the probability that the next tile drawn can be placed.
+ *
+ * <p>The counts of every suffix of a deck are computed once, when the composition of one of its versions
+ * is first asked for, and are shared by all the decks obtained by drawing from it. Getting the composition
+ * of a deck after drawing tiles therefore takes constant time, and none of its queries iterate the deck.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class DeckComposition {
+    private static final int ANIMALS = 0;
+    private static final int FISH = ANIMALS + Animal.Kind.values().length;
+    private static final int SPECIAL_POWERS = FISH + 1;
+    private static final int MENHIRS = SPECIAL_POWERS + Zone.SpecialPower.values().length;
+    private static final int SIDE_SIGNATURES = MENHIRS + 1;
+
+    private final Table table;
+    private final int top;
+
+    /**
+     * Constructs a new DeckComposition.
+     *
+     * @param table the counts of the deck the tiles are drawn from
+     * @param top   the index of the top tile in that deck
+     */
+    DeckComposition(Table table, int top) {
+        this.table = table;
+        this.top = top;
+    }
+
+    /**
+     * Returns the number of tiles left.
+     *
+     * @return the number of tiles left
+     */
+    public int tileCount() {
+        return table.tileCount - top;
+    }
+
+    /**
+     * Returns the number of tiles left having the given side signature.
+     *
+     * @param signature the side signature
+     * @return the number of tiles left having that signature
+     */
+    public int sideSignatureCount(SideSignature signature) {
+        int index = Arrays.binarySearch(table.signatureCodes, signature.code());
+        return index < 0 ? 0 : count(SIDE_SIGNATURES + index);
+    }
+
+    /**
+     * Returns the number of tiles left of each side signature.
+     *
+     * @return an unmodifiable map from each side signature of at least one tile left to its number of tiles
+     */
+    public Map<SideSignature, Integer> sideSignatureCounts() {
+        Map<SideSignature, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < table.signatureCodes.length; i += 1) {
+            int count = count(SIDE_SIGNATURES + i);
+            if (count > 0) counts.put(new SideSignature(table.signatureCodes[i]), count);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Returns the number of animals of the given kind in the meadows of the tiles left.
+     *
+     * @param kind the kind of animal
+     * @return the number of animals of that kind left
+     */
+    public int animalCount(Animal.Kind kind) {
+        return count(ANIMALS + kind.ordinal());
+    }
+
+    /**
+     * Returns the number of animals of each kind in the meadows of the tiles left.
+     *
+     * @return an unmodifiable map from each kind of animal to its number left
+     */
+    public Map<Animal.Kind, Integer> animalCounts() {
+        Map<Animal.Kind, Integer> counts = new EnumMap<>(Animal.Kind.class);
+        for (Animal.Kind kind : Animal.Kind.values()) counts.put(kind, animalCount(kind));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Returns the number of fish in the rivers and lakes of the tiles left.
+     *
+     * @return the number of fish left
+     */
+    public int fishCount() {
+        return count(FISH);
+    }
+
+    /**
+     * Returns the number of zones having the given special power in the tiles left.
+     *
+     * @param specialPower the special power
+     * @return the number of zones having that special power left
+     */
+    public int specialPowerCount(Zone.SpecialPower specialPower) {
+        return count(SPECIAL_POWERS + specialPower.ordinal());
+    }
+
+    /**
+     * Returns the number of forests with a menhir in the tiles left.
+     *
+     * @return the number of forests with a menhir left
+     */
+    public int menhirCount() {
+        return count(MENHIRS);
+    }
+
+    /**
+     * Returns the probability that the next tile drawn can be placed on the given board, all the tiles
+     * left being equally likely to be drawn. As whether a tile can be placed only depends on the kinds of
+     * its sides, a single tile of each side signature left is tried.
+     *
+     * @param board the board
+     * @return the probability that the next tile can be placed, 0 if there are no tiles left
+     */
+    public double placeableProbability(Board board) {
+        if (tileCount() == 0) return 0;
+        PlacementKernel kernel = PlacementKernel.local();
+        int placeableCount = 0;
+        for (int i = 0; i < table.signatureCodes.length; i += 1) {
+            int count = count(SIDE_SIGNATURES + i);
+            if (count > 0 && kernel.hasPlacement(board, table.signatureTiles[i])) placeableCount += count;
+        }
+        return (double) placeableCount / tileCount();
+    }
+
+    /**
+     * Returns the side signatures of the tiles left, as a set of bits indexed by {@link SideSignature#index(int)}.
+     *
+     * @return the side signatures of the tiles left
+     */
+    int sideSignatureMask() {
+        int mask = 0;
+        for (int i = 0; i < table.signatureCodes.length; i += 1) {
+            if (count(SIDE_SIGNATURES + i) > 0) mask |= 1 << SideSignature.index(table.signatureCodes[i]);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the count of the given feature over the tiles left.
+     *
+     * @param feature the index of the feature
+     * @return the count of the feature
+     */
+    private int count(int feature) {
+        return table.suffixCounts[top * table.featureCount + feature];
+    }
+
+    /**
+     * Represents the kinds of the four sides of a tile, regardless of its rotation. Two tiles have the same
+     * signature if and only if they can be placed at the same positions of any board.
+     *
+     * @param code the smallest base 3 number formed by the kinds of the sides, over all rotations
+     * @author Bjork Pedersen (376143)
+     */
+    public record SideSignature(int code) {
+        private static final int MAX_CODE = 3 * 3 * 3 * 3;
+        // Codes of the side signatures of tiles, that is the codes that are the smallest among their rotations
+        private static final int[] CODES = IntStream.range(0, MAX_CODE)
+                .filter(code -> code == smallestRotation(code))
+                .toArray();
+        /**
+         * The number of different side signatures a tile can have.
+         */
+        static final int COUNT = CODES.length;
+
+        /**
+         * Constructor for SideSignature.
+         *
+         * @throws IllegalArgumentException if the code is not that of a side signature
+         */
+        public SideSignature {
+            Preconditions.checkArgument(code >= 0 && code < MAX_CODE && code == smallestRotation(code));
+        }
+
+        /**
+         * Returns the side signature of the given tile.
+         *
+         * @param tile the tile
+         * @return the side signature of the tile
+         */
+        public static SideSignature of(Tile tile) {
+            return new SideSignature(code(tile));
+        }
+
+        /**
+         * Returns the side kinds of the signature of the given index, by direction ordinal, in one of its
+         * rotations.
+         *
+         * @param index the index of the signature, between 0 (included) and {@link #COUNT} (excluded)
+         * @return the side kinds of the signature
+         */
+        static int[] sideKinds(int index) {
+            int[] kinds = new int[Direction.COUNT];
+            int code = CODES[index];
+            for (int d = 0; d < Direction.COUNT; d += 1) {
+                kinds[d] = code % 3;
+                code /= 3;
+            }
+            return kinds;
+        }
+
+        /**
+         * Returns the index of the signature of the given code among all the signatures a tile can have.
+         *
+         * @param code the code of the signature of a tile
+         * @return the index of the signature, between 0 (included) and {@link #COUNT} (excluded)
+         */
+        static int index(int code) {
+            return Arrays.binarySearch(CODES, code);
+        }
+
+        /**
+         * Returns the smallest of the codes of the given code rotated by each rotation.
+         *
+         * @param code the code of the side kinds of a tile
+         * @return the smallest code among its rotations
+         */
+        private static int smallestRotation(int code) {
+            int smallest = code;
+            int rotated = code;
+            for (int rotation = 1; rotation < Rotation.COUNT; rotation += 1) {
+                rotated = rotated / 3 + rotated % 3 * (MAX_CODE / 3);
+                smallest = Math.min(smallest, rotated);
+            }
+            return smallest;
+        }
+
+        /**
+         * Returns the code of the side signature of the given tile.
+         *
+         * @param tile the tile
+         * @return the code of the side signature of the tile
+         */
+        private static int code(Tile tile) {
+            int code = MAX_CODE;
+            for (int rotation = 0; rotation < Rotation.COUNT; rotation += 1) {
+                int rotatedCode = 0;
+                for (int d = Direction.COUNT - 1; d >= 0; d -= 1) {
+                    int side = PlacementKernel.sideKind(
+                            PlacementKernel.sideOf(tile, Math.floorMod(d - rotation, Direction.COUNT)));
+                    rotatedCode = 3 * rotatedCode + side;
+                }
+                code = Math.min(code, rotatedCode);
+            }
+            return code;
+        }
+    }
+
+    /**
+     * The counts of every suffix of a deck, shared by all the decks obtained by drawing from it.
+     *
+     * @author Bjork Pedersen (376143)
+     */
+    static final class Table {
+        private final int tileCount;
+        private final int featureCount;
+        // Codes of the side signatures found in the deck, in increasing order, and a tile of each
+        private final int[] signatureCodes;
+        private final Tile[] signatureTiles;
+        // Count of each feature over the tiles from index i on, at i * featureCount + feature
+        private final int[] suffixCounts;
+
+        /**
+         * Computes the counts of every suffix of the given deck.
+         *
+         * @param tiles the tiles of the deck
+         */
+        Table(Tile[] tiles) {
+            tileCount = tiles.length;
+            int[] codes = new int[tiles.length];
+            for (int i = 0; i < tiles.length; i += 1) codes[i] = SideSignature.code(tiles[i]);
+            signatureCodes = Arrays.stream(codes).distinct().sorted().toArray();
+            signatureTiles = new Tile[signatureCodes.length];
+            featureCount = SIDE_SIGNATURES + signatureCodes.length;
+            suffixCounts = new int[(tiles.length + 1) * featureCount];
+
+            for (int i = tiles.length - 1; i >= 0; i -= 1) {
+                int row = i * featureCount;
+                System.arraycopy(suffixCounts, row + featureCount, suffixCounts, row, featureCount);
+                int signature = Arrays.binarySearch(signatureCodes, codes[i]);
+                suffixCounts[row + SIDE_SIGNATURES + signature] += 1;
+                signatureTiles[signature] = tiles[i];
+                for (Zone zone : tiles[i].zones()) {
+                    switch (zone) {
+                        case Zone.Meadow meadow -> {
+                            for (Animal animal : meadow.animals()) {
+                                suffixCounts[row + ANIMALS + animal.kind().ordinal()] += 1;
+                            }
+                        }
+                        case Zone.Water water -> suffixCounts[row + FISH] += water.fishCount();
+                        case Zone.Forest forest -> {
+                            if (forest.kind() == Zone.Forest.Kind.WITH_MENHIR) suffixCounts[row + MENHIRS] += 1;
+                        }
+                    }
+                    if (zone.specialPower() != null) {
+                        suffixCounts[row + SPECIAL_POWERS + zone.specialPower().ordinal()] += 1;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -31,7 +31,7 @@ public enum Direction {
      * @return The direction after the rotation.
      */
     public Direction rotated(Rotation rotation) {
-        return values()[(this.ordinal() + rotation.ordinal()) % COUNT];
+        return ALL.get((this.ordinal() + rotation.ordinal()) % COUNT);
     }
 
     /**
@@ -0,0 +1,115 @@
+package ch.epfl.chacun;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Counts the points of the meadows and river systems at the end of the game.
+ *
+ * <p>Each meadow is walked once: its animals are gathered a single time, the deer eaten by the tigers are
+ * chosen in the order in which they are gathered, and the animals left are counted in primitive counters
+ * given to the message board, instead of being gathered again for each step. The cancelled animals are
+ * added to the board once all the meadows have been counted. Likewise, the fish and the lakes of each river
+ * system are counted in a single walk over its zones.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+final class FinalScoring {
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private FinalScoring() {
+    }
+
+    /**
+     * Counts the points of the meadows and river systems of the given board.
+     *
+     * @param board            the board whose areas are counted
+     * @param cancelledAnimals the animals cancelled so far, which may include animals cancelled after the
+     *                         given board during the last turn
+     * @param lastTile         the tile placed during the last turn, around which a pit trap protects the deer
+     * @param messageBoard     the message board to add the messages to
+     * @return the board with the eaten deer cancelled, and the message board with the final points
+     */
+    static Outcome count(Board board,
+                         Set<Animal> cancelledAnimals,
+                         PlacedTile lastTile,
+                         MessageBoard messageBoard) {
+        Set<Animal> newCancelledAnimals = new HashSet<>(cancelledAnimals);
+        boolean deerEatable = false;
+        for (Area<Zone.Meadow> meadow : board.meadowAreas()) {
+            Set<Animal> animals = Area.animals(meadow, board.cancelledAnimals());
+            int[] animalCounts = MessageBoard.animalCounts(animals);
+
+            if (meadow.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE) != null) {
+                messageBoard = messageBoard.withScoredMeadow(meadow, animalCounts);
+            } else {
+                deerEatable = true;
+                Zone pitTrap = meadow.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP);
+                // The deer of the meadow adjacent to the pit trap, around the last tile, cannot be eaten
+                Set<Animal> protectedAnimals = pitTrap == null
+                        ? Set.of()
+                        : Area.animals(board.adjacentMeadow(lastTile.pos(), (Zone.Meadow) pitTrap),
+                        cancelledAnimals);
+                cancelEatenDeer(animals, protectedAnimals, animalCounts[Animal.Kind.TIGER.ordinal()],
+                        newCancelledAnimals);
+
+                int[] uneatenCounts = new int[animalCounts.length];
+                for (Animal animal : animals) {
+                    if (!newCancelledAnimals.contains(animal)) uneatenCounts[animal.kind().ordinal()] += 1;
+                }
+                messageBoard = pitTrap == null
+                        ? messageBoard.withScoredMeadow(meadow, uneatenCounts)
+                        : messageBoard.withScoredPitTrap(meadow, uneatenCounts);
+            }
+        }
+        Board newBoard = deerEatable ? board.withMoreCancelledAnimals(newCancelledAnimals) : board;
+
+        for (Area<Zone.Water> riverSystem : newBoard.riverSystemAreas()) {
+            int fishCount = 0;
+            int lakeCount = 0;
+            boolean hasRaft = false;
+            for (Zone.Water zone : riverSystem.zones()) {
+                fishCount += zone.fishCount();
+                if (zone instanceof Zone.Lake lake) {
+                    lakeCount += 1;
+                    hasRaft |= lake.specialPower() == Zone.SpecialPower.RAFT;
+                }
+            }
+            if (hasRaft) messageBoard = messageBoard.withScoredRaft(riverSystem, lakeCount);
+            messageBoard = messageBoard.withScoredRiverSystem(riverSystem, fishCount);
+        }
+        return new Outcome(newBoard, messageBoard);
+    }
+
+    /**
+     * Cancels, in the order of the given animals, one deer that is not protected for each tiger.
+     *
+     * @param animals          the animals of the meadow
+     * @param protectedAnimals the animals that cannot be eaten
+     * @param tigerCount       the number of tigers in the meadow
+     * @param cancelledAnimals the cancelled animals, to which the eaten deer are added
+     */
+    private static void cancelEatenDeer(Set<Animal> animals,
+                                        Set<Animal> protectedAnimals,
+                                        int tigerCount,
+                                        Set<Animal> cancelledAnimals) {
+        for (Animal animal : animals) {
+            if (tigerCount == 0) return;
+            if (animal.kind() == Animal.Kind.DEER && !protectedAnimals.contains(animal)) {
+                cancelledAnimals.add(animal);
+                tigerCount -= 1;
+            }
+        }
+    }
+
+    /**
+     * The result of the final count.
+     *
+     * @param board        the board with the eaten deer cancelled
+     * @param messageBoard the message board with the final points
+     * @author Bjork Pedersen (376143)
+     */
+    record Outcome(Board board, MessageBoard messageBoard) {
+    }
+}
@@ -0,0 +1,174 @@
+package ch.epfl.chacun;
+
+import java.util.*;
+
+/**
+ * Represents a change that happened in the game between two consecutive game states.
+ * Observers can apply these events one by one instead of comparing whole game states.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public sealed interface GameEvent {
+
+    /**
+     * A tile was placed on the board.
+     *
+     * @param tile the placed tile
+     * @author Bjork Pedersen (376143)
+     */
+    record TilePlaced(PlacedTile tile) implements GameEvent {
+    }
+
+    /**
+     * An occupant was placed on the board.
+     *
+     * @param player   the owner of the occupant
+     * @param occupant the placed occupant
+     * @author Bjork Pedersen (376143)
+     */
+    record OccupantPlaced(PlayerColor player, Occupant occupant) implements GameEvent {
+    }
+
+    /**
+     * An occupant was removed from the board, either by its owner or because its area was closed.
+     *
+     * @param player   the owner of the occupant
+     * @param occupant the removed occupant
+     * @author Bjork Pedersen (376143)
+     */
+    record OccupantRemoved(PlayerColor player, Occupant occupant) implements GameEvent {
+    }
+
+    /**
+     * An area was closed by the last placed tile.
+     *
+     * @param area the closed area
+     * @author Bjork Pedersen (376143)
+     */
+    record AreaClosed(Area<? extends Zone> area) implements GameEvent {
+    }
+
+    /**
+     * Animals were cancelled, by a hunting trap, a pit trap or tigers.
+     *
+     * @param animals the newly cancelled animals
+     * @author Bjork Pedersen (376143)
+     */
+    record AnimalsCancelled(Set<Animal> animals) implements GameEvent {
+        /**
+         * Constructor for AnimalsCancelled. Makes it immutable by copying the set.
+         */
+        public AnimalsCancelled {
+            animals = Set.copyOf(animals);
+        }
+    }
+
+    /**
+     * Players scored points.
+     *
+     * @param message the message describing the points scored
+     * @author Bjork Pedersen (376143)
+     */
+    record PointsScored(MessageBoard.Message message) implements GameEvent {
+    }
+
+    /**
+     * The turn passed to a player, who now has to place the given tile.
+     *
+     * @param player      the player whose turn it is
+     * @param tileToPlace the tile the player has to place
+     * @author Bjork Pedersen (376143)
+     */
+    record TurnPassed(PlayerColor player, Tile tileToPlace) implements GameEvent {
+    }
+
+    /**
+     * The game ended.
+     *
+     * @param winners the winners of the game
+     * @param points  the final points of every player
+     * @author Bjork Pedersen (376143)
+     */
+    record GameEnded(Set<PlayerColor> winners, Map<PlayerColor, Integer> points) implements GameEvent {
+        /**
+         * Constructor for GameEnded. Makes it immutable by copying the set and the map.
+         */
+        public GameEnded {
+            winners = Set.copyOf(winners);
+            points = Map.copyOf(points);
+        }
+    }
+
+    /**
+     * Returns the events that lead from one game state to the next, in the order in which they happened.
+     *
+     * @param before the game state before the transition
+     * @param after  the game state after the transition
+     * @return the list of events of the transition, empty if nothing changed
+     */
+    static List<GameEvent> between(GameState before, GameState after) {
+        List<GameEvent> events = new ArrayList<>();
+        Board oldBoard = before.board();
+        Board newBoard = after.board();
+
+        Board.PlacementOutcome outcome = newBoard.lastPlacementOutcome();
+        boolean tilePlaced = outcome.tile() != null
+                && !outcome.tile().equals(oldBoard.lastPlacementOutcome().tile());
+        if (tilePlaced) {
+            events.add(new TilePlaced(outcome.tile()));
+        }
+
+        if (oldBoard != newBoard) {
+            Set<Occupant> oldOccupants = oldBoard.occupants();
+            Set<Occupant> newOccupants = newBoard.occupants();
+            for (Occupant occupant : newOccupants) {
+                if (!oldOccupants.contains(occupant)) {
+                    events.add(new OccupantPlaced(owner(newBoard, occupant), occupant));
+                }
+            }
+            for (Occupant occupant : oldOccupants) {
+                if (!newOccupants.contains(occupant)) {
+                    events.add(new OccupantRemoved(owner(oldBoard, occupant), occupant));
+                }
+            }
+
+            if (oldBoard.cancelledAnimals().size() != newBoard.cancelledAnimals().size()) {
+                events.add(new AnimalsCancelled(
+                        newBoard.cancelledAnimals().difference(oldBoard.cancelledAnimals())));
+            }
+        }
+
+        if (tilePlaced) {
+            for (Area<? extends Zone> area : outcome.closedAreas()) events.add(new AreaClosed(area));
+        }
+
+        List<MessageBoard.Message> oldMessages = before.messageBoard().messages();
+        List<MessageBoard.Message> newMessages = after.messageBoard().messages();
+        for (int i = oldMessages.size(); i < newMessages.size(); i++) {
+            MessageBoard.Message message = newMessages.get(i);
+            if (message.points() > 0) {
+                events.add(new PointsScored(message));
+            }
+        }
+
+        if (after.nextAction() == GameState.Action.END_GAME && before.nextAction() != GameState.Action.END_GAME) {
+            Set<PlayerColor> winners = newMessages.isEmpty() ? Set.of() : newMessages.getLast().scorers();
+            events.add(new GameEnded(winners, after.messageBoard().points()));
+        } else if (after.nextAction() == GameState.Action.PLACE_TILE
+                && (before.nextAction() != GameState.Action.PLACE_TILE || before.tileToPlace() != after.tileToPlace())) {
+            events.add(new TurnPassed(after.currentPlayer(), after.tileToPlace()));
+        }
+        return events;
+    }
+
+    /**
+     * Returns the owner of the given occupant, which is the placer of the tile it stands on.
+     *
+     * @param board    the board the occupant is on
+     * @param occupant the occupant
+     * @return the owner of the occupant
+     */
+    private static PlayerColor owner(Board board, Occupant occupant) {
+        return board.tileWithId(Zone.tileId(occupant.zoneId())).placer();
+    }
+}
@@ -0,0 +1,83 @@
+package ch.epfl.chacun;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Publishes the events of a game to any number of subscribers, through the {@link Flow} interfaces.
+ * Every subscriber has its own bounded buffer: publishing blocks while a subscriber that requested too few
+ * events lets its buffer fill up, so slow consumers slow the producer down instead of losing events.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class GameEventPublisher implements Flow.Publisher<GameEvent>, AutoCloseable {
+    /**
+     * The default number of events buffered for each subscriber.
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = Flow.defaultBufferSize();
+
+    private final SubmissionPublisher<GameEvent> publisher;
+
+    /**
+     * Constructs a new GameEventPublisher delivering events on the common pool, with the default buffer capacity.
+     */
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Constructs a new GameEventPublisher.
+     *
+     * @param executor       the executor on which subscribers receive their events
+     * @param bufferCapacity the maximum number of events buffered for each subscriber
+     * @throws IllegalArgumentException if the buffer capacity is not strictly positive
+     */
+    public GameEventPublisher(Executor executor, int bufferCapacity) {
+        Preconditions.checkArgument(bufferCapacity > 0);
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    /**
+     * Subscribes the given subscriber to the events published from now on.
+     *
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Publishes the events of the transition between the two given game states.
+     *
+     * @param before the game state before the transition
+     * @param after  the game state after the transition
+     */
+    public void publishTransition(GameState before, GameState after) {
+        if (before == after || !publisher.hasSubscribers()) {
+            return;
+        }
+        for (GameEvent event : GameEvent.between(before, after)) {
+            publisher.submit(event);
+        }
+    }
+
+    /**
+     * Returns whether this publisher has at least one subscriber.
+     *
+     * @return true if there is a subscriber, false otherwise
+     */
+    public boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    /**
+     * Closes this publisher: subscribers receive the pending events, then are notified of completion.
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+}
@@ -92,6 +92,15 @@ public record GameState(List<PlayerColor> players,
         return Occupant.occupantsCount(kind) - board.occupantCount(player, kind);
     }
 
+    /**
+     * Computes the points and free occupants of every player at once.
+     *
+     * @return An unmodifiable map from each player to their statistics.
+     */
+    public Map<PlayerColor, PlayerStats> playerStats() {
+        return PlayerStats.of(this);
+    }
+
     /**
      * Gets the potential occupants for the last placed tile.
      *
@@ -99,39 +108,7 @@ public record GameState(List<PlayerColor> players,
      * @throws IllegalArgumentException if the last placed tile is null.
      */
     public Set<Occupant> lastTilePotentialOccupants() {
-        PlacedTile lastPlaced = board.lastPlacedTile();
-        Set<Occupant> potentialOccupants = new HashSet<>();
-        for (Occupant occ : lastPlaced.potentialOccupants()) {
-            if (occ.kind() == Occupant.Kind.HUT && freeOccupantsCount(lastPlaced.placer(), Occupant.Kind.HUT) > 0) {
-                switch (lastPlaced.zoneWithId(occ.zoneId())) {
-                    case Zone.Lake lake:
-                        if (!board.riverSystemArea(lake).isOccupied()) potentialOccupants.add(occ);
-                        break;
-                    case Zone.River river:
-                        if (!board.riverSystemArea(river).isOccupied() && !river.hasLake()) potentialOccupants.add(occ);
-                        break;
-                    default:
-                        break;
-                }
-            } else {
-                if (freeOccupantsCount(lastPlaced.placer(), Occupant.Kind.PAWN) > 0) {
-                    switch (lastPlaced.zoneWithId(occ.zoneId())) {
-                        case Zone.Meadow meadow:
-                            if (!board.meadowArea(meadow).isOccupied()) potentialOccupants.add(occ);
-                            break;
-                        case Zone.Forest forest:
-                            if (!board.forestArea(forest).isOccupied()) potentialOccupants.add(occ);
-                            break;
-                        case Zone.River river:
-                            if (!board.riverArea(river).isOccupied()) potentialOccupants.add(occ);
-                            break;
-                        default:
-                            break;
-                    }
-                }
-            }
-        }
-        return potentialOccupants;
+        return board.lastTilePotentialOccupants();
     }
 
     /**
@@ -171,55 +148,11 @@ public record GameState(List<PlayerColor> players,
      * @return true if occupation is possible, false otherwise.
      */
     private boolean occupationIsPossible(Board someBoard) {
-        boolean canOccupy = false;
-
-        // Iterate over all zones in the last placed tile
-        for (Zone zone : someBoard.lastPlacedTile().tile().zones()) {
-
-            // Check if the zone is a lake or a river with a lake and if it's not occupied
-            if (((zone instanceof Zone.River river && river.hasLake()) || zone instanceof Zone.Lake) &&
-                    !someBoard.riverSystemArea((Zone.Water) zone).isOccupied()) {
-
-                // If the current player has free huts, set the flag to true
-                if (freeOccupantsCount(currentPlayer(), Occupant.Kind.HUT) > 0) {
-                    canOccupy = true;
-                }
-            } else {
-                // If the current player has no free pawns, return false
-                if (freeOccupantsCount(currentPlayer(), Occupant.Kind.PAWN) == 0) {
-                    return false;
-                }
-
-                // Check if the zone is a river and if it's not occupied, set the flag to true
-                if (zone instanceof Zone.River river && !someBoard.riverSystemArea(river).isOccupied()) {
-                    canOccupy = true;
-                } else if (zone instanceof Zone.Meadow && !someBoard.meadowArea((Zone.Meadow) zone).isOccupied()) {
-                    canOccupy = true;
-                } else if (zone instanceof Zone.Forest && !someBoard.forestArea((Zone.Forest) zone).isOccupied()) {
-                    canOccupy = true;
-                }
-            }
-        }
-        return canOccupy;
-    }
-
-    /**
-     * Returns the forest area that was closed with a menhir.
-     *
-     * @return the forest area that was closed with a menhir, or null if no such area exists.
-     */
-    private Area<Zone.Forest> forestClosedWithMenhir(Board otherBoard) {
-        PlacedTile lastPlaced = otherBoard.lastPlacedTile();
-        if (lastPlaced == null) {
-            return null;
-        } else {
-            for (Area<Zone.Forest> forestArea : otherBoard.forestsClosedByLastTile()) {
-                if (Area.hasMenhir(forestArea)) {
-                    return forestArea;
-                }
-            }
-        }
-        return null;
+        return PlacementKernel.local().canOccupy(
+                someBoard,
+                someBoard.lastPlacedTile().tile(),
+                freeOccupantsCount(currentPlayer(), Occupant.Kind.PAWN),
+                freeOccupantsCount(currentPlayer(), Occupant.Kind.HUT));
     }
 
     /**
@@ -239,7 +172,7 @@ public record GameState(List<PlayerColor> players,
      */
     private GameState withTurnFinished(PlacedTile tile, Board otherBoard, MessageBoard newMessageBoard) {
         newMessageBoard = updateMessageBoardForClosedAreasInTurnFinished(otherBoard, newMessageBoard);
-        newMessageBoard = lastTileClosedRiverSystemWithLogBoat(tile, newMessageBoard, otherBoard);
+        newMessageBoard = lastTileClosedRiverSystemWithLogBoat(newMessageBoard, otherBoard);
 
         if (shouldPlaceMenhirTile(tile, otherBoard)) {
             return endTurnWithNextTileToPlaceMenhir(newMessageBoard, otherBoard);
@@ -277,7 +210,7 @@ public record GameState(List<PlayerColor> players,
     }
 
     private boolean shouldPlaceMenhirTile(PlacedTile tile, Board otherBoard) {
-        return forestClosedWithMenhir(otherBoard) != null &&
+        return otherBoard.lastPlacementOutcome().forestClosedWithMenhir() != null &&
                 !tileDecks.menhirTiles().isEmpty() &&
                 (nextAction == Action.PLACE_TILE ? tile.tile().kind() == Tile.Kind.NORMAL :
                         otherBoard.lastPlacedTile().kind() != Tile.Kind.MENHIR);
@@ -291,31 +224,14 @@ public record GameState(List<PlayerColor> players,
      * Returns a new MessageBoard updated (because we have to count the log boat with whichever closed river.
      *
      * @param newMessageBoard the messageBoard that withTurnFinished has been working on
-     * @param tile            the tile that was placed during the turn.
+     * @param otherBoard      the board that withTurnFinished has been working on
      * @return a new GameState with the turn finished.
      */
-    private MessageBoard lastTileClosedRiverSystemWithLogBoat(PlacedTile tile,
-                                                              MessageBoard newMessageBoard,
-                                                              Board otherBoard) {
-        // Create a set to store water areas with a log boat
-        HashSet<Area<Zone.Water>> waterAreasWithLogBoat = new HashSet<>();
-
-        // Iterate over all zones in the tile
-        for (Zone zone : tile.tile().zones()) {
-            // If the zone is a lake, not already in the set, and has a log boat special power
-            if (zone instanceof Zone.Lake &&
-                    !waterAreasWithLogBoat.contains(otherBoard.riverSystemArea((Zone.Water) zone)) &&
-                    zone.specialPower() == Zone.SpecialPower.LOGBOAT) {
-                // Add the river system area of the zone to the set
-                waterAreasWithLogBoat.add(otherBoard.riverSystemArea((Zone.Water) zone));
-            }
-        }
-        if (!waterAreasWithLogBoat.isEmpty()) {
-            // Iterate over all water areas in the set
-            for (Area<Zone.Water> waterArea : waterAreasWithLogBoat) {
-                // Update the message board with the score for the log boat
-                newMessageBoard = newMessageBoard.withScoredLogboat(currentPlayer(), waterArea);
-            }
+    private MessageBoard lastTileClosedRiverSystemWithLogBoat(MessageBoard newMessageBoard, Board otherBoard) {
+        // The placement outcome holds one river system per lake of the tile with a log boat
+        for (Area<Zone.Water> waterArea : otherBoard.lastPlacementOutcome().logboatRiverSystems()) {
+            // Update the message board with the score for the log boat
+            newMessageBoard = newMessageBoard.withScoredLogboat(currentPlayer(), waterArea);
         }
         return newMessageBoard;
     }
@@ -331,7 +247,9 @@ public record GameState(List<PlayerColor> players,
      * @return a new GameState with the turn finished.
      */
     private GameState endTurnWithNextTileToPlaceMenhir(MessageBoard newMessageBoard, Board otherBoard) {
-        newMessageBoard = newMessageBoard.withClosedForestWithMenhir(currentPlayer(), forestClosedWithMenhir(otherBoard));
+        newMessageBoard = newMessageBoard.withClosedForestWithMenhir(
+                currentPlayer(),
+                otherBoard.lastPlacementOutcome().forestClosedWithMenhir());
         TileDecks newTileDecks = tileDecks.withTopTileDrawnUntil(Tile.Kind.MENHIR, otherBoard::couldPlaceTile);
         Tile nextTileToPlace = newTileDecks.topTile(Tile.Kind.MENHIR);
         TileDecks finalTileDeck = newTileDecks.withTopTileDrawn(Tile.Kind.MENHIR);
@@ -357,24 +275,42 @@ public record GameState(List<PlayerColor> players,
     private static MessageBoard updateMessageBoardForClosedAreasInTurnFinished(
             Board otherBoard,
             MessageBoard otherMessageBoard) {
+        return withScoredClosedRiverSystems(otherBoard.lastPlacementOutcome(), otherMessageBoard);
+    }
 
-        // Iterate over all zones in the last placed tile
-        for (Zone zone : otherBoard.lastPlacedTile().tile().zones()) {
-            if (zone instanceof Zone.Lake && otherBoard.riverSystemArea((Zone.Water) zone).isClosed()) {
-
-                // Update the message board with the score for the river system area
-                otherMessageBoard = otherMessageBoard.
-                        withScoredRiverSystem(otherBoard.riverSystemArea((Zone.Water) zone));
-
-                // If the river system area has a raft special power,
-                // update the message board with the score for the raft
-                if (otherBoard.
-                        riverSystemArea((Zone.Water) zone).
-                        zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
-                    otherMessageBoard = otherMessageBoard.
-                            withScoredRaft(otherBoard.riverSystemArea((Zone.Water) zone));
-                }
-            }
+    /**
+     * Scores the river systems closed by the last placed tile, along with their raft if they have one.
+     *
+     * @param outcome           the outcome of the last placement
+     * @param otherMessageBoard the messageBoard being worked on
+     * @return the new messageBoard with the river system and raft messages
+     */
+    private static MessageBoard withScoredClosedRiverSystems(Board.PlacementOutcome outcome,
+                                                             MessageBoard otherMessageBoard) {
+        for (Area<Zone.Water> riverSystem : outcome.closedRiverSystems()) {
+            otherMessageBoard = withScoredRiverSystem(outcome, riverSystem, otherMessageBoard);
+        }
+        return otherMessageBoard;
+    }
+
+    /**
+     * Scores the given river system closed by the last placed tile, along with its raft if it has one.
+     *
+     * @param outcome           the outcome of the last placement
+     * @param riverSystem       the closed river system
+     * @param otherMessageBoard the messageBoard being worked on
+     * @return the new messageBoard with the river system and raft messages
+     */
+    private static MessageBoard withScoredRiverSystem(Board.PlacementOutcome outcome,
+                                                      Area<Zone.Water> riverSystem,
+                                                      MessageBoard otherMessageBoard) {
+        // Update the message board with the score for the river system area
+        otherMessageBoard = otherMessageBoard.withScoredRiverSystem(riverSystem);
+
+        // If the river system area has a raft special power,
+        // update the message board with the score for the raft
+        if (outcome.raftRiverSystems().contains(riverSystem)) {
+            otherMessageBoard = otherMessageBoard.withScoredRaft(riverSystem);
         }
         return otherMessageBoard;
     }
@@ -389,7 +325,7 @@ public record GameState(List<PlayerColor> players,
     public GameState withPlacedTile(PlacedTile tile) {
         Preconditions.checkArgument(nextAction == Action.PLACE_TILE || tile.occupant() != null);
         Board newBoard = board.withNewTile(tile);
-        MessageBoard newMessageBoard = new MessageBoard(messageBoard.textMaker(), messageBoard.messages());
+        MessageBoard newMessageBoard = messageBoard;
         if (tile.specialPowerZone() != null) {
             Zone.SpecialPower specialPower = tile.specialPowerZone().specialPower();
             switch (specialPower) {
@@ -440,39 +376,43 @@ public record GameState(List<PlayerColor> players,
      */
     private static Pair<Board, MessageBoard> returnPawnsWhenAreaClosed(Board otherBoard,
                                                                        MessageBoard otherMessageBoard) {
-        // Iterate over all zones in the last placed tile
-        for (Zone zone : otherBoard.lastPlacedTile().tile().zones()) {
-            // If the zone is a lake and the corresponding river system area is closed
-            if (zone instanceof Zone.Lake && otherBoard.riverSystemArea((Zone.Water) zone).isClosed()) {
-                // Update the message board with the score for the river system area
-                otherMessageBoard = otherMessageBoard.
-                        withScoredRiverSystem(otherBoard.riverSystemArea((Zone.Water) zone));
-
-                // If the river system area has a raft special power,
-                // update the message board with the score for the raft
-                if (otherBoard
-                        .riverSystemArea((Zone.Water) zone)
-                        .zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
-                    otherMessageBoard = otherMessageBoard
-                            .withScoredRaft(otherBoard.riverSystemArea((Zone.Water) zone));
+        Board.PlacementOutcome outcome = otherBoard.lastPlacementOutcome();
+        if (outcome.isEmpty()) {
+            return new Pair<>(otherBoard, otherMessageBoard);
+        }
+        // Update the message board with the score for every closed area, in the order of the zones of the tile
+        List<Area<? extends Zone>> scored = new ArrayList<>();
+        for (Zone zone : outcome.tile().tile().zones()) {
+            switch (zone) {
+                case Zone.Lake lake -> {
+                    Area<Zone.Water> riverSystem = outcome.closedRiverSystem(lake);
+                    if (riverSystem != null && !scored.contains(riverSystem)) {
+                        scored.add(riverSystem);
+                        otherMessageBoard = withScoredRiverSystem(outcome, riverSystem, otherMessageBoard);
+                    }
+                }
+                case Zone.River river -> {
+                    Area<Zone.River> riverArea = outcome.closedRiver(river);
+                    if (riverArea != null && !scored.contains(riverArea)) {
+                        scored.add(riverArea);
+                        otherMessageBoard = otherMessageBoard.withScoredRiver(riverArea);
+                    }
+                }
+                case Zone.Forest forest -> {
+                    Area<Zone.Forest> forestArea = outcome.closedForest(forest);
+                    if (forestArea != null && !scored.contains(forestArea)) {
+                        scored.add(forestArea);
+                        otherMessageBoard = otherMessageBoard.withScoredForest(forestArea);
+                    }
+                }
+                case Zone.Meadow ignored -> {
                 }
             }
-            // If the zone is a river and the corresponding river area is closed
-            if (zone instanceof Zone.River && otherBoard.riverArea((Zone.River) zone).isClosed()) {
-                // Update the message board with the score for the river area
-                otherMessageBoard = otherMessageBoard.withScoredRiver(otherBoard.riverArea((Zone.River) zone));
-                // Remove the gatherers or fishers in the river area from the board
-                otherBoard = otherBoard.
-                        withoutGatherersOrFishersIn(Set.of(), Set.of(otherBoard.riverArea((Zone.River) zone)));
-            }
-            // If the zone is a forest and the corresponding forest area is closed
-            if (zone instanceof Zone.Forest && otherBoard.forestArea((Zone.Forest) zone).isClosed()) {
-                // Update the message board with the score for the forest area
-                otherMessageBoard = otherMessageBoard.withScoredForest(otherBoard.forestArea((Zone.Forest) zone));
-                // Remove the gatherers or fishers in the forest area from the board
-                otherBoard = otherBoard.
-                        withoutGatherersOrFishersIn(Set.of(otherBoard.forestArea((Zone.Forest) zone)), Set.of());
-            }
+        }
+
+        // Remove the gatherers and fishers of these areas from the board, once they have been scored
+        if (!outcome.closedForests().isEmpty() || !outcome.closedRivers().isEmpty()) {
+            otherBoard = otherBoard.withoutGatherersOrFishersIn(outcome.closedForests(), outcome.closedRivers());
         }
         return new Pair<>(otherBoard, otherMessageBoard);
     }
@@ -524,144 +464,19 @@ public record GameState(List<PlayerColor> players,
     }
 
     /**
-     * Returns a new MessageBoard with the final points counted.
+     * Returns a new MessageBoard with the final points counted, see {@link FinalScoring}.
      *
      * @param newMessageBoard the MessageBoard to count the final points on.
      * @param tile            the tile that was placed during the last turn.
+     * @param board           the board at the end of the last turn, whose cancelled animals are kept.
      * @return a new MessageBoard with the final points counted.
      */
     private Pair<Board, MessageBoard> withFinalPointsCounted(
             MessageBoard newMessageBoard,
             PlacedTile tile,
             Board board) {
-        Pair<Board, MessageBoard> finalBoardAndMessageBoard = new Pair<>(board, newMessageBoard);
-        Set<Animal> deletedAnimals = new HashSet<>(board.cancelledAnimals());
-
-        finalBoardAndMessageBoard = handleMeadowAreas(
-                finalBoardAndMessageBoard.getSecond(),
-                tile,
-                deletedAnimals
-        );
-        finalBoardAndMessageBoard = handleRiverSystemAreas(
-                finalBoardAndMessageBoard.getSecond(),
-                finalBoardAndMessageBoard.getFirst()
-        );
-        finalBoardAndMessageBoard = handleWinners(
-                finalBoardAndMessageBoard.getSecond(),
-                finalBoardAndMessageBoard.getFirst()
-        );
-
-        return finalBoardAndMessageBoard;
-    }
-
-    /**
-     * Handles the scoring for meadow areas in the game.
-     * This method iterates over all meadow areas in the board, checks for
-     * special powers and updates the message board accordingly.
-     *
-     * @param messageBoard   The current message board.
-     * @param tile           The tile that was placed during the last turn.
-     * @param deletedAnimals The set of animals that have been deleted.
-     * @return The updated message board.
-     */
-    private Pair<Board, MessageBoard> handleMeadowAreas(MessageBoard messageBoard,
-                                                        PlacedTile tile,
-                                                        Set<Animal> deletedAnimals) {
-        Board newBoard = board;
-        for (Area<Zone.Meadow> meadowArea : board.meadowAreas()) {
-            Zone zoneWithWildFire = meadowArea.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE);
-            Zone zoneWithPitTrap = meadowArea.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP);
-            HashMap<Animal.Kind, Integer> animalCount = animalCount(meadowArea, board);
-
-            if (zoneWithWildFire != null) {
-                messageBoard = messageBoard.withScoredMeadow(meadowArea, board.cancelledAnimals());
-            } else if (zoneWithPitTrap != null) {
-                deletedAnimals = handlePitTrap(meadowArea, tile, zoneWithPitTrap, deletedAnimals, animalCount, board);
-                newBoard = board.withMoreCancelledAnimals(deletedAnimals);
-                messageBoard = messageBoard.withScoredPitTrap(meadowArea, deletedAnimals);
-            } else {
-                deletedAnimals = handleDeerAndTigers(meadowArea, deletedAnimals, animalCount, board);
-                newBoard = board().withMoreCancelledAnimals(deletedAnimals);
-                messageBoard = messageBoard.withScoredMeadow(meadowArea, deletedAnimals);
-            }
-        }
-        return new Pair<>(newBoard, messageBoard);
-    }
-
-    /**
-     * Handles the pit trap special power in the game.
-     * This method iterates over all animals in the meadow area, checks for deer and tiger conditions
-     * and updates the deleted animals set accordingly.
-     *
-     * @param meadowArea      The meadow area to check.
-     * @param tile            The tile that was placed during the last turn.
-     * @param zoneWithPitTrap The zone with the pit trap special power.
-     * @param deletedAnimals  The set of animals that have been deleted.
-     * @param animalCount     The count of each type of animal in the meadow area.
-     * @return The updated set of deleted animals.
-     */
-    private static Set<Animal> handlePitTrap(Area<Zone.Meadow> meadowArea,
-                                             PlacedTile tile,
-                                             Zone zoneWithPitTrap,
-                                             Set<Animal> deletedAnimals,
-                                             HashMap<Animal.Kind,
-                                                     Integer> animalCount,
-                                             Board board) {
-        for (Animal animal : Area.animals(meadowArea, board.cancelledAnimals())) {
-            if (!Area.animals(board.adjacentMeadow(tile.pos(), (Zone.Meadow) zoneWithPitTrap), deletedAnimals).
-                    contains(animal) &&
-                    animal.kind() == Animal.Kind.DEER &&
-                    animalCount.get(Animal.Kind.TIGER) > 0) {
-
-                deletedAnimals.add(animal);
-                animalCount.put(Animal.Kind.DEER, animalCount.get(Animal.Kind.DEER) - 1);
-                animalCount.put(Animal.Kind.TIGER, animalCount.get(Animal.Kind.TIGER) - 1);
-            }
-        }
-        return deletedAnimals;
-    }
-
-    /**
-     * Handles the deer and tigers in the game.
-     * This method iterates over all animals in the meadow area, checks for deer
-     * and tiger conditions and updates the deleted animals set accordingly.
-     *
-     * @param meadowArea     The meadow area to check.
-     * @param deletedAnimals The set of animals that have been deleted.
-     * @param animalCount    The count of each type of animal in the meadow area.
-     * @return The updated set of deleted animals.
-     */
-    private static Set<Animal> handleDeerAndTigers(Area<Zone.Meadow> meadowArea,
-                                                   Set<Animal> deletedAnimals,
-                                                   HashMap<Animal.Kind,
-                                                           Integer> animalCount,
-                                                   Board board) {
-        for (Animal animal : Area.animals(meadowArea, board.cancelledAnimals())) {
-            if (animal.kind() == Animal.Kind.DEER && animalCount.get(Animal.Kind.TIGER) > 0) {
-                deletedAnimals.add(animal);
-                animalCount.put(Animal.Kind.DEER, animalCount.get(Animal.Kind.DEER) - 1);
-                animalCount.put(Animal.Kind.TIGER, animalCount.get(Animal.Kind.TIGER) - 1);
-            }
-        }
-        return deletedAnimals;
-    }
-
-    /**
-     * Handles the scoring for river system areas in the game.
-     * This method iterates over all river system areas in the board,
-     * checks for special powers and updates the message board accordingly.
-     *
-     * @param messageBoard The current message board.
-     * @return The updated message board.
-     */
-    private Pair<Board, MessageBoard> handleRiverSystemAreas(MessageBoard messageBoard, Board board1) {
-        for (Area<Zone.Water> waterArea : board1.riverSystemAreas()) {
-            if (waterArea.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
-                messageBoard = messageBoard.withScoredRaft(waterArea);
-            }
-            messageBoard = messageBoard.withScoredRiverSystem(waterArea);
-        }
-        return new Pair<>(board1, messageBoard);
+        FinalScoring.Outcome outcome = FinalScoring.count(this.board, board.cancelledAnimals(), tile, newMessageBoard);
+        return handleWinners(outcome.messageBoard(), outcome.board());
     }
 
     /**
@@ -708,21 +523,24 @@ public record GameState(List<PlayerColor> players,
     }
 
     /**
-     * Returns a count of the animals in a meadow area with 0 if there is none of the given animal.
+     * Returns whether the given object is a game state equal to this one. The components that are
+     * cheap to compare and most likely to differ between two turns are compared first.
      *
-     * @param meadowArea the meadow area to count the animals in.
-     * @return a HashMap with the count of each kind of animal in the meadow area.
+     * @param obj the object to compare with.
+     * @return true if the given object is an equal game state, false otherwise.
      */
-    private static HashMap<Animal.Kind, Integer> animalCount(Area<Zone.Meadow> meadowArea, Board board) {
-        HashMap<Animal.Kind, Integer> animalCount = new HashMap<>();
-        animalCount.put(Animal.Kind.DEER, 0);
-        animalCount.put(Animal.Kind.TIGER, 0);
-        animalCount.put(Animal.Kind.AUROCHS, 0);
-        animalCount.put(Animal.Kind.MAMMOTH, 0);
-        for (Animal animal : Area.animals(meadowArea, board.cancelledAnimals())) {
-            animalCount.put(animal.kind(), animalCount.get(animal.kind()) + 1);
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
         }
-        return animalCount;
+        return obj instanceof GameState other
+                && nextAction == other.nextAction
+                && Objects.equals(tileToPlace, other.tileToPlace)
+                && players.equals(other.players)
+                && board.equals(other.board)
+                && messageBoard.equals(other.messageBoard)
+                && tileDecks.equals(other.tileDecks);
     }
 
     /**
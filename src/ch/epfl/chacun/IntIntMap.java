@@ -0,0 +1,110 @@
+package ch.epfl.chacun;
+
+/**
+ * A mutable map from integers to integers, like zone ids to indices, which neither boxes its keys and values
+ * nor allocates anything once its table is large enough. It is an open addressing hash table with linear
+ * probing, whose entries are never removed, only overwritten.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+final class IntIntMap {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Constructs a new empty IntIntMap able to hold the given number of entries without growing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    IntIntMap(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, 2 * expectedSize - 1)) << 1);
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Returns the value associated with the given key, or the given default value if there is none.
+     *
+     * @param key          the key
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the value associated with the key, or the default value
+     */
+    int getOrDefault(int key, int defaultValue) {
+        int mask = keys.length - 1;
+        for (int i = slotOf(key, mask); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Associates the given value with the given key, replacing the previous value if any.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    void put(int key, int value) {
+        int mask = keys.length - 1;
+        int i = slotOf(key, mask);
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        // Keeps the table at most half full, so that probing sequences stay short
+        if (++size > keys.length / 2) grow();
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the number of keys
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the capacity of the table, reinserting every entry.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[2 * oldKeys.length];
+        values = new int[2 * oldKeys.length];
+        used = new boolean[2 * oldKeys.length];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; ++j) {
+            if (!oldUsed[j]) continue;
+            int i = slotOf(oldKeys[j], mask);
+            while (used[i]) i = (i + 1) & mask;
+            used[i] = true;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    /**
+     * Returns the first slot to probe for the given key, mixing its bits so that consecutive keys spread
+     * over the table.
+     *
+     * @param key  the key
+     * @param mask the capacity of the table minus one
+     * @return the first slot to probe
+     */
+    private static int slotOf(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+}
@@ -0,0 +1,247 @@
+package ch.epfl.chacun;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of small non-negative integers, like tile ids, stored as a bitset in which the bit of
+ * index {@code i} is set if {@code i} is in the set. Its primitive operations neither box nor hash the
+ * integers, and the operations building a new set return one of their operands when it is the result.
+ *
+ * <p>It is a {@link Set} like any other, equal to any set holding the same integers, but cannot be modified.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class IntSet extends AbstractSet<Integer> {
+    /**
+     * The empty set.
+     */
+    public static final IntSet EMPTY = new IntSet(new long[0], 0);
+
+    private final long[] words;
+    private final int size;
+    private int hash;
+
+    /**
+     * Constructs a new IntSet with the given bitset, which must not be modified afterwards.
+     *
+     * @param words the bitset of the integers
+     * @param size  the number of bits set in the bitset
+     */
+    private IntSet(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * Returns a set of the given integers.
+     *
+     * @param values the integers
+     * @return a set of the given integers
+     * @throws IllegalArgumentException if one of the integers is negative
+     */
+    public static IntSet of(int... values) {
+        Builder builder = new Builder();
+        for (int value : values) builder.add(value);
+        return builder.build();
+    }
+
+    /**
+     * Returns a set of the given integers, or the given collection itself if it already is an IntSet.
+     *
+     * @param values the integers
+     * @return a set of the given integers
+     * @throws IllegalArgumentException if one of the integers is negative
+     * @throws NullPointerException     if one of the integers is null
+     */
+    public static IntSet copyOf(Collection<Integer> values) {
+        if (values instanceof IntSet set) return set;
+        Builder builder = new Builder();
+        for (int value : values) builder.add(value);
+        return builder.build();
+    }
+
+    /**
+     * Returns whether the given integer is in this set.
+     *
+     * @param value the integer
+     * @return true if the integer is in this set, false otherwise
+     */
+    public boolean contains(int value) {
+        int word = value >> 6;
+        return value >= 0 && word < words.length && (words[word] & 1L << value) != 0;
+    }
+
+    /**
+     * Returns whether all the integers of the given set are in this set.
+     *
+     * @param other the other set
+     * @return true if the other set is a subset of this one, false otherwise
+     */
+    public boolean containsAll(IntSet other) {
+        if (other.size > size) return false;
+        for (int i = 0; i < other.words.length; ++i) {
+            long word = i < words.length ? words[i] : 0;
+            if ((other.words[i] & ~word) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the set of the integers of this set and of the given one.
+     *
+     * @param other the other set
+     * @return the union of both sets, which is one of them if it contains the other one
+     */
+    public IntSet union(IntSet other) {
+        if (containsAll(other)) return this;
+        if (other.containsAll(this)) return other;
+        long[] merged = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int i = 0; i < other.words.length; ++i) merged[i] |= other.words[i];
+        return new IntSet(merged, bitCount(merged));
+    }
+
+    /**
+     * Returns the set of the integers of this set that are not in the given one.
+     *
+     * @param other the integers to remove
+     * @return the difference of both sets, which is this set if they have no integer in common
+     */
+    public IntSet difference(IntSet other) {
+        long[] remaining = words.clone();
+        boolean changed = false;
+        for (int i = 0; i < Math.min(words.length, other.words.length); ++i) {
+            changed |= (remaining[i] & other.words[i]) != 0;
+            remaining[i] &= ~other.words[i];
+        }
+        if (!changed) return this;
+        int size = bitCount(remaining);
+        return size == 0 ? EMPTY : new IntSet(remaining, size);
+    }
+
+    /**
+     * Calls the given consumer with each integer of this set, in increasing order.
+     *
+     * @param action the consumer
+     */
+    public void forEachInt(IntConsumer action) {
+        for (int i = 0; i < words.length; ++i) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer value && contains(value.intValue());
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        return c instanceof IntSet other ? containsAll(other) : super.containsAll(c);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int word = 0;
+            private long remaining = words.length > 0 ? words[0] : 0;
+            private int returned = 0;
+
+            @Override
+            public boolean hasNext() {
+                return returned < size;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                while (remaining == 0) remaining = words[++word];
+                int bit = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                returned += 1;
+                return (word << 6) + bit;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntSet other)) return super.equals(o);
+        return size == other.size && containsAll(other);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            // Like any set of integers, the sum of the integers
+            for (int i = 0; i < words.length; ++i) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    h += (i << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the number of bits set in the given bitset.
+     *
+     * @param words the bitset
+     * @return the number of bits set
+     */
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) count += Long.bitCount(word);
+        return count;
+    }
+
+    /**
+     * A builder of IntSet, to which integers are added one at a time.
+     *
+     * @author Bjork Pedersen (376143)
+     */
+    public static final class Builder {
+        private long[] words = new long[2];
+        private int size;
+
+        /**
+         * Adds the given integer to the set being built.
+         *
+         * @param value the integer
+         * @return this builder
+         * @throws IllegalArgumentException if the integer is negative
+         */
+        public Builder add(int value) {
+            Preconditions.checkArgument(value >= 0);
+            int word = value >> 6;
+            if (word >= words.length) words = Arrays.copyOf(words, Math.max(2 * words.length, word + 1));
+            if ((words[word] & 1L << value) == 0) {
+                words[word] |= 1L << value;
+                size += 1;
+            }
+            return this;
+        }
+
+        /**
+         * Builds the set of the integers added so far. The builder can still be used afterwards.
+         *
+         * @return the set of the integers added
+         */
+        public IntSet build() {
+            if (size == 0) return EMPTY;
+            int length = words.length;
+            while (words[length - 1] == 0) length -= 1;
+            return new IntSet(Arrays.copyOf(words, length), size);
+        }
+    }
+}
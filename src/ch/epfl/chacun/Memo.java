@@ -0,0 +1,35 @@
+package ch.epfl.chacun;
+
+import java.util.function.Supplier;
+
+/**
+ * A lazily computed value derived from an immutable object. The value is computed by the first caller
+ * of {@link #get(Supplier)} and then shared by all threads, so that it is computed at most once.
+ *
+ * @param <T> the type of the value
+ * @author Bjork Pedersen (376143)
+ */
+final class Memo<T> {
+    private volatile T value;
+
+    /**
+     * Returns the value, computing it with the given function if it has not been computed yet.
+     * The function must not return null.
+     *
+     * @param compute the function computing the value
+     * @return the value
+     */
+    T get(Supplier<? extends T> compute) {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = compute.get();
+                    value = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -1,6 +1,8 @@
 package ch.epfl.chacun;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Represents a message board in the game.
@@ -44,39 +46,20 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
     public MessageBoard withScoredForest(Area<Zone.Forest> forest) {
         Objects.requireNonNull(forest, "Forest cannot be null");
         if (forest.isOccupied()) {
-            List<Message> increasedMessages = new ArrayList<>(messages);
             int mushroomGroupCount = Area.mushroomGroupCount(forest);
             int points = Points.forClosedForest(forest.zones().size(), mushroomGroupCount);
-            if (points > 0) {
-                increasedMessages.add(createMessage(forest, points, mushroomGroupCount));
-            } else {
-                increasedMessages.add(createMessage(forest, 0, mushroomGroupCount));
-            }
-            return new MessageBoard(textMaker, increasedMessages);
+            return withNewMessage(text(t -> t.playersScoredForest(forest.majorityOccupants(),
+                            points,
+                            mushroomGroupCount,
+                            forest.tileIds().size())),
+                    points,
+                    forest.majorityOccupants(),
+                    forest.tileIds());
         } else {
             return this;
         }
     }
 
-    /**
-     * Creates a new Message for a scored forest.
-     *
-     * @param forest             The forest that has been scored.
-     * @param points             The points scored for the forest.
-     * @param mushroomGroupCount The count of mushroom groups in the forest.
-     * @return A new Message instance with the provided details.
-     */
-    private Message createMessage(Area<Zone.Forest> forest, int points, int mushroomGroupCount) {
-        return new Message(textMaker.playersScoredForest(forest.majorityOccupants(),
-                points,
-                mushroomGroupCount,
-                forest.tileIds().size()),
-                points,
-                forest.majorityOccupants(),
-                forest.tileIds());
-    }
-
-
     /**
      * Updates the message board with a new message (of type playerScoredWithMenhir) if needed.
      *
@@ -85,13 +68,10 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @return A new message board with the added message / same message board.
      */
     public MessageBoard withClosedForestWithMenhir(PlayerColor player, Area<Zone.Forest> forest) {
-        Message message = new Message(textMaker.playerClosedForestWithMenhir(player),
+        return withNewMessage(text(t -> t.playerClosedForestWithMenhir(player)),
                 0,
                 Set.of(),
                 forest.tileIds());
-        List<Message> newMessage = new ArrayList<>(messages);
-        newMessage.add(message);
-        return new MessageBoard(textMaker, newMessage);
     }
 
     /**
@@ -102,10 +82,10 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      */
     public MessageBoard withScoredRiver(Area<Zone.River> river) {
         if (river.isOccupied()) {
-            return withNewMessage(textMaker.playersScoredRiver(river.majorityOccupants(),
+            return withNewMessage(text(t -> t.playersScoredRiver(river.majorityOccupants(),
                             Points.forClosedRiver(river.zones().size(), Area.riverFishCount(river)),
                             Area.riverFishCount(river),
-                            river.tileIds().size()),
+                            river.tileIds().size())),
                     Points.forClosedRiver(river.zones().size(), Area.riverFishCount(river)),
                     river.majorityOccupants(),
                     river.tileIds());
@@ -145,8 +125,8 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
         map.put(Animal.Kind.TIGER, tigerCount);
         int pointsForMeadow = Points.forMeadow(mammothCount, aurochsCount, deerCount);
         if (pointsForMeadow > 0) {
-            return withNewMessage(textMaker.playerScoredHuntingTrap(scorer,
-                            pointsForMeadow, map),
+            return withNewMessage(text(t -> t.playerScoredHuntingTrap(scorer,
+                            pointsForMeadow, map)),
                     pointsForMeadow,
                     Set.of(scorer),
                     adjacentMeadow.tileIds());
@@ -163,16 +143,13 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @return A new message board with the added message / same message board.
      */
     public MessageBoard withScoredLogboat(PlayerColor scorer, Area<Zone.Water> riverSystem) {
-        Message message = new Message(textMaker.playerScoredLogboat(
-                scorer,
-                Points.forLogboat(Area.lakeCount(riverSystem)),
-                Area.lakeCount(riverSystem)),
+        return withNewMessage(text(t -> t.playerScoredLogboat(
+                        scorer,
+                        Points.forLogboat(Area.lakeCount(riverSystem)),
+                        Area.lakeCount(riverSystem))),
                 Points.forLogboat(Area.lakeCount(riverSystem)),
                 Set.of(scorer),
                 riverSystem.tileIds());
-        List<Message> newMessage = new ArrayList<>(messages);
-        newMessage.add(message);
-        return new MessageBoard(textMaker, newMessage);
     }
 
     /**
@@ -183,18 +160,31 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @return A new message board with the added message / same message board.
      */
     public MessageBoard withScoredMeadow(Area<Zone.Meadow> meadow, Set<Animal> cancelledAnimals) {
-        Map<Animal.Kind, Integer> animalCount = new HashMap<>();
-        Set<Animal> animals = Area.animals(meadow, cancelledAnimals);
-        for (Animal animal : animals) {
-            animalCount.put(animal.kind(), animalCount.getOrDefault(animal.kind(), 0) + 1);
-        }
-        int pointsForMeadow = Points.forMeadow(animalCount.getOrDefault(Animal.Kind.MAMMOTH, 0),
-                animalCount.getOrDefault(Animal.Kind.AUROCHS, 0),
-                animalCount.getOrDefault(Animal.Kind.DEER, 0));
+        return withScoredMeadow(meadow, animalCounts(Area.animals(meadow, cancelledAnimals)));
+    }
+
+    /**
+     * Updates the message board with a new message (of type playerScoredMeadow) if needed, from the
+     * already counted animals of the meadow.
+     *
+     * @param meadow       the meadow in question
+     * @param animalCounts the number of animals of each kind in the meadow that were not cancelled,
+     *                     by kind ordinal
+     * @return A new message board with the added message / same message board.
+     */
+    MessageBoard withScoredMeadow(Area<Zone.Meadow> meadow, int[] animalCounts) {
+        int pointsForMeadow = Points.forMeadow(animalCounts[Animal.Kind.MAMMOTH.ordinal()],
+                animalCounts[Animal.Kind.AUROCHS.ordinal()],
+                animalCounts[Animal.Kind.DEER.ordinal()]);
         if (meadow.isOccupied() && pointsForMeadow > 0) {
-            return withNewMessage(textMaker.playersScoredMeadow(meadow.majorityOccupants(),
+            // Only the kinds of animals present in the meadow are given to the text maker
+            Map<Animal.Kind, Integer> animalCount = new EnumMap<>(Animal.Kind.class);
+            for (Animal.Kind kind : Animal.Kind.values()) {
+                if (animalCounts[kind.ordinal()] > 0) animalCount.put(kind, animalCounts[kind.ordinal()]);
+            }
+            return withNewMessage(text(t -> t.playersScoredMeadow(meadow.majorityOccupants(),
                             pointsForMeadow,
-                            animalCount),
+                            animalCount)),
                     pointsForMeadow,
                     meadow.majorityOccupants(),
                     meadow.tileIds());
@@ -213,11 +203,22 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      *                                  are not greater than 0
      */
     public MessageBoard withScoredRiverSystem(Area<Zone.Water> riverSystem) {
-        int riverSystemFishCount = Area.riverSystemFishCount(riverSystem);
+        return withScoredRiverSystem(riverSystem, Area.riverSystemFishCount(riverSystem));
+    }
+
+    /**
+     * Updates the message board with a new message (of type playerScoredRivreSystem) if needed, from the
+     * already counted fish of the river system.
+     *
+     * @param riverSystem          the aquatic region in question
+     * @param riverSystemFishCount the number of fish in the river system
+     * @return A new message board with the added message / same message board.
+     */
+    MessageBoard withScoredRiverSystem(Area<Zone.Water> riverSystem, int riverSystemFishCount) {
         if (riverSystem.isOccupied() && Points.forRiverSystem(riverSystemFishCount) > 0) {
-            return withNewMessage(textMaker.playersScoredRiverSystem(riverSystem.majorityOccupants(),
+            return withNewMessage(text(t -> t.playersScoredRiverSystem(riverSystem.majorityOccupants(),
                             Points.forRiverSystem(riverSystemFishCount),
-                            riverSystemFishCount),
+                            riverSystemFishCount)),
                     Points.forRiverSystem(riverSystemFishCount),
                     riverSystem.majorityOccupants(),
                     riverSystem.tileIds());
@@ -236,28 +237,34 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      *                                  the points for the meadow are not greater than 0
      */
     public MessageBoard withScoredPitTrap(Area<Zone.Meadow> adjacentMeadow, Set<Animal> cancelledAnimals) {
-        Set<Animal> animalsWithoutCancelled = Area.animals(adjacentMeadow, cancelledAnimals);
-        int aurochsCount = 0;
-        int mammothCount = 0;
-        int deerCount = 0;
-        int tigerCount = 0;
-        for (Animal animal : animalsWithoutCancelled) {
-            switch (animal.kind()) {
-                case AUROCHS -> aurochsCount++;
-                case MAMMOTH -> mammothCount++;
-                case DEER -> deerCount++;
-                case TIGER -> tigerCount++;
-            }
-        }
-        if (Points.forMeadow(mammothCount, aurochsCount, deerCount) > 0 && adjacentMeadow.isOccupied()) {
-            return withNewMessage(textMaker.playersScoredPitTrap(adjacentMeadow.majorityOccupants(),
-                            Points.forMeadow(mammothCount, aurochsCount, deerCount),
-                            Map.of(
-                                    Animal.Kind.MAMMOTH, mammothCount,
-                                    Animal.Kind.AUROCHS, aurochsCount,
-                                    Animal.Kind.DEER, deerCount,
-                                    Animal.Kind.TIGER, tigerCount)),
-                    Points.forMeadow(mammothCount, aurochsCount, deerCount),
+        return withScoredPitTrap(adjacentMeadow, animalCounts(Area.animals(adjacentMeadow, cancelledAnimals)));
+    }
+
+    /**
+     * Updates the message board with a new message (of type playerScoredPitTrap) if needed, from the
+     * already counted animals of the meadow.
+     *
+     * @param adjacentMeadow adjacent meadows with animals
+     * @param animalCounts   the number of animals of each kind in the meadow that were not cancelled,
+     *                       by kind ordinal
+     * @return A new message board with the added message / same message board.
+     */
+    MessageBoard withScoredPitTrap(Area<Zone.Meadow> adjacentMeadow, int[] animalCounts) {
+        int aurochsCount = animalCounts[Animal.Kind.AUROCHS.ordinal()];
+        int mammothCount = animalCounts[Animal.Kind.MAMMOTH.ordinal()];
+        int deerCount = animalCounts[Animal.Kind.DEER.ordinal()];
+        int tigerCount = animalCounts[Animal.Kind.TIGER.ordinal()];
+        int points = Points.forMeadow(mammothCount, aurochsCount, deerCount);
+        if (points > 0 && adjacentMeadow.isOccupied()) {
+            Map<Animal.Kind, Integer> animalCount = Map.of(
+                    Animal.Kind.MAMMOTH, mammothCount,
+                    Animal.Kind.AUROCHS, aurochsCount,
+                    Animal.Kind.DEER, deerCount,
+                    Animal.Kind.TIGER, tigerCount);
+            return withNewMessage(text(t -> t.playersScoredPitTrap(adjacentMeadow.majorityOccupants(),
+                            points,
+                            animalCount)),
+                    points,
                     adjacentMeadow.majorityOccupants(),
                     adjacentMeadow.tileIds());
         } else {
@@ -265,6 +272,18 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
         }
     }
 
+    /**
+     * Counts the given animals by kind.
+     *
+     * @param animals the animals
+     * @return the number of animals of each kind, by kind ordinal
+     */
+    static int[] animalCounts(Set<Animal> animals) {
+        int[] counts = new int[Animal.Kind.values().length];
+        for (Animal animal : animals) counts[animal.kind().ordinal()] += 1;
+        return counts;
+    }
+
     /**
      * Updates the message board with a new message (of type PlayerScoredRaft) if needed.
      *
@@ -273,11 +292,23 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @throws IllegalArgumentException if the river system is not occupied
      */
     public MessageBoard withScoredRaft(Area<Zone.Water> riverSystem) {
+        return withScoredRaft(riverSystem, Area.lakeCount(riverSystem));
+    }
+
+    /**
+     * Updates the message board with a new message (of type PlayerScoredRaft) if needed, from the already
+     * counted lakes of the river system.
+     *
+     * @param riverSystem the aquatic area in question
+     * @param lakeCount   the number of lakes in the river system
+     * @return A new message board with the added message / same message board.
+     */
+    MessageBoard withScoredRaft(Area<Zone.Water> riverSystem, int lakeCount) {
         if (riverSystem.isOccupied()) {
-            return withNewMessage(textMaker.playersScoredRaft(riverSystem.majorityOccupants(),
-                            Points.forRaft(Area.lakeCount(riverSystem)),
-                            Area.lakeCount(riverSystem)),
-                    Points.forRaft(Area.lakeCount(riverSystem)),
+            return withNewMessage(text(t -> t.playersScoredRaft(riverSystem.majorityOccupants(),
+                            Points.forRaft(lakeCount),
+                            lakeCount)),
+                    Points.forRaft(lakeCount),
                     riverSystem.majorityOccupants(),
                     riverSystem.tileIds());
         } else {
@@ -293,33 +324,72 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @return A new message board with the added message / same message board.
      */
     public MessageBoard withWinners(Set<PlayerColor> winners, int points) {
-        Message message = new Message(textMaker.playersWon(winners, points), 0, winners, Set.of());
-        List<Message> newMessage = new ArrayList<>(messages);
-        newMessage.add(message);
-        return new MessageBoard(textMaker, newMessage);
+        return withNewMessage(text(t -> t.playersWon(winners, points)), 0, winners, Set.of());
+    }
+
+    /**
+     * Returns a function producing a message text with the text maker of this message board. It does not
+     * reference this message board, so that messages do not keep the boards that created them alive.
+     *
+     * @param format The function formatting the text with the given text maker.
+     * @return The function producing the text.
+     */
+    private Supplier<String> text(Function<TextMaker, String> format) {
+        TextMaker maker = textMaker;
+        return () -> format.apply(maker);
     }
 
     /**
      * Creates a new MessageBoard instance with a new message added to the existing list of messages.
      *
-     * @param text    The text of the new message to be added.
+     * @param text    The function producing the text of the new message, called only when the text is read.
      * @param points  The points associated with the new message.
      * @param scorers The set of players who scored, to be associated with the new message.
      * @param tileIds The set of tile IDs associated with the new message.
      * @return A new MessageBoard instance with the new message added to the list of messages.
      */
-    private MessageBoard withNewMessage(String text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
+    private MessageBoard withNewMessage(Supplier<String> text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
         List<Message> newMessages = new ArrayList<>(this.messages);
         newMessages.add(new Message(text, points, scorers, tileIds));
         return new MessageBoard(this.textMaker, newMessages);
     }
 
     /**
-     * Represents a message in the game.
+     * Returns whether the given object is a message board equal to this one. As messages are only ever
+     * appended, boards of different turns are told apart by their sizes or their last messages
+     * before the messages are compared one by one.
+     *
+     * @param obj the object to compare with.
+     * @return true if the given object is an equal message board, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MessageBoard other) || !Objects.equals(textMaker, other.textMaker)) {
+            return false;
+        }
+        return messages == other.messages
+                || messages.size() == other.messages.size()
+                && (messages.isEmpty() || messages.getLast().equals(other.messages.getLast()))
+                && messages.equals(other.messages);
+    }
+
+    /**
+     * Represents a message in the game. The text of the messages created by the message board is only
+     * produced by the text maker when it is first read, so that games nobody reads, like simulations,
+     * never format any text.
      *
      * @author Bjork Pedersen (376143)
      */
-    public record Message(String text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
+    public static final class Message {
+        private final Supplier<String> textSupplier;
+        private final int points;
+        private final Set<PlayerColor> scorers;
+        private final IntSet tileIds;
+        // Produced on first read; racy but safe, as every thread produces the same immutable string
+        private volatile String text;
 
         /**
          * Constructor for Message. Makes Message immutable by copying the sets.
@@ -330,12 +400,100 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
          * @param tileIds The set of tile IDs associated with the message.
          * @throws IllegalArgumentException if the points are not greater than or equal to 0
          */
-        public Message {
+        public Message(String text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
+            this(() -> text, points, scorers, tileIds);
             Objects.requireNonNull(text);
+            this.text = text;
+        }
+
+        /**
+         * Constructor for Message whose text is produced lazily, used by the message board.
+         * Makes Message immutable by copying the sets.
+         *
+         * @param text    The function producing the text of the message, called at most once per thread
+         *                reading the text for the first time.
+         * @param points  The points associated with the message.
+         * @param scorers The set of players who scored.
+         * @param tileIds The set of tile IDs associated with the message.
+         * @throws IllegalArgumentException if the points are not greater than or equal to 0
+         */
+        private Message(Supplier<String> text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
             Preconditions.checkArgument(points >= 0);
-            scorers = Set.copyOf(scorers);
-            tileIds = Set.copyOf(tileIds);
+            this.textSupplier = Objects.requireNonNull(text);
+            this.points = points;
+            this.scorers = Set.copyOf(scorers);
+            this.tileIds = IntSet.copyOf(tileIds);
+        }
+
+        /**
+         * Returns the text of the message, producing it if it was not read yet.
+         *
+         * @return The text of the message.
+         */
+        public String text() {
+            String result = text;
+            if (result == null) {
+                result = Objects.requireNonNull(textSupplier.get());
+                text = result;
+            }
+            return result;
+        }
+
+        /**
+         * Returns the points associated with the message.
+         *
+         * @return The points associated with the message.
+         */
+        public int points() {
+            return points;
+        }
+
+        /**
+         * Returns the set of players who scored.
+         *
+         * @return The set of players who scored.
+         */
+        public Set<PlayerColor> scorers() {
+            return scorers;
+        }
+
+        /**
+         * Returns the set of tile IDs associated with the message.
+         *
+         * @return The set of tile IDs associated with the message.
+         */
+        public IntSet tileIds() {
+            return tileIds;
         }
 
+        /**
+         * Returns whether the given object is a message equal to this one. The texts are only compared,
+         * and thus produced, if everything else is equal.
+         *
+         * @param obj the object to compare with.
+         * @return true if the given object is an equal message, false otherwise.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            return obj instanceof Message other
+                    && points == other.points
+                    && scorers.equals(other.scorers)
+                    && tileIds.equals(other.tileIds)
+                    && text().equals(other.text());
+        }
+
+        @Override
+        public int hashCode() {
+            // Leaves the text out, so that hashing never formats it
+            return Objects.hash(points, scorers, tileIds);
+        }
+
+        @Override
+        public String toString() {
+            return STR. "Message[text=\{ text() }, points=\{ points }, scorers=\{ scorers }, tileIds=\{ tileIds }]" ;
+        }
     }
 }
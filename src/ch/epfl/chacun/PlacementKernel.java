@@ -0,0 +1,425 @@
+package ch.epfl.chacun;
+
+import java.util.Arrays;
+
+/**
+ * Finds where a tile can be placed on a board without allocating anything once warmed up. Instead of sets of
+ * positions and placed tile candidates, it works on cell indices and rotation ordinals, in scratch buffers
+ * reused from one call to the next. A kernel is confined to the thread that uses it, see {@link #local()}.
+ *
+ * <p>The placements found are encoded as {@code 4 * cellIndex + rotationOrdinal}, cells being numbered row
+ * by row from the top left corner of the board, and are read with {@link #placementPos(int)} and
+ * {@link #placementRotation(int)}.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class PlacementKernel {
+    private static final ThreadLocal<PlacementKernel> LOCAL = ThreadLocal.withInitial(PlacementKernel::new);
+
+    private static final int FOREST = 0;
+    private static final int MEADOW = 1;
+    private static final int RIVER = 2;
+    // Cell index offsets of the neighbours, by direction ordinal
+    private static final int[] NEIGHBOUR_OFFSETS = {-Board.WIDTH, 1, Board.WIDTH, -1};
+    // At most three zones per side, plus the lakes of the rivers
+    private static final int MAX_TILE_ZONES = 4 * Direction.COUNT;
+
+    /**
+     * Flag of {@link #placementEffects(PlacedTile, ZonePartitions)} set when the placement closes a forest.
+     */
+    static final int CLOSES_FOREST = 1;
+    /**
+     * Flag of {@link #placementEffects(PlacedTile, ZonePartitions)} set when the placement closes a river.
+     */
+    static final int CLOSES_RIVER = 1 << 1;
+    /**
+     * Flag of {@link #placementEffects(PlacedTile, ZonePartitions)} set when the placement closes a river
+     * system through one of its lakes.
+     */
+    static final int CLOSES_RIVER_SYSTEM = 1 << 2;
+    /**
+     * Flag of {@link #placementEffects(PlacedTile, ZonePartitions)} set when the tile has the log boat.
+     */
+    static final int HAS_LOGBOAT = 1 << 3;
+
+    private final int[] placements = new int[Board.MAX_TILES * Rotation.COUNT];
+    private final int[] insertionCells = new int[Board.MAX_TILES];
+    // Generation in which each cell was last found to be an insertion cell, to avoid clearing between calls
+    private final int[] seenInGeneration = new int[Board.MAX_TILES];
+    private final int[] tileSideKinds = new int[Direction.COUNT];
+    private final Zone[] tileZones = new Zone[MAX_TILE_ZONES];
+    private int generation;
+    private int placementCount;
+
+    /**
+     * Constructs a new PlacementKernel.
+     */
+    private PlacementKernel() {
+    }
+
+    /**
+     * Returns the kernel of the calling thread.
+     *
+     * @return the kernel of the calling thread
+     */
+    public static PlacementKernel local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Finds all the placements of the given tile on the given board, that is all the pairs of insertion
+     * position and rotation for which {@link Board#canAddTile(PlacedTile)} is true.
+     *
+     * @param board the board
+     * @param tile  the tile to place
+     * @return the number of placements found, read with {@link #placementPos(int)} and
+     * {@link #placementRotation(int)} until the next call on this kernel
+     */
+    public int findPlacements(Board board, Tile tile) {
+        placementCount = 0;
+        search(board, tile, true);
+        return placementCount;
+    }
+
+    /**
+     * Returns whether the given tile can be placed somewhere on the given board, stopping at the first
+     * placement found. The placements found by the last call to {@link #findPlacements(Board, Tile)}
+     * are kept.
+     *
+     * @param board the board
+     * @param tile  the tile to place
+     * @return true if the tile can be placed on the board, false otherwise
+     */
+    public boolean hasPlacement(Board board, Tile tile) {
+        return search(board, tile, false);
+    }
+
+    /**
+     * Returns whether the given tile, with the given rotation, can be placed at the given position.
+     *
+     * @param board    the board
+     * @param tile     the tile to place
+     * @param rotation the rotation of the tile
+     * @param pos      the position of the tile
+     * @return true if the tile can be placed there, false otherwise
+     */
+    public boolean canPlace(Board board, Tile tile, Rotation rotation, Pos pos) {
+        if (!isOnBoard(pos.x(), pos.y())) return false;
+        int cell = cellIndex(pos.x(), pos.y());
+        if (board.tileAtIndex(cell) != null || !hasNeighbour(board, cell)) return false;
+        loadTileSides(tile);
+        return fits(board, cell, rotation.ordinal());
+    }
+
+    /**
+     * Returns whether the player to play can occupy a zone of the given tile, placed last on the given board,
+     * given the number of pawns and huts they have left. It gives the same answer as iterating over
+     * {@link Tile#zones()}, without building that set.
+     *
+     * @param board     the board on which the tile was placed
+     * @param tile      the tile placed last
+     * @param freePawns the number of pawns the player has left
+     * @param freeHuts  the number of huts the player has left
+     * @return true if the player can occupy a zone of the tile, false otherwise
+     */
+    public boolean canOccupy(Board board, Tile tile, int freePawns, int freeHuts) {
+        int count = loadTileZones(tile);
+        boolean canOccupy = false;
+        for (int i = 0; i < count; ++i) {
+            Zone zone = tileZones[i];
+            if ((zone instanceof Zone.River river && river.hasLake()) || zone instanceof Zone.Lake) {
+                if (freeHuts > 0 && !board.riverSystemArea((Zone.Water) zone).isOccupied()) canOccupy = true;
+            } else {
+                if (freePawns == 0) return false;
+                canOccupy |= switch (zone) {
+                    case Zone.River river -> !board.riverSystemArea(river).isOccupied();
+                    case Zone.Meadow meadow -> !board.meadowArea(meadow).isOccupied();
+                    case Zone.Forest forest -> !board.forestArea(forest).isOccupied();
+                    case Zone.Lake lake -> false;
+                };
+            }
+        }
+        return canOccupy;
+    }
+
+    /**
+     * Returns what placing the given tile did, as a combination of the flags {@link #CLOSES_FOREST},
+     * {@link #CLOSES_RIVER}, {@link #CLOSES_RIVER_SYSTEM} and {@link #HAS_LOGBOAT}, so that the sets of a
+     * {@link Board.PlacementOutcome} are only built when one of them is not empty.
+     *
+     * @param tile       the tile that was just placed
+     * @param partitions the partitions of the board once the tile is placed
+     * @return the flags of what the placement did, 0 if it did nothing to score
+     */
+    int placementEffects(PlacedTile tile, ZonePartitions partitions) {
+        int count = loadTileZones(tile.tile());
+        int effects = 0;
+        for (int i = 0; i < count; ++i) {
+            switch (tileZones[i]) {
+                case Zone.Forest forest -> {
+                    if (partitions.forests().areaContaining(forest).isClosed()) effects |= CLOSES_FOREST;
+                }
+                case Zone.River river -> {
+                    if (partitions.rivers().areaContaining(river).isClosed()) effects |= CLOSES_RIVER;
+                }
+                case Zone.Lake lake -> {
+                    if (lake.specialPower() == Zone.SpecialPower.LOGBOAT) effects |= HAS_LOGBOAT;
+                    if (partitions.riverSystems().areaContaining(lake).isClosed()) effects |= CLOSES_RIVER_SYSTEM;
+                }
+                case Zone.Meadow ignored -> {
+                }
+            }
+        }
+        return effects;
+    }
+
+    /**
+     * Returns the zone of the given index of the tile loaded by the last call to {@link #loadTileZones(Tile)}.
+     *
+     * @param i the index of the zone
+     * @return the zone
+     */
+    Zone tileZone(int i) {
+        return tileZones[i];
+    }
+
+    /**
+     * Returns the position of the given placement found by the last search.
+     *
+     * @param i the index of the placement
+     * @return the position of the placement
+     */
+    public Pos placementPos(int i) {
+        int cell = placement(i) / Rotation.COUNT;
+        return new Pos(cell % Board.WIDTH - Board.REACH, cell / Board.WIDTH - Board.REACH);
+    }
+
+    /**
+     * Returns the rotation of the given placement found by the last search.
+     *
+     * @param i the index of the placement
+     * @return the rotation of the placement
+     */
+    public Rotation placementRotation(int i) {
+        return Rotation.ALL.get(placement(i) % Rotation.COUNT);
+    }
+
+    /**
+     * Returns the encoded placement of the given index found by the last search.
+     *
+     * @param i the index of the placement
+     * @return the placement, as {@code 4 * cellIndex + rotationOrdinal}
+     * @throws IndexOutOfBoundsException if there is no such placement
+     */
+    public int placement(int i) {
+        if (i < 0 || i >= placementCount) throw new IndexOutOfBoundsException(i);
+        return placements[i];
+    }
+
+    /**
+     * Collects the insertion cells of the board, then looks for the placements of the tile in them.
+     *
+     * @param board the board
+     * @param tile  the tile to place
+     * @param store whether to store all the placements, or to stop at the first one found
+     * @return true if at least one placement was found, false otherwise
+     */
+    private boolean search(Board board, Tile tile, boolean store) {
+        loadTileSides(tile);
+        int generation = nextGeneration();
+        int insertionCount = 0;
+        for (int cell = 0; cell < Board.MAX_TILES; ++cell) {
+            if (board.tileAtIndex(cell) == null) continue;
+            for (int d = 0; d < Direction.COUNT; ++d) {
+                int neighbour = neighbourCell(cell, d);
+                if (neighbour >= 0 && board.tileAtIndex(neighbour) == null && seenInGeneration[neighbour] != generation) {
+                    seenInGeneration[neighbour] = generation;
+                    insertionCells[insertionCount++] = neighbour;
+                }
+            }
+        }
+        for (int i = 0; i < insertionCount; ++i) {
+            int cell = insertionCells[i];
+            for (int rotation = 0; rotation < Rotation.COUNT; ++rotation) {
+                if (fits(board, cell, rotation)) {
+                    if (!store) return true;
+                    placements[placementCount++] = cell * Rotation.COUNT + rotation;
+                }
+            }
+        }
+        return store && placementCount > 0;
+    }
+
+    /**
+     * Returns whether the tile whose sides are loaded fits in the given empty cell with the given rotation,
+     * that is whether each of its sides is of the same kind as the facing side of the neighbour, if any.
+     *
+     * @param board    the board
+     * @param cell     the index of the cell
+     * @param rotation the ordinal of the rotation
+     * @return true if the tile fits, false otherwise
+     */
+    private boolean fits(Board board, int cell, int rotation) {
+        for (int d = 0; d < Direction.COUNT; ++d) {
+            int neighbourCell = neighbourCell(cell, d);
+            if (neighbourCell < 0) continue;
+            PlacedTile neighbour = board.tileAtIndex(neighbourCell);
+            if (neighbour == null) continue;
+            int facing = (d + 2) % Direction.COUNT;
+            int neighbourSide = sideKind(sideOf(neighbour.tile(),
+                    Math.floorMod(facing - neighbour.rotation().ordinal(), Direction.COUNT)));
+            if (neighbourSide != tileSideKinds[Math.floorMod(d - rotation, Direction.COUNT)]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the given cell has at least one occupied neighbour.
+     *
+     * @param board the board
+     * @param cell  the index of the cell
+     * @return true if a neighbour of the cell holds a tile, false otherwise
+     */
+    private static boolean hasNeighbour(Board board, int cell) {
+        for (int d = 0; d < Direction.COUNT; ++d) {
+            int neighbour = neighbourCell(cell, d);
+            if (neighbour >= 0 && board.tileAtIndex(neighbour) != null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stores the kinds of the sides of the given tile, unrotated, in the scratch buffer.
+     *
+     * @param tile the tile
+     */
+    private void loadTileSides(Tile tile) {
+        for (int d = 0; d < Direction.COUNT; ++d) tileSideKinds[d] = sideKind(sideOf(tile, d));
+    }
+
+    /**
+     * Stores the zones of the given tile in the scratch buffer, those of its sides in direction order, then the
+     * lakes of its rivers, each zone once. These are the zones of {@link Tile#zones()}, in a fixed order.
+     *
+     * @param tile the tile
+     * @return the number of zones stored, read with {@link #tileZone(int)}
+     */
+    int loadTileZones(Tile tile) {
+        int count = 0;
+        for (int d = 0; d < Direction.COUNT; ++d) {
+            switch (sideOf(tile, d)) {
+                case TileSide.Forest side -> count = addTileZone(side.forest(), count);
+                case TileSide.Meadow side -> count = addTileZone(side.meadow(), count);
+                case TileSide.River side -> {
+                    count = addTileZone(side.meadow1(), count);
+                    count = addTileZone(side.river(), count);
+                    count = addTileZone(side.meadow2(), count);
+                }
+            }
+        }
+        for (int i = 0, sideZones = count; i < sideZones; ++i) {
+            if (tileZones[i] instanceof Zone.River river && river.hasLake()) count = addTileZone(river.lake(), count);
+        }
+        return count;
+    }
+
+    /**
+     * Adds the given zone to the zones of the tile being loaded, unless it is already there.
+     *
+     * @param zone  the zone
+     * @param count the number of zones loaded so far
+     * @return the number of zones loaded once the zone is added
+     */
+    private int addTileZone(Zone zone, int count) {
+        for (int i = 0; i < count; ++i) {
+            if (tileZones[i].id() == zone.id()) return count;
+        }
+        tileZones[count] = zone;
+        return count + 1;
+    }
+
+    /**
+     * Returns the next search generation, resetting the marks of the cells when it wraps around.
+     *
+     * @return the generation of the new search
+     */
+    private int nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seenInGeneration, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+
+    /**
+     * Returns the index of the neighbour of the given cell in the given direction.
+     *
+     * @param cell      the index of the cell
+     * @param direction the ordinal of the direction
+     * @return the index of the neighbour, or -1 if it would be outside the board
+     */
+    static int neighbourCell(int cell, int direction) {
+        int x = cell % Board.WIDTH;
+        int y = cell / Board.WIDTH;
+        boolean outside = switch (direction) {
+            case 0 -> y == 0;
+            case 1 -> x == Board.WIDTH - 1;
+            case 2 -> y == Board.WIDTH - 1;
+            default -> x == 0;
+        };
+        return outside ? -1 : cell + NEIGHBOUR_OFFSETS[direction];
+    }
+
+    /**
+     * Returns the side of the given tile in the given direction, without building the list of its sides.
+     *
+     * @param tile      the tile
+     * @param direction the ordinal of the direction
+     * @return the side of the tile
+     */
+    static TileSide sideOf(Tile tile, int direction) {
+        return switch (direction) {
+            case 0 -> tile.n();
+            case 1 -> tile.e();
+            case 2 -> tile.s();
+            default -> tile.w();
+        };
+    }
+
+    /**
+     * Returns the kind of the given side. Two sides are compatible, in the sense of
+     * {@link TileSide#isSameKindAs(TileSide)}, if and only if their kinds are equal.
+     *
+     * @param side the side
+     * @return the kind of the side
+     */
+    static int sideKind(TileSide side) {
+        return switch (side) {
+            case TileSide.Forest f -> FOREST;
+            case TileSide.Meadow m -> MEADOW;
+            case TileSide.River r -> RIVER;
+        };
+    }
+
+    /**
+     * Returns whether the given position is on the board.
+     *
+     * @param x the x coordinate of the position
+     * @param y the y coordinate of the position
+     * @return true if the position is on the board, false otherwise
+     */
+    private static boolean isOnBoard(int x, int y) {
+        return Math.abs(x) <= Board.REACH && Math.abs(y) <= Board.REACH;
+    }
+
+    /**
+     * Returns the index of the cell at the given position.
+     *
+     * @param x the x coordinate of the position
+     * @param y the y coordinate of the position
+     * @return the index of the cell
+     */
+    static int cellIndex(int x, int y) {
+        return x + Board.REACH + (y + Board.REACH) * Board.WIDTH;
+    }
+}
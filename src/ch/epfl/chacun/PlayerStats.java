@@ -0,0 +1,60 @@
+package ch.epfl.chacun;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Represents what the side panel shows about a player at the end of a turn: the points scored so far
+ * and the number of occupants still in hand.
+ *
+ * @param points    the points scored by the player
+ * @param freeHuts  the number of huts the player can still place
+ * @param freePawns the number of pawns the player can still place
+ * @author Bjork Pedersen (376143)
+ */
+public record PlayerStats(int points, int freeHuts, int freePawns) {
+    /**
+     * Constructor for PlayerStats.
+     *
+     * @throws IllegalArgumentException if any of the counts is negative
+     */
+    public PlayerStats {
+        Preconditions.checkArgument(points >= 0 && freeHuts >= 0 && freePawns >= 0);
+    }
+
+    /**
+     * Computes the statistics of every player of the given game state, reading the message board
+     * and the board only once for all of them.
+     *
+     * @param gameState the game state
+     * @return an unmodifiable map from each player of the game to their statistics
+     */
+    public static Map<PlayerColor, PlayerStats> of(GameState gameState) {
+        Map<PlayerColor, Integer> points = gameState.messageBoard().points();
+        Map<PlayerColor, Integer> huts = gameState.board().occupantCounts(Occupant.Kind.HUT);
+        Map<PlayerColor, Integer> pawns = gameState.board().occupantCounts(Occupant.Kind.PAWN);
+
+        Map<PlayerColor, PlayerStats> stats = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : gameState.players()) {
+            stats.put(player, new PlayerStats(
+                    points.getOrDefault(player, 0),
+                    Occupant.occupantsCount(Occupant.Kind.HUT) - huts.getOrDefault(player, 0),
+                    Occupant.occupantsCount(Occupant.Kind.PAWN) - pawns.getOrDefault(player, 0)));
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Returns the number of occupants of the given kind the player can still place.
+     *
+     * @param kind the kind of occupant
+     * @return the number of free occupants of the given kind
+     */
+    public int freeOccupantsCount(Occupant.Kind kind) {
+        return switch (kind) {
+            case HUT -> freeHuts;
+            case PAWN -> freePawns;
+        };
+    }
+}
@@ -0,0 +1,371 @@
+package ch.epfl.chacun;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plays a game on from a given state, for playouts that only need the points of the players.
+ *
+ * <p>A playout applies the rules of {@link GameState#withPlacedTile(PlacedTile)},
+ * {@link GameState#withNewOccupant(Occupant)} and {@link GameState#withOccupantRemoved(Occupant)}, and gives
+ * the players the same points, but it is mutable and does none of the work only needed to display a game:
+ * it checks no arguments, creates no game state, player list or message, and adds the points scored to a
+ * primitive array. The occupants of each player are counted as they are placed and removed instead of
+ * being counted again on the board, and the gatherers and fishers are only removed from the board when a
+ * closed forest or river is occupied. A playout must be used by a single thread, and its actions must be
+ * the ones given by {@link #nextAction()}.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class Playout {
+    private final PlayerColor[] players;
+    private final List<Tile> normalTiles;
+    private final List<Tile> menhirTiles;
+    private final TextMaker textMaker;
+    // Points, and occupants on the board by occupant kind ordinal, by color ordinal
+    private final int[] points = new int[PlayerColor.ALL.size()];
+    private final int[][] placedOccupants = new int[Occupant.Kind.values().length][PlayerColor.ALL.size()];
+
+    // Index of the top tile of each deck, and of the current player
+    private int normalTop;
+    private int menhirTop;
+    private int current;
+    private Tile tileToPlace;
+    private PlacedTile lastPlacedTile;
+    private Board board;
+    private GameState.Action nextAction;
+
+    /**
+     * Constructs a new Playout starting from the given game state.
+     *
+     * @param gameState the game state to start from
+     */
+    private Playout(GameState gameState) {
+        players = gameState.players().toArray(new PlayerColor[0]);
+        normalTiles = gameState.tileDecks().normalTiles();
+        menhirTiles = gameState.tileDecks().menhirTiles();
+        textMaker = gameState.messageBoard().textMaker();
+        tileToPlace = gameState.tileToPlace();
+        board = gameState.board();
+        lastPlacedTile = board.lastPlacedTile();
+        nextAction = gameState.nextAction();
+        gameState.messageBoard().points().forEach((player, playerPoints) -> points[player.ordinal()] = playerPoints);
+        countPlacedOccupants();
+    }
+
+    /**
+     * Starts a playout from the given game state, whose starting tile must have been placed.
+     *
+     * @param gameState the game state to start from
+     * @return a playout in the given game state
+     */
+    public static Playout of(GameState gameState) {
+        return new Playout(gameState);
+    }
+
+    /**
+     * Returns the next action to perform.
+     *
+     * @return the next action to perform
+     */
+    public GameState.Action nextAction() {
+        return nextAction;
+    }
+
+    /**
+     * Returns the current player.
+     *
+     * @return the current player, or null if the game has ended
+     */
+    public PlayerColor currentPlayer() {
+        return nextAction == GameState.Action.END_GAME ? null : players[current];
+    }
+
+    /**
+     * Returns the tile to place.
+     *
+     * @return the tile to place, or null if the next action is not to place a tile
+     */
+    public Tile tileToPlace() {
+        return tileToPlace;
+    }
+
+    /**
+     * Returns the board of the game.
+     *
+     * @return the board of the game
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * Returns the points of the given player, which are the same as in the message board of the game state.
+     *
+     * @param player the player
+     * @return the points of the player
+     */
+    public int points(PlayerColor player) {
+        return points[player.ordinal()];
+    }
+
+    /**
+     * Returns the number of free occupants of the given kind of the given player.
+     *
+     * @param player the player
+     * @param kind   the kind of occupant
+     * @return the number of free occupants of the given kind of the player
+     */
+    public int freeOccupantsCount(PlayerColor player, Occupant.Kind kind) {
+        return Occupant.occupantsCount(kind) - placedOccupants[kind.ordinal()][player.ordinal()];
+    }
+
+    /**
+     * Returns the occupants the current player can place on the last placed tile.
+     *
+     * @return the unmodifiable set of potential occupants of the last placed tile
+     */
+    public Set<Occupant> lastTilePotentialOccupants() {
+        return board.lastTilePotentialOccupants(
+                lastPlacedTile,
+                freeOccupantsCount(players[current], Occupant.Kind.PAWN) > 0,
+                freeOccupantsCount(players[current], Occupant.Kind.HUT) > 0);
+    }
+
+    /**
+     * Places the given tile, see {@link GameState#withPlacedTile(PlacedTile)}.
+     *
+     * @param tile the tile to place
+     */
+    public void placeTile(PlacedTile tile) {
+        Board newBoard = board.withNewTile(tile);
+        lastPlacedTile = tile;
+        if (tile.specialPowerZone() != null) {
+            switch (tile.specialPowerZone().specialPower()) {
+                case SHAMAN -> {
+                    if (placedOccupants[Occupant.Kind.PAWN.ordinal()][players[current].ordinal()] > 0) {
+                        tileToPlace = null;
+                        board = newBoard;
+                        nextAction = GameState.Action.RETAKE_PAWN;
+                        return;
+                    }
+                }
+                case HUNTING_TRAP -> {
+                    Set<Animal> animals = Area.animals(
+                            newBoard.adjacentMeadow(tile.pos(), (Zone.Meadow) tile.specialPowerZone()),
+                            board.cancelledAnimals());
+                    int[] animalCounts = MessageBoard.animalCounts(animals);
+                    points[players[current].ordinal()] += Points.forMeadow(
+                            animalCounts[Animal.Kind.MAMMOTH.ordinal()],
+                            animalCounts[Animal.Kind.AUROCHS.ordinal()],
+                            animalCounts[Animal.Kind.DEER.ordinal()]);
+                    newBoard = newBoard.withMoreCancelledAnimals(animals);
+                }
+                default -> {
+                }
+            }
+        }
+        if (occupationIsPossible(newBoard)) {
+            tileToPlace = null;
+            board = newBoard;
+            nextAction = GameState.Action.OCCUPY_TILE;
+        } else {
+            finishTurn(tile, newBoard);
+        }
+    }
+
+    /**
+     * Places the given occupant on the last placed tile, or none if it is null, and finishes the turn, see
+     * {@link GameState#withNewOccupant(Occupant)}.
+     *
+     * @param occupant the occupant to place, or null
+     */
+    public void occupy(Occupant occupant) {
+        Board newBoard = board;
+        if (occupant != null && occupationIsPossible(board)) {
+            newBoard = board.withOccupant(occupant);
+            placedOccupants[occupant.kind().ordinal()][players[current].ordinal()] += 1;
+            newBoard = withClosedAreasScored(newBoard);
+        }
+        finishTurn(lastPlacedTile, newBoard);
+    }
+
+    /**
+     * Removes the given pawn from the board, or none if it is null, see
+     * {@link GameState#withOccupantRemoved(Occupant)}.
+     *
+     * @param occupant the pawn to remove, or null
+     */
+    public void removeOccupant(Occupant occupant) {
+        if (!occupationIsPossible(board)) {
+            finishTurn(lastPlacedTile, board);
+            return;
+        }
+        if (occupant != null && placedOccupants[Occupant.Kind.PAWN.ordinal()][players[current].ordinal()] > 0) {
+            PlayerColor owner = board.tileWithId(Zone.tileId(occupant.zoneId())).placer();
+            board = board.withoutOccupant(occupant);
+            placedOccupants[Occupant.Kind.PAWN.ordinal()][owner.ordinal()] -= 1;
+        }
+        nextAction = GameState.Action.OCCUPY_TILE;
+    }
+
+    /**
+     * Checks if the current player can occupy the last placed tile, on the given board.
+     *
+     * @param someBoard the board being worked on
+     * @return true if occupation is possible, false otherwise
+     */
+    private boolean occupationIsPossible(Board someBoard) {
+        return PlacementKernel.local().canOccupy(
+                someBoard,
+                lastPlacedTile.tile(),
+                freeOccupantsCount(players[current], Occupant.Kind.PAWN),
+                freeOccupantsCount(players[current], Occupant.Kind.HUT));
+    }
+
+    /**
+     * Finishes the turn of the current player, scoring the areas closed by the given tile and drawing the
+     * next tile to place, or counting the final points when there is none left.
+     *
+     * @param tile     the tile placed during the turn
+     * @param newBoard the board at the end of the turn, before its closed areas are scored
+     */
+    private void finishTurn(PlacedTile tile, Board newBoard) {
+        Board.PlacementOutcome outcome = newBoard.lastPlacementOutcome();
+        for (Area<Zone.Water> riverSystem : outcome.closedRiverSystems()) {
+            scoreRiverSystem(outcome, riverSystem);
+        }
+        for (Area<Zone.Water> riverSystem : outcome.logboatRiverSystems()) {
+            points[players[current].ordinal()] += Points.forLogboat(Area.lakeCount(riverSystem));
+        }
+
+        if (outcome.forestClosedWithMenhir() != null
+                && menhirTop < menhirTiles.size()
+                && tile.tile().kind() == Tile.Kind.NORMAL) {
+            menhirTop = topTileUntilPlaceable(menhirTiles, menhirTop, newBoard);
+            tileToPlace = menhirTiles.get(menhirTop);
+            menhirTop += 1;
+            board = withClosedAreasScored(newBoard);
+            nextAction = GameState.Action.PLACE_TILE;
+            return;
+        }
+
+        boolean deckWasEmpty = normalTop == normalTiles.size();
+        normalTop = topTileUntilPlaceable(normalTiles, normalTop, newBoard);
+        newBoard = withClosedAreasScored(newBoard);
+
+        if (deckWasEmpty || normalTop == normalTiles.size()) {
+            FinalScoring.Outcome finalOutcome = FinalScoring.count(
+                    board, newBoard.cancelledAnimals(), tile, new MessageBoard(textMaker, List.of()));
+            for (MessageBoard.Message message : finalOutcome.messageBoard().messages()) {
+                for (PlayerColor scorer : message.scorers()) points[scorer.ordinal()] += message.points();
+            }
+            tileToPlace = null;
+            board = finalOutcome.board();
+            nextAction = GameState.Action.END_GAME;
+            // Like the game state, the final board is the one before the last action of the turn
+            countPlacedOccupants();
+            return;
+        }
+
+        current = (current + 1) % players.length;
+        tileToPlace = normalTiles.get(normalTop);
+        normalTop += 1;
+        board = newBoard;
+        nextAction = GameState.Action.PLACE_TILE;
+    }
+
+    /**
+     * Returns the index of the first tile of the given deck, from the given index on, that can be placed on
+     * the given board, or the size of the deck if there is none.
+     *
+     * @param deck  the deck
+     * @param top   the index of the top tile of the deck
+     * @param board the board
+     * @return the index of the first tile of the deck that can be placed
+     */
+    private static int topTileUntilPlaceable(List<Tile> deck, int top, Board board) {
+        while (top < deck.size() && !board.couldPlaceTile(deck.get(top))) top += 1;
+        return top;
+    }
+
+    /**
+     * Counts the occupants of each player on the board.
+     */
+    private void countPlacedOccupants() {
+        for (PlayerColor player : players) {
+            for (Occupant.Kind kind : Occupant.Kind.values()) {
+                placedOccupants[kind.ordinal()][player.ordinal()] = board.occupantCount(player, kind);
+            }
+        }
+    }
+
+    /**
+     * Scores the areas closed by the last placed tile of the given board, and removes the gatherers and
+     * fishers of the closed forests and rivers, see {@link GameState}.
+     *
+     * @param someBoard the board being worked on
+     * @return the board without the gatherers and fishers of the closed forests and rivers
+     */
+    private Board withClosedAreasScored(Board someBoard) {
+        Board.PlacementOutcome outcome = someBoard.lastPlacementOutcome();
+        if (outcome.isEmpty()) return someBoard;
+        for (Area<Zone.Water> riverSystem : outcome.closedRiverSystems()) {
+            scoreRiverSystem(outcome, riverSystem);
+        }
+
+        boolean hasOccupants = false;
+        for (Area<Zone.River> river : outcome.closedRivers()) {
+            if (river.isOccupied()) {
+                score(river, Points.forClosedRiver(river.zones().size(), Area.riverFishCount(river)));
+                returnPawns(river);
+                hasOccupants = true;
+            }
+        }
+        for (Area<Zone.Forest> forest : outcome.closedForests()) {
+            if (forest.isOccupied()) {
+                score(forest, Points.forClosedForest(forest.zones().size(), Area.mushroomGroupCount(forest)));
+                returnPawns(forest);
+                hasOccupants = true;
+            }
+        }
+        return hasOccupants
+                ? someBoard.withoutGatherersOrFishersIn(outcome.closedForests(), outcome.closedRivers())
+                : someBoard;
+    }
+
+    /**
+     * Scores the given closed river system, along with its raft if it has one.
+     *
+     * @param outcome     the outcome of the last placement
+     * @param riverSystem the closed river system
+     */
+    private void scoreRiverSystem(Board.PlacementOutcome outcome, Area<Zone.Water> riverSystem) {
+        if (!riverSystem.isOccupied()) return;
+        score(riverSystem, Points.forRiverSystem(Area.riverSystemFishCount(riverSystem)));
+        if (outcome.raftRiverSystems().contains(riverSystem)) {
+            score(riverSystem, Points.forRaft(Area.lakeCount(riverSystem)));
+        }
+    }
+
+    /**
+     * Gives the given points to the majority occupants of the given area.
+     *
+     * @param area       the area
+     * @param areaPoints the points earned by the area
+     */
+    private void score(Area<? extends Zone> area, int areaPoints) {
+        for (PlayerColor player : area.majorityOccupants()) points[player.ordinal()] += areaPoints;
+    }
+
+    /**
+     * Counts the pawns of the given area as returned to their players.
+     *
+     * @param area the area whose pawns are removed
+     */
+    private void returnPawns(Area<? extends Zone> area) {
+        for (PlayerColor player : area.occupants()) {
+            placedOccupants[Occupant.Kind.PAWN.ordinal()][player.ordinal()] -= 1;
+        }
+    }
+}
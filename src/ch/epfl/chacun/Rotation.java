@@ -33,7 +33,7 @@ public enum Rotation {
      */
     public Rotation add(Rotation that) {
         int addedPosition = this.ordinal() + that.ordinal();
-        return Rotation.values()[addedPosition % COUNT];
+        return ALL.get(addedPosition % COUNT);
     }
 
     /**
@@ -42,7 +42,7 @@ public enum Rotation {
      * @return The negated rotation.
      */
     public Rotation negated() {
-        return Rotation.values()[(COUNT - this.ordinal()) % COUNT];
+        return ALL.get((COUNT - this.ordinal()) % COUNT);
     }
 
     /**
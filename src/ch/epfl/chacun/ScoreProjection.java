@@ -0,0 +1,226 @@
+package ch.epfl.chacun;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the points each player would have if the game ended now, that is their current points plus
+ * those the meadows and river systems of the board would earn them when the final points are counted.
+ *
+ * <p>The points earned by each meadow and river system are kept along with the area. As the boards of
+ * successive game states share the areas that did not change, those points are only computed again for
+ * the areas that were created, merged or occupied since the last projection, and the totals are updated
+ * by the difference. The points of the meadows are all computed again when animals are cancelled, and
+ * those of a meadow with a pit trap when the last placed tile changes, as the trap depends on it.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class ScoreProjection {
+    private static final ScoreProjection EMPTY = new ScoreProjection(
+            null, List.of(), Map.of(), new int[PlayerColor.ALL.size()], new int[PlayerColor.ALL.size()]);
+
+    private final Board board;
+    private final List<PlayerColor> players;
+    // Points each meadow and river system earns when the final points are counted, by identity of the area
+    private final Map<Area<?>, AreaPoints> areaPoints;
+    // Sum of the points earned by the areas, and projected points, by color ordinal
+    private final int[] finalPoints;
+    private final int[] projectedPoints;
+
+    /**
+     * Constructs a new ScoreProjection, from arrays and a map that are not copied.
+     *
+     * @param board           the board of the projection
+     * @param players         the players of the game
+     * @param areaPoints      the points earned by each area
+     * @param finalPoints     the sum of the points earned by the areas, by color ordinal
+     * @param projectedPoints the projected points, by color ordinal
+     */
+    private ScoreProjection(Board board,
+                            List<PlayerColor> players,
+                            Map<Area<?>, AreaPoints> areaPoints,
+                            int[] finalPoints,
+                            int[] projectedPoints) {
+        this.board = board;
+        this.players = players;
+        this.areaPoints = areaPoints;
+        this.finalPoints = finalPoints;
+        this.projectedPoints = projectedPoints;
+    }
+
+    /**
+     * Computes the projection of the given game state.
+     *
+     * @param gameState the game state
+     * @return the projection of the game state
+     */
+    public static ScoreProjection of(GameState gameState) {
+        return EMPTY.withState(gameState);
+    }
+
+    /**
+     * Returns the projection of the given game state, computing only the points of the areas that are not
+     * shared with the board of this projection. It is meant to be called with the successive states of a
+     * game, but any state can be given. Once the game is over, the final points are already on the message
+     * board, so the projected points are the points of the players.
+     *
+     * @param gameState the game state
+     * @return the projection of the game state
+     */
+    public ScoreProjection withState(GameState gameState) {
+        Board newBoard = gameState.board();
+        if (gameState.nextAction() == GameState.Action.END_GAME) {
+            int[] points = new int[PlayerColor.ALL.size()];
+            for (Map.Entry<PlayerColor, Integer> entry : gameState.messageBoard().points().entrySet()) {
+                points[entry.getKey().ordinal()] = entry.getValue();
+            }
+            return new ScoreProjection(newBoard, gameState.players(), Map.of(), new int[PlayerColor.ALL.size()], points);
+        }
+        boolean animalsCancelled = board == null
+                || board.cancelledAnimals().size() != newBoard.cancelledAnimals().size();
+        PlacedTile lastTile = newBoard.lastPlacedTile();
+        Pos lastTilePos = lastTile == null ? null : lastTile.pos();
+
+        Map<Area<?>, AreaPoints> newAreaPoints = new IdentityHashMap<>();
+        int[] newFinalPoints = finalPoints.clone();
+        for (Area<Zone.Meadow> meadow : newBoard.meadowAreas()) {
+            AreaPoints points = areaPoints.get(meadow);
+            if (points == null || animalsCancelled
+                    || (points.lastTilePos() != null && !points.lastTilePos().equals(lastTilePos))) {
+                points = meadowPoints(newBoard, meadow, lastTilePos);
+            }
+            newAreaPoints.put(meadow, points);
+        }
+        for (Area<Zone.Water> riverSystem : newBoard.riverSystemAreas()) {
+            AreaPoints points = areaPoints.get(riverSystem);
+            newAreaPoints.put(riverSystem, points != null ? points : riverSystemPoints(riverSystem));
+        }
+
+        for (Map.Entry<Area<?>, AreaPoints> entry : areaPoints.entrySet()) {
+            if (newAreaPoints.get(entry.getKey()) != entry.getValue()) entry.getValue().addTo(newFinalPoints, -1);
+        }
+        for (Map.Entry<Area<?>, AreaPoints> entry : newAreaPoints.entrySet()) {
+            if (areaPoints.get(entry.getKey()) != entry.getValue()) entry.getValue().addTo(newFinalPoints, 1);
+        }
+
+        int[] newProjectedPoints = newFinalPoints.clone();
+        for (Map.Entry<PlayerColor, Integer> entry : gameState.messageBoard().points().entrySet()) {
+            newProjectedPoints[entry.getKey().ordinal()] += entry.getValue();
+        }
+        return new ScoreProjection(newBoard, gameState.players(), newAreaPoints, newFinalPoints, newProjectedPoints);
+    }
+
+    /**
+     * Returns the points the given player would have if the game ended now.
+     *
+     * @param player the player
+     * @return the projected points of the player
+     */
+    public int projectedPoints(PlayerColor player) {
+        return projectedPoints[player.ordinal()];
+    }
+
+    /**
+     * Returns the points the meadows and river systems would earn the given player if the game ended now.
+     *
+     * @param player the player
+     * @return the points the player would earn when the final points are counted
+     */
+    public int finalPoints(PlayerColor player) {
+        return finalPoints[player.ordinal()];
+    }
+
+    /**
+     * Returns the points each player would have if the game ended now.
+     *
+     * @return an unmodifiable map from each player of the game to their projected points
+     */
+    public Map<PlayerColor, Integer> projectedPoints() {
+        Map<PlayerColor, Integer> points = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : players) points.put(player, projectedPoints(player));
+        return Collections.unmodifiableMap(points);
+    }
+
+    /**
+     * Computes the points the given meadow earns when the final points are counted: the deer eaten by the
+     * tigers are not counted, except if the meadow has a wildfire, and if it has a pit trap, only the deer
+     * outside of the meadow adjacent to the trap around the last placed tile can be eaten.
+     *
+     * @param board       the board
+     * @param meadow      the meadow
+     * @param lastTilePos the position of the last placed tile
+     * @return the points earned by the meadow
+     */
+    private static AreaPoints meadowPoints(Board board, Area<Zone.Meadow> meadow, Pos lastTilePos) {
+        Set<Animal> animals = Area.animals(meadow, board.cancelledAnimals());
+        int[] counts = new int[Animal.Kind.values().length];
+        for (Animal animal : animals) counts[animal.kind().ordinal()] += 1;
+        int deerCount = counts[Animal.Kind.DEER.ordinal()];
+        int tigerCount = counts[Animal.Kind.TIGER.ordinal()];
+
+        Zone wildFire = meadow.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE);
+        Zone pitTrap = meadow.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP);
+        Pos dependsOn = null;
+        int eatenDeerCount;
+        if (wildFire != null) {
+            eatenDeerCount = 0;
+        } else if (pitTrap != null) {
+            dependsOn = lastTilePos;
+            Set<Animal> protectedAnimals =
+                    Area.animals(board.adjacentMeadow(lastTilePos, (Zone.Meadow) pitTrap), Set.of());
+            int reachableDeerCount = 0;
+            for (Animal animal : animals) {
+                if (animal.kind() == Animal.Kind.DEER && !protectedAnimals.contains(animal)) reachableDeerCount += 1;
+            }
+            eatenDeerCount = Math.min(tigerCount, reachableDeerCount);
+        } else {
+            eatenDeerCount = Math.min(tigerCount, deerCount);
+        }
+
+        int points = Points.forMeadow(counts[Animal.Kind.MAMMOTH.ordinal()],
+                counts[Animal.Kind.AUROCHS.ordinal()],
+                deerCount - eatenDeerCount);
+        if (!meadow.isOccupied() || points == 0) return new AreaPoints(0, Set.of(), dependsOn);
+        return new AreaPoints(points, meadow.majorityOccupants(), dependsOn);
+    }
+
+    /**
+     * Computes the points the given river system earns when the final points are counted, including its
+     * raft if it has one.
+     *
+     * @param riverSystem the river system
+     * @return the points earned by the river system
+     */
+    private static AreaPoints riverSystemPoints(Area<Zone.Water> riverSystem) {
+        if (!riverSystem.isOccupied()) return new AreaPoints(0, Set.of(), null);
+        int points = Points.forRiverSystem(Area.riverSystemFishCount(riverSystem));
+        if (riverSystem.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
+            points += Points.forRaft(Area.lakeCount(riverSystem));
+        }
+        return new AreaPoints(points, riverSystem.majorityOccupants(), null);
+    }
+
+    /**
+     * The points an area earns when the final points are counted.
+     *
+     * @param points      the points earned by each scorer
+     * @param scorers     the majority occupants of the area
+     * @param lastTilePos the position of the last placed tile the points depend on, null if they do not
+     * @author Bjork Pedersen (376143)
+     */
+    private record AreaPoints(int points, Set<PlayerColor> scorers, Pos lastTilePos) {
+        /**
+         * Adds the points to those of each scorer, multiplied by the given sign.
+         *
+         * @param totals the points of the players, by color ordinal
+         * @param sign   1 to add the points, -1 to remove them
+         */
+        private void addTo(int[] totals, int sign) {
+            for (PlayerColor scorer : scorers) totals[scorer.ordinal()] += sign * points;
+        }
+    }
+}
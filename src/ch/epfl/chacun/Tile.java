@@ -30,12 +30,12 @@ public record Tile(int id, Kind kind, TileSide n, TileSide e, TileSide s, TileSi
     }
 
     /**
-     * Returns a set of all zones that are part of the sides of this tile.
+     * Returns a set of all zones that are part of the sides of this tile, in the order of the sides.
      *
      * @return a set of zones
      */
     public Set<Zone> sideZones() {
-        Set<Zone> sideZones = new HashSet<Zone>();
+        Set<Zone> sideZones = new LinkedHashSet<Zone>();
         for (TileSide sides : this.sides()) {
             sideZones.addAll(sides.zones());
         }
@@ -45,13 +45,14 @@ public record Tile(int id, Kind kind, TileSide n, TileSide e, TileSide s, TileSi
     /**
      * Returns a set of all zones that are part of this tile.
      * This includes zones that are part of the sides of this tile,
-     * as well as any lake zones that are part of river zones.
+     * as well as any lake zones that are part of river zones. The zones of the sides come first, in the
+     * order of the sides, followed by the lakes.
      *
      * @return a set of zones
      */
     public Set<Zone> zones() {
         Set<Zone> allZones = this.sideZones();
-        Set<Zone> result = new HashSet<>(allZones);
+        Set<Zone> result = new LinkedHashSet<>(allZones);
         for (Zone zone : allZones) {
             if (zone instanceof Zone.River river && river.hasLake()) {
                 result.add(river.lake());
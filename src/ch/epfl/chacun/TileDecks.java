@@ -1,28 +1,36 @@
 package ch.epfl.chacun;
 
+import java.util.AbstractList;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.function.Predicate;
 
 /**
  * This class represents a collection of decks of tiles in the game.
  * Each deck is categorized by the kind of tile it contains.
  *
+ * <p>Each deck is a view of the tiles of an array that is never modified, starting at the offset of its top
+ * tile. Drawing tiles only moves this offset, so it takes constant time, and all the decks obtained by drawing
+ * from the same deck share its array.
+ *
  * @author Bjork Pedersen (376143)
  */
 public record TileDecks(List<Tile> startTiles, List<Tile> normalTiles, List<Tile> menhirTiles) {
 
     /**
      * Constructor for TileDecks.
-     * It initializes the decks with the provided lists of tiles.
+     * It initializes the decks with the provided lists of tiles, which are copied unless they are
+     * decks of another TileDecks, as those cannot be modified.
      *
      * @param startTiles  List of start tiles.
      * @param normalTiles List of normal tiles.
      * @param menhirTiles List of menhir tiles.
      */
     public TileDecks {
-        startTiles = List.copyOf(startTiles);
-        normalTiles = List.copyOf(normalTiles);
-        menhirTiles = List.copyOf(menhirTiles);
+        startTiles = Deck.of(startTiles);
+        normalTiles = Deck.of(normalTiles);
+        menhirTiles = Deck.of(menhirTiles);
     }
 
     /**
@@ -46,6 +54,17 @@ public record TileDecks(List<Tile> startTiles, List<Tile> normalTiles, List<Tile
         return deck.isEmpty() ? null : deck.get(0);
     }
 
+    /**
+     * Returns the composition of the specified deck. Once the composition of a deck has been computed,
+     * that of any deck obtained by drawing from it is returned in constant time.
+     *
+     * @param kind The kind of the deck.
+     * @return The composition of the deck.
+     */
+    public DeckComposition composition(Tile.Kind kind) {
+        return getDeck(kind).composition();
+    }
+
     /**
      * Returns a new TileDecks instance with the top tile drawn from the specified deck.
      *
@@ -54,10 +73,9 @@ public record TileDecks(List<Tile> startTiles, List<Tile> normalTiles, List<Tile
      * @throws IllegalArgumentException If the deck is empty.
      */
     public TileDecks withTopTileDrawn(Tile.Kind kind) {
-        List<Tile> deck = getDeck(kind);
+        Deck deck = getDeck(kind);
         Preconditions.checkArgument(!deck.isEmpty());
-        List<Tile> newDeck = deck.subList(1, deck.size());
-        return updateDeck(kind, newDeck);
+        return updateDeck(kind, deck.drawn(1));
     }
 
     /**
@@ -68,17 +86,12 @@ public record TileDecks(List<Tile> startTiles, List<Tile> normalTiles, List<Tile
      * @return A new TileDecks instance with the top tiles drawn until the condition is met.
      */
     public TileDecks withTopTileDrawnUntil(Tile.Kind kind, Predicate<Tile> predicate) {
-        TileDecks trimmedTileDeck = this;
-        List<Tile> deck = getDeck(kind);
-        for (Tile tile : deck) {
-            if (!predicate.test(tile) && !trimmedTileDeck.getDeck(kind).isEmpty()) {
-                trimmedTileDeck = trimmedTileDeck.withTopTileDrawn(kind);
-            }
-            if (predicate.test(tile)) {
-                break;
-            }
+        Deck deck = getDeck(kind);
+        int drawnCount = 0;
+        while (drawnCount < deck.size() && !predicate.test(deck.get(drawnCount))) {
+            drawnCount += 1;
         }
-        return trimmedTileDeck;
+        return drawnCount == 0 ? this : updateDeck(kind, deck.drawn(drawnCount));
     }
 
     /**
@@ -87,8 +100,8 @@ public record TileDecks(List<Tile> startTiles, List<Tile> normalTiles, List<Tile
      * @param kind The kind of the deck.
      * @return The deck of the specified kind.
      */
-    private List<Tile> getDeck(Tile.Kind kind) {
-        return switch (kind) {
+    private Deck getDeck(Tile.Kind kind) {
+        return (Deck) switch (kind) {
             case START -> startTiles;
             case NORMAL -> normalTiles;
             case MENHIR -> menhirTiles;
@@ -109,4 +122,73 @@ public record TileDecks(List<Tile> startTiles, List<Tile> normalTiles, List<Tile
             case MENHIR -> new TileDecks(startTiles, normalTiles, newDeck);
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * An immutable deck, made of the tiles of a shared array from a given offset on.
+     *
+     * @author Bjork Pedersen (376143)
+     */
+    private static final class Deck extends AbstractList<Tile> implements RandomAccess {
+        private final Tile[] tiles;
+        private final int top;
+        // Counts of the composition of the array, shared by all the decks viewing it
+        private final Memo<DeckComposition.Table> table;
+
+        /**
+         * Constructs a new Deck.
+         *
+         * @param tiles the tiles, which must never be modified
+         * @param top   the index of the top tile of the deck in the array
+         * @param table the counts of the composition of the array
+         */
+        private Deck(Tile[] tiles, int top, Memo<DeckComposition.Table> table) {
+            this.tiles = tiles;
+            this.top = top;
+            this.table = table;
+        }
+
+        /**
+         * Returns the given list as a deck, copying its tiles unless it already is one.
+         *
+         * @param tiles the tiles of the deck
+         * @return the deck
+         * @throws NullPointerException if the list or one of its tiles is null
+         */
+        private static Deck of(List<Tile> tiles) {
+            if (tiles instanceof Deck deck) return deck;
+            Tile[] copy = tiles.toArray(Tile[]::new);
+            for (Tile tile : copy) Objects.requireNonNull(tile);
+            return new Deck(copy, 0, new Memo<>());
+        }
+
+        /**
+         * Returns this deck, without its given number of top tiles.
+         *
+         * @param count the number of tiles to draw
+         * @return the deck with the tiles drawn, sharing the tiles of this one
+         */
+        private Deck drawn(int count) {
+            return new Deck(tiles, top + count, table);
+        }
+
+        /**
+         * Returns the composition of this deck.
+         *
+         * @return the composition of this deck
+         */
+        private DeckComposition composition() {
+            return new DeckComposition(table.get(() -> new DeckComposition.Table(tiles)), top);
+        }
+
+        @Override
+        public Tile get(int index) {
+            Objects.checkIndex(index, size());
+            return tiles[top + index];
+        }
+
+        @Override
+        public int size() {
+            return tiles.length - top;
+        }
+    }
+}
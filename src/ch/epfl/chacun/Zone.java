@@ -1,6 +1,7 @@
 package ch.epfl.chacun;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * This interface represents a Zone in the game.
@@ -164,6 +165,21 @@ public sealed interface Zone {
         public int localId() {
             return id % 10;
         }
+
+        /**
+         * Returns whether the given object is a meadow equal to this one. The ids are compared first, so that
+         * telling two meadows apart does not iterate over their animals.
+         *
+         * @param o the object to compare
+         * @return true if the object is an equal meadow, false otherwise
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Meadow that
+                    && id == that.id
+                    && specialPower == that.specialPower
+                    && Objects.equals(animals, that.animals);
+        }
     }
 
     /**
@@ -1,7 +1,6 @@
 package ch.epfl.chacun;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -11,22 +10,37 @@ import java.util.Set;
  * @param <Z> The type of Zone this partition can contain.
  * @author Bjork Pedersen (376143)
  */
-public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
+public final class ZonePartition<Z extends Zone> {
+    private final Set<Area<Z>> areas;
+    // The same areas, in a list so that looking one up does not create an iterator
+    private final List<Area<Z>> areaList;
 
     /**
-     * Constructor for the ZonePartition record.
+     * Constructor for the ZonePartition class.
      * It makes a copy of the areas set.
+     *
+     * @param areas the areas of the partition
      */
-    public ZonePartition {
-        areas = Set.copyOf(areas);
+    public ZonePartition(Set<Area<Z>> areas) {
+        this.areas = Set.copyOf(areas);
+        this.areaList = List.copyOf(this.areas);
     }
 
     /**
-     * Default constructor for the ZonePartition record.
+     * Default constructor for the ZonePartition class.
      * It initializes the areas set as an empty set.
      */
     public ZonePartition() {
-        this(new HashSet<>(Set.of()));
+        this(Set.of());
+    }
+
+    /**
+     * Returns the areas of the partition.
+     *
+     * @return the areas of the partition
+     */
+    public Set<Area<Z>> areas() {
+        return areas;
     }
 
     /**
@@ -36,7 +50,8 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
      * @return The area that contains the zone.
      */
     public Area<Z> areaContaining(Z zone) {
-        for (Area<Z> area : areas) {
+        for (int i = 0; i < areaList.size(); ++i) {
+            Area<Z> area = areaList.get(i);
             if (area.zones().contains(zone)) {
                 return area;
             }
@@ -44,13 +59,33 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
         throw new IllegalArgumentException();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ZonePartition<?> other && areas.equals(other.areas);
+    }
+
+    @Override
+    public int hashCode() {
+        return areas.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ZonePartition[areas=" + areas + "]";
+    }
+
     /**
-     * This class is a builder for the ZonePartition class.
+     * This class is a builder for the ZonePartition class. The areas are kept in slots, and the slot of the
+     * area containing each zone is looked up by zone id, so that finding an area neither scans the areas
+     * nor hashes them.
      *
      * @param <Z> The type of Zone this builder can contain.
      */
     public static final class Builder<Z extends Zone> {
-        private final Set<Area<Z>> areas = new HashSet<>(Set.of());
+        // Areas by slot, null once merged into another area
+        private final List<Area<Z>> areas;
+        // Slot of the area containing each zone, by zone id, indexed on first lookup
+        private IntIntMap slotOfZone;
 
         /**
          * Constructor for the Builder class.
@@ -59,7 +94,7 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @param partition The partition to copy the areas from.
          */
         public Builder(ZonePartition<Z> partition) {
-            areas.addAll(partition.areas);
+            areas = new ArrayList<>(partition.areas);
         }
 
         /**
@@ -70,21 +105,33 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          */
         public void addSingleton(Z zone, int openConnections) {
             areas.add(new Area<>(Set.of(zone), null, openConnections));
+            if (slotOfZone != null) slotOfZone.put(zone.id(), areas.size() - 1);
         }
 
         /**
-         * Adds an initial occupant to the area that contains the given zone.
+         * Returns the slot of the area that contains the given zone.
          *
          * @param zone The zone to look for.
-         * @throws IllegalArgumentException if the occupant cannot be added
+         * @return The slot of the area, or -1 if no area contains the zone.
          */
-        private Area<Z> findAreaContaining(Z zone) {
-            for (Area<Z> area : areas) {
-                if (area.zones().contains(zone)) {
-                    return area;
-                }
+        private int slotContaining(Z zone) {
+            if (slotOfZone == null) {
+                int zoneCount = 0;
+                for (Area<Z> area : areas) zoneCount += area.zones().size();
+                slotOfZone = new IntIntMap(zoneCount);
+                for (int slot = 0; slot < areas.size(); ++slot) assignSlot(areas.get(slot), slot);
             }
-            return null;
+            return slotOfZone.getOrDefault(zone.id(), -1);
+        }
+
+        /**
+         * Records that the zones of the given area are in the given slot.
+         *
+         * @param area The area.
+         * @param slot The slot of the area.
+         */
+        private void assignSlot(Area<Z> area, int slot) {
+            for (Z zone : area.zones()) slotOfZone.put(zone.id(), slot);
         }
 
         /**
@@ -95,11 +142,9 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @throws IllegalArgumentException if the area is null or already has occupants.
          */
         public void addInitialOccupant(Z zone, PlayerColor color) {
-            Area<Z> area = findAreaContaining(zone);
-            Preconditions.checkArgument(area != null && area.occupants().isEmpty());
-            Area<Z> newArea = area.withInitialOccupant(color);
-            areas.remove(area);
-            areas.add(newArea);
+            int slot = slotContaining(zone);
+            Preconditions.checkArgument(slot >= 0 && areas.get(slot).occupants().isEmpty());
+            areas.set(slot, areas.get(slot).withInitialOccupant(color));
         }
 
         /**
@@ -110,13 +155,9 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @throws IllegalArgumentException if the area is null or does not contain the occupant.
          */
         public void removeOccupant(Z zone, PlayerColor color) {
-            Area<Z> area = findAreaContaining(zone);
-            Preconditions.checkArgument(area != null && area.occupants().contains(color));
-            List<PlayerColor> newOccupants = new ArrayList<>(area.occupants());
-            newOccupants.remove(color);
-            Area<Z> newArea = area.withoutOccupant(color);
-            areas.remove(area);
-            areas.add(newArea);
+            int slot = slotContaining(zone);
+            Preconditions.checkArgument(slot >= 0 && areas.get(slot).occupants().contains(color));
+            areas.set(slot, areas.get(slot).withoutOccupant(color));
         }
 
         /**
@@ -127,13 +168,22 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @throws IllegalArgumentException if either of the areas is null.
          */
         public void union(Z zone1, Z zone2) {
-            Area<Z> area1 = findAreaContaining(zone1);
-            Area<Z> area2 = findAreaContaining(zone2);
-            Preconditions.checkArgument(area1 != null && area2 != null);
+            int slot1 = slotContaining(zone1);
+            int slot2 = slotContaining(zone2);
+            Preconditions.checkArgument(slot1 >= 0 && slot2 >= 0);
+            Area<Z> area1 = areas.get(slot1);
+            Area<Z> area2 = areas.get(slot2);
             Area<Z> newArea = area1.connectTo(area2);
-            areas.remove(area1);
-            areas.remove(area2);
-            areas.add(newArea);
+            if (slot1 == slot2) {
+                areas.set(slot1, newArea);
+                return;
+            }
+            // The zones of the smaller area move to the slot of the larger one
+            boolean keepFirst = area1.zones().size() >= area2.zones().size();
+            int keptSlot = keepFirst ? slot1 : slot2;
+            areas.set(keptSlot, newArea);
+            areas.set(keepFirst ? slot2 : slot1, null);
+            assignSlot(keepFirst ? area2 : area1, keptSlot);
         }
 
         /**
@@ -142,10 +192,9 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @param area The area to remove the occupants from.
          */
         public void removeAllOccupantsOf(Area<Z> area) {
-            Preconditions.checkArgument(areas.contains(area));
-            Area<Z> newArea = area.withoutOccupants();
-            areas.remove(area);
-            areas.add(newArea);
+            int slot = area.zones().isEmpty() ? -1 : slotContaining(area.zones().iterator().next());
+            Preconditions.checkArgument(slot >= 0 && areas.get(slot).equals(area));
+            areas.set(slot, area.withoutOccupants());
         }
 
         /**
@@ -154,8 +203,12 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @return The new ZonePartition.
          */
         public ZonePartition<Z> build() {
-            return new ZonePartition<>(areas);
+            List<Area<Z>> builtAreas = new ArrayList<>(areas.size());
+            for (Area<Z> area : areas) {
+                if (area != null) builtAreas.add(area);
+            }
+            return new ZonePartition<>(Set.copyOf(builtAreas));
         }
 
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,479 @@
+package ch.epfl.chacun.gui;
+
+import ch.epfl.chacun.*;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * This class provides a user interface for the board in the game, drawn onto a single canvas instead of
+ * one node per cell. Only the cells that changed are redrawn, and clicks are hit-tested back to the
+ * position or occupant under the mouse. It cannot be instantiated.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class BoardCanvasUI {
+    private static final int CELL_SIZE = ImageLoader.NORMAL_TILE_FIT_SIZE;
+    private static final double ICON_RADIUS = 12;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private BoardCanvasUI() {
+    }
+
+    /**
+     * Creates the game board UI component, drawn onto a canvas.
+     *
+     * @param reach            The reach of the board.
+     * @param state            The current game state.
+     * @param rot              The current rotation state.
+     * @param visibleOccupants The set of visible occupants.
+     * @param highlightedTiles The set of highlighted tiles.
+     * @param rotateTile       Consumer to handle tile rotation.
+     * @param placeTile        Consumer to handle tile placement.
+     * @param selectOcc        Consumer to handle occupant selection.
+     * @return The Node representing the game board UI.
+     */
+    public static Node create(int reach,
+                              ObservableValue<GameState> state,
+                              SimpleObjectProperty<Rotation> rot,
+                              ObservableValue<Set<Occupant>> visibleOccupants,
+                              ObservableValue<IntSet> highlightedTiles,
+                              Consumer<Rotation> rotateTile,
+                              Consumer<Pos> placeTile,
+                              Consumer<Occupant> selectOcc) {
+        // The canvas only covers the viewport, and follows it over a pane of the size of the whole board.
+        double side = (2 * reach + 1) * BoardLayout.CELL_PITCH - BoardLayout.CELL_GAP;
+        Canvas canvas = new Canvas();
+        Pane boardPane = new Pane(canvas);
+        boardPane.setId("board-grid");
+        boardPane.setMinSize(side, side);
+        boardPane.setPrefSize(side, side);
+
+        Renderer renderer = new Renderer(
+                reach, canvas, state, rot, visibleOccupants, highlightedTiles, rotateTile, placeTile, selectOcc);
+        renderer.start();
+
+        ScrollPane boardScrollPane = new ScrollPane(boardPane);
+        boardScrollPane.getStylesheets().add("board.css");
+        boardScrollPane.setId("board-scroll-pane");
+        boardScrollPane.setVvalue(0.5);
+        boardScrollPane.setHvalue(0.5);
+
+        InvalidationListener viewportListener = o -> {
+            Bounds viewport = boardScrollPane.getViewportBounds();
+            double minX = boardScrollPane.getHvalue() * Math.max(0, side - viewport.getWidth());
+            double minY = boardScrollPane.getVvalue() * Math.max(0, side - viewport.getHeight());
+            renderer.showViewport(minX, minY, viewport.getWidth(), viewport.getHeight());
+        };
+        boardScrollPane.hvalueProperty().addListener(viewportListener);
+        boardScrollPane.vvalueProperty().addListener(viewportListener);
+        boardScrollPane.viewportBoundsProperty().addListener(viewportListener);
+        return boardScrollPane;
+    }
+
+    /**
+     * Draws the board onto the canvas and keeps it up to date, redrawing only the cells affected by
+     * each change of the observed values.
+     *
+     * @author Bjork Pedersen (376143)
+     */
+    private static final class Renderer {
+        private final int reach;
+        private final Canvas canvas;
+        private final GraphicsContext context;
+        private final ObservableValue<GameState> state;
+        private final SimpleObjectProperty<Rotation> rot;
+        private final ObservableValue<Set<Occupant>> visibleOccupants;
+        private final ObservableValue<IntSet> highlightedTiles;
+        private final Consumer<Rotation> rotateTile;
+        private final Consumer<Pos> placeTile;
+        private final Consumer<Occupant> selectOcc;
+
+        private final Image markerImage = new Image("/marker.png");
+        private double originX;
+        private double originY;
+        private Pos hoveredPos;
+
+        /**
+         * Constructs a new Renderer drawing onto the given canvas.
+         *
+         * @param reach            the reach of the board
+         * @param canvas           the canvas to draw onto
+         * @param state            the current game state
+         * @param rot              the current rotation of the tile to place
+         * @param visibleOccupants the set of visible occupants
+         * @param highlightedTiles the set of highlighted tiles
+         * @param rotateTile       the consumer for rotating the tile to place
+         * @param placeTile        the consumer for placing the tile
+         * @param selectOcc        the consumer for selecting an occupant
+         */
+        private Renderer(int reach,
+                         Canvas canvas,
+                         ObservableValue<GameState> state,
+                         SimpleObjectProperty<Rotation> rot,
+                         ObservableValue<Set<Occupant>> visibleOccupants,
+                         ObservableValue<IntSet> highlightedTiles,
+                         Consumer<Rotation> rotateTile,
+                         Consumer<Pos> placeTile,
+                         Consumer<Occupant> selectOcc) {
+            this.reach = reach;
+            this.canvas = canvas;
+            this.context = canvas.getGraphicsContext2D();
+            this.state = state;
+            this.rot = rot;
+            this.visibleOccupants = visibleOccupants;
+            this.highlightedTiles = highlightedTiles;
+            this.rotateTile = rotateTile;
+            this.placeTile = placeTile;
+            this.selectOcc = selectOcc;
+        }
+
+        /**
+         * Starts listening to the observed values and to the mouse.
+         */
+        private void start() {
+            state.addListener((o, oldState, newState) -> stateChanged(oldState, newState));
+            visibleOccupants.addListener((o, oldSet, newSet) -> occupantsChanged(oldSet, newSet));
+            highlightedTiles.addListener((o, oldSet, newSet) -> highlightChanged(oldSet, newSet));
+            rot.addListener((o, oldRotation, newRotation) -> {
+                if (hoveredPos != null) drawCell(hoveredPos);
+            });
+
+            canvas.setOnMouseMoved(e -> setHoveredPos(posAt(e.getX(), e.getY())));
+            canvas.setOnMouseExited(e -> setHoveredPos(null));
+            canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, this::mousePressed);
+        }
+
+        /**
+         * Moves the canvas over the given viewport of the board, and redraws it entirely.
+         *
+         * @param minX   the left of the viewport, in pixels
+         * @param minY   the top of the viewport, in pixels
+         * @param width  the width of the viewport, in pixels
+         * @param height the height of the viewport, in pixels
+         */
+        private void showViewport(double minX, double minY, double width, double height) {
+            originX = minX;
+            originY = minY;
+            canvas.relocate(minX, minY);
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+
+            context.clearRect(0, 0, width, height);
+            Pos first = posAt(0, 0);
+            Pos last = posAt(width, height);
+            for (int x = first.x(); x <= last.x(); ++x) {
+                for (int y = first.y(); y <= last.y(); ++y) {
+                    drawCell(new Pos(x, y));
+                }
+            }
+        }
+
+        /**
+         * Redraws the cells affected by the transition between the two given game states.
+         *
+         * @param oldState the previously displayed game state
+         * @param newState the game state to display
+         */
+        private void stateChanged(GameState oldState, GameState newState) {
+            Board oldBoard = oldState.board();
+            Board newBoard = newState.board();
+            Set<Pos> dirty = new HashSet<>();
+
+            if (oldBoard.lastPlacedTile() != newBoard.lastPlacedTile()) {
+                Pos first = posAt(0, 0);
+                Pos last = posAt(canvas.getWidth(), canvas.getHeight());
+                for (int x = first.x(); x <= last.x(); ++x) {
+                    for (int y = first.y(); y <= last.y(); ++y) {
+                        Pos pos = new Pos(x, y);
+                        if (oldBoard.tileAt(pos) != newBoard.tileAt(pos)) dirty.add(pos);
+                    }
+                }
+            }
+
+            Set<Pos> oldInsertions = oldBoard.insertionPositions();
+            Set<Pos> newInsertions = newBoard.insertionPositions();
+            if (oldState.nextAction() != newState.nextAction()
+                    || oldState.currentPlayer() != newState.currentPlayer()
+                    || !oldInsertions.equals(newInsertions)) {
+                dirty.addAll(oldInsertions);
+                dirty.addAll(newInsertions);
+            }
+
+            if (hoveredPos != null && oldState.tileToPlace() != newState.tileToPlace()) {
+                dirty.add(hoveredPos);
+            }
+
+            if (!oldBoard.cancelledAnimals().equals(newBoard.cancelledAnimals())) {
+                AnimalSet oldCancelled = oldBoard.cancelledAnimals();
+                AnimalSet newCancelled = newBoard.cancelledAnimals();
+                for (Animal animal : newCancelled.difference(oldCancelled).withAll(oldCancelled.difference(newCancelled))) {
+                    addTile(dirty, newBoard, animal.tileId());
+                }
+            }
+
+            for (Pos pos : dirty) drawCell(pos);
+        }
+
+        /**
+         * Redraws the tiles of the occupants whose visibility changed.
+         *
+         * @param oldSet the previously visible occupants
+         * @param newSet the occupants to show
+         */
+        private void occupantsChanged(Set<Occupant> oldSet, Set<Occupant> newSet) {
+            Board board = state.getValue().board();
+            Set<Pos> dirty = new HashSet<>();
+            for (Occupant occ : symmetricDifference(oldSet, newSet)) {
+                addTile(dirty, board, Zone.tileId(occ.zoneId()));
+            }
+            for (Pos pos : dirty) drawCell(pos);
+        }
+
+        /**
+         * Redraws the placed tiles whose veil changed with the highlighted tiles.
+         *
+         * @param oldSet the previously highlighted tiles
+         * @param newSet the tiles to highlight
+         */
+        private void highlightChanged(IntSet oldSet, IntSet newSet) {
+            Board board = state.getValue().board();
+            Pos first = posAt(0, 0);
+            Pos last = posAt(canvas.getWidth(), canvas.getHeight());
+            for (int x = first.x(); x <= last.x(); ++x) {
+                for (int y = first.y(); y <= last.y(); ++y) {
+                    PlacedTile tile = board.tileAt(new Pos(x, y));
+                    if (tile != null && BoardLayout.isVeiled(tile.id(), oldSet) != BoardLayout.isVeiled(tile.id(), newSet)) {
+                        drawCell(tile.pos());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Changes the hovered position, redrawing the previously and newly hovered cells.
+         *
+         * @param pos the newly hovered position, or null if the mouse left the board
+         */
+        private void setHoveredPos(Pos pos) {
+            if (Objects.equals(pos, hoveredPos)) return;
+            Pos previous = hoveredPos;
+            hoveredPos = pos;
+            if (previous != null) drawCell(previous);
+            if (pos != null) drawCell(pos);
+        }
+
+        /**
+         * Handles a mouse press on the canvas: selects the occupant under the mouse if there is one,
+         * places the tile to place, or rotates it.
+         *
+         * @param event the mouse event
+         */
+        private void mousePressed(MouseEvent event) {
+            Pos pos = posAt(event.getX(), event.getY());
+            if (event.getButton() == MouseButton.SECONDARY) {
+                rotateTile.accept(event.isAltDown() ? Rotation.LEFT : Rotation.RIGHT);
+                return;
+            }
+            if (event.getButton() != MouseButton.PRIMARY) return;
+
+            Occupant occ = occupantAt(pos, event.getX(), event.getY());
+            if (occ != null) {
+                selectOcc.accept(occ);
+                return;
+            }
+
+            BoardLayout.tryPlaceTile(state.getValue(), pos, rot, placeTile);
+        }
+
+        /**
+         * Returns the visible occupant drawn under the given point of the canvas, if any.
+         *
+         * @param pos the position of the cell containing the point
+         * @param x   the x coordinate of the point on the canvas
+         * @param y   the y coordinate of the point on the canvas
+         * @return the occupant under the point, or null if there is none
+         */
+        private Occupant occupantAt(Pos pos, double x, double y) {
+            PlacedTile tile = state.getValue().board().tileAt(pos);
+            if (tile == null) return null;
+
+            // Brings the point back into the frame of the tile before it was rotated.
+            double half = CELL_SIZE / 2.0;
+            double angle = Math.toRadians(-tile.rotation().degreesCW());
+            double dx = x - (cellX(pos) + half);
+            double dy = y - (cellY(pos) + half);
+            double localX = dx * Math.cos(angle) - dy * Math.sin(angle) + half;
+            double localY = dx * Math.sin(angle) + dy * Math.cos(angle) + half;
+
+            Set<Occupant> visible = visibleOccupants.getValue();
+            for (Occupant occ : tile.potentialOccupants()) {
+                if (!visible.contains(occ)) continue;
+                Point2D translation = BoardLayout.occupantOffset(occ);
+                if (Math.abs(localX - translation.getX()) <= ICON_RADIUS
+                        && Math.abs(localY - translation.getY()) <= ICON_RADIUS) {
+                    return occ;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Draws the cell at the given position, if it is inside the viewport.
+         *
+         * @param pos the position of the cell
+         */
+        private void drawCell(Pos pos) {
+            double x = cellX(pos);
+            double y = cellY(pos);
+            if (x + CELL_SIZE < 0 || y + CELL_SIZE < 0 || x > canvas.getWidth() || y > canvas.getHeight()) return;
+
+            GameState gameState = state.getValue();
+            PlacedTile tile = gameState.board().tileAt(pos);
+            BoardLayout.CellLook look = BoardLayout.cellLook(
+                    gameState, pos, pos.equals(hoveredPos), rot.getValue(), highlightedTiles.getValue());
+            Image image = look.tileId() == BoardLayout.NO_TILE
+                    ? null
+                    : ImageLoader.normalImageForTile(look.tileId(), loaded -> drawCell(pos));
+            Rotation rotation = look.rotation();
+            Color veil = look.veil();
+
+            context.save();
+            context.beginPath();
+            context.rect(x, y, CELL_SIZE, CELL_SIZE);
+            context.clip();
+            context.clearRect(x, y, CELL_SIZE, CELL_SIZE);
+            context.translate(x + CELL_SIZE / 2.0, y + CELL_SIZE / 2.0);
+            context.rotate(rotation.degreesCW());
+            context.translate(-CELL_SIZE / 2.0, -CELL_SIZE / 2.0);
+
+            if (image != null) {
+                context.drawImage(image, 0, 0, CELL_SIZE, CELL_SIZE);
+            } else {
+                context.setFill(Color.gray(0.98));
+                context.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+            }
+            if (tile != null) drawOccupantsAndMarkers(tile, gameState.board());
+            if (veil != null) {
+                context.setGlobalAlpha(0.5);
+                context.setFill(veil);
+                context.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+            }
+            context.restore();
+        }
+
+        /**
+         * Draws the visible occupants and the cancelled animal markers of the given tile, in the frame of
+         * the rotated tile.
+         *
+         * @param tile  the tile
+         * @param board the board the tile is placed on
+         */
+        private void drawOccupantsAndMarkers(PlacedTile tile, Board board) {
+            double degrees = tile.rotation().degreesCW();
+            Set<Occupant> visible = visibleOccupants.getValue();
+            for (Occupant occ : tile.potentialOccupants()) {
+                if (!visible.contains(occ)) continue;
+                Point2D translation = BoardLayout.occupantOffset(occ);
+                context.save();
+                context.translate(translation.getX(), translation.getY());
+                context.rotate(-degrees);
+                context.beginPath();
+                context.appendSVGPath(Icon.svgPathFor(occ.kind()));
+                context.setFill(ColorMap.fillColor(tile.placer()));
+                context.fill();
+                context.setStroke(ColorMap.strokeColor(tile.placer()));
+                context.stroke();
+                context.restore();
+            }
+
+            double half = ImageLoader.MARKER_FIT_SIZE / 2.0;
+            for (Animal animal : BoardLayout.animalsInTile(tile)) {
+                if (!board.cancelledAnimals().contains(animal)) continue;
+                Point2D translation = BoardLayout.markerOffset(animal);
+                context.save();
+                context.translate(translation.getX() + half, translation.getY() + half);
+                context.rotate(degrees);
+                context.drawImage(markerImage, -half, -half, 2 * half, 2 * half);
+                context.restore();
+            }
+        }
+
+        /**
+         * Returns the position of the cell under the given point of the canvas, clamped to the board.
+         *
+         * @param x the x coordinate of the point on the canvas
+         * @param y the y coordinate of the point on the canvas
+         * @return the position under the point
+         */
+        private Pos posAt(double x, double y) {
+            int posX = (int) Math.floor((x + originX) / BoardLayout.CELL_PITCH) - reach;
+            int posY = (int) Math.floor((y + originY) / BoardLayout.CELL_PITCH) - reach;
+            return new Pos(Math.clamp(posX, -reach, reach), Math.clamp(posY, -reach, reach));
+        }
+
+        /**
+         * Returns the x coordinate of the left of the given cell on the canvas.
+         *
+         * @param pos the position of the cell
+         * @return the x coordinate of the cell
+         */
+        private double cellX(Pos pos) {
+            return (pos.x() + reach) * BoardLayout.CELL_PITCH - originX;
+        }
+
+        /**
+         * Returns the y coordinate of the top of the given cell on the canvas.
+         *
+         * @param pos the position of the cell
+         * @return the y coordinate of the cell
+         */
+        private double cellY(Pos pos) {
+            return (pos.y() + reach) * BoardLayout.CELL_PITCH - originY;
+        }
+
+        /**
+         * Adds the position of the placed tile with the given id to the given set.
+         *
+         * @param dirty  the set of positions to redraw
+         * @param board  the board
+         * @param tileId the id of the tile
+         */
+        private void addTile(Set<Pos> dirty, Board board, int tileId) {
+            dirty.add(board.tileWithId(tileId).pos());
+        }
+
+        /**
+         * Returns the elements that are in exactly one of the two given sets.
+         *
+         * @param first  the first set
+         * @param second the second set
+         * @param <E>    the type of the elements
+         * @return the symmetric difference of the two sets
+         */
+        private static <E> Set<E> symmetricDifference(Set<E> first, Set<E> second) {
+            Set<E> difference = new HashSet<>(first);
+            difference.addAll(second);
+            Set<E> common = new HashSet<>(first);
+            common.retainAll(second);
+            difference.removeAll(common);
+            return difference;
+        }
+    }
+}
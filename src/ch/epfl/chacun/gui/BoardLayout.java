@@ -0,0 +1,683 @@
+package ch.epfl.chacun.gui;
+
+import ch.epfl.chacun.*;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * This class holds what the node based and the canvas based boards share: the layout of the cells, the offsets
+ * of the occupants and cancelled animal markers within a tile, and how a cell looks and reacts to a click.
+ * It cannot be instantiated.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+final class BoardLayout {
+    /**
+     * The gap between two cells of the board, in pixels.
+     */
+    static final int CELL_GAP = 2;
+    /**
+     * The distance between the tops, or the lefts, of two consecutive cells of the board, in pixels.
+     */
+    static final int CELL_PITCH = ImageLoader.NORMAL_TILE_FIT_SIZE + CELL_GAP;
+    /**
+     * The tile id of a cell showing no tile.
+     */
+    static final int NO_TILE = -1;
+
+    // Offsets of the pawns and huts by zone id, and of the markers by animal id, within an unrotated tile
+    private static final Map<Integer, Point2D> PAWN_OFFSETS = Map.ofEntries(
+            offset(0, 42, 14),
+            offset(1, 74, 16),
+            offset(2, 111, 54),
+            offset(3, 64, 110),
+            offset(4, 16, 41),
+            offset(10, 107, 16),
+            offset(11, 112, 64),
+            offset(12, 113, 88),
+            offset(13, 65, 107),
+            offset(14, 24, 77),
+            offset(15, 15, 25),
+            offset(20, 107, 17),
+            offset(21, 112, 58),
+            offset(22, 108, 90),
+            offset(23, 16, 59),
+            offset(30, 15, 14),
+            offset(31, 76, 19),
+            offset(32, 110, 16),
+            offset(33, 111, 64),
+            offset(34, 109, 110),
+            offset(35, 17, 53),
+            offset(40, 14, 13),
+            offset(41, 48, 14),
+            offset(42, 91, 14),
+            offset(43, 107, 52),
+            offset(44, 87, 110),
+            offset(45, 63, 114),
+            offset(50, 23, 20),
+            offset(51, 111, 61),
+            offset(52, 108, 110),
+            offset(53, 58, 112),
+            offset(54, 19, 108),
+            offset(55, 20, 73),
+            offset(60, 16, 15),
+            offset(61, 81, 14),
+            offset(62, 112, 16),
+            offset(63, 111, 62),
+            offset(64, 62, 109),
+            offset(65, 15, 57),
+            offset(70, 16, 15),
+            offset(71, 63, 14),
+            offset(72, 110, 15),
+            offset(73, 114, 59),
+            offset(74, 102, 107),
+            offset(75, 61, 108),
+            offset(80, 14, 14),
+            offset(81, 71, 25),
+            offset(82, 113, 15),
+            offset(83, 112, 63),
+            offset(84, 108, 113),
+            offset(85, 17, 88),
+            offset(90, 18, 98),
+            offset(91, 49, 17),
+            offset(92, 107, 18),
+            offset(93, 112, 56),
+            offset(94, 109, 110),
+            offset(95, 64, 113),
+            offset(100, 17, 16),
+            offset(101, 58, 14),
+            offset(102, 104, 23),
+            offset(103, 109, 63),
+            offset(104, 17, 109),
+            offset(105, 18, 65),
+            offset(110, 18, 16),
+            offset(111, 80, 13),
+            offset(112, 114, 23),
+            offset(113, 113, 61),
+            offset(114, 109, 87),
+            offset(115, 60, 107),
+            offset(116, 18, 87),
+            offset(117, 15, 57),
+            offset(120, 15, 34),
+            offset(121, 47, 13),
+            offset(122, 111, 113),
+            offset(123, 66, 111),
+            offset(124, 42, 85),
+            offset(125, 18, 61),
+            offset(130, 35, 32),
+            offset(131, 67, 15),
+            offset(132, 109, 17),
+            offset(133, 113, 65),
+            offset(134, 110, 112),
+            offset(135, 80, 106),
+            offset(136, 48, 104),
+            offset(137, 15, 57),
+            offset(140, 38, 14),
+            offset(141, 71, 20),
+            offset(142, 87, 57),
+            offset(143, 113, 53),
+            offset(144, 72, 114),
+            offset(145, 17, 55),
+            offset(150, 16, 71),
+            offset(151, 108, 55),
+            offset(152, 104, 110),
+            offset(160, 19, 19),
+            offset(161, 83, 42),
+            offset(162, 112, 109),
+            offset(170, 20, 21),
+            offset(171, 93, 56),
+            offset(172, 87, 15),
+            offset(173, 76, 105),
+            offset(174, 16, 114),
+            offset(180, 67, 17),
+            offset(181, 110, 53),
+            offset(182, 110, 98),
+            offset(190, 21, 21),
+            offset(191, 85, 56),
+            offset(192, 98, 110),
+            offset(200, 19, 16),
+            offset(201, 78, 29),
+            offset(202, 111, 16),
+            offset(203, 112, 94),
+            offset(204, 66, 103),
+            offset(210, 100, 17),
+            offset(211, 23, 80),
+            offset(212, 95, 104),
+            offset(220, 17, 18),
+            offset(221, 26, 67),
+            offset(222, 94, 14),
+            offset(223, 80, 106),
+            offset(230, 41, 17),
+            offset(231, 102, 70),
+            offset(232, 113, 44),
+            offset(233, 70, 111),
+            offset(240, 17, 17),
+            offset(241, 62, 14),
+            offset(242, 112, 35),
+            offset(243, 63, 109),
+            offset(244, 15, 92),
+            offset(245, 15, 63),
+            offset(250, 20, 37),
+            offset(251, 104, 70),
+            offset(252, 84, 23),
+            offset(253, 41, 101),
+            offset(260, 33, 13),
+            offset(261, 69, 31),
+            offset(262, 111, 15),
+            offset(263, 64, 109),
+            offset(264, 21, 59),
+            offset(270, 35, 15),
+            offset(271, 103, 47),
+            offset(272, 99, 80),
+            offset(273, 17, 59),
+            offset(280, 15, 13),
+            offset(281, 88, 17),
+            offset(282, 112, 57),
+            offset(283, 72, 106),
+            offset(290, 59, 19),
+            offset(291, 112, 34),
+            offset(292, 70, 111),
+            offset(293, 114, 114),
+            offset(300, 72, 16),
+            offset(301, 23, 100),
+            offset(310, 39, 29),
+            offset(311, 110, 81),
+            offset(320, 86, 22),
+            offset(321, 49, 106),
+            offset(330, 86, 24),
+            offset(331, 61, 102),
+            offset(340, 53, 14),
+            offset(341, 110, 59),
+            offset(342, 32, 114),
+            offset(343, 22, 58),
+            offset(350, 68, 18),
+            offset(351, 105, 66),
+            offset(360, 29, 35),
+            offset(361, 34, 106),
+            offset(370, 58, 24),
+            offset(371, 45, 103),
+            offset(380, 67, 15),
+            offset(381, 106, 82),
+            offset(382, 60, 113),
+            offset(390, 70, 14),
+            offset(391, 22, 78),
+            offset(392, 63, 107),
+            offset(400, 51, 14),
+            offset(401, 30, 62),
+            offset(402, 61, 108),
+            offset(410, 61, 68),
+            offset(411, 112, 56),
+            offset(412, 15, 29),
+            offset(420, 57, 21),
+            offset(421, 76, 107),
+            offset(422, 13, 44),
+            offset(430, 107, 20),
+            offset(431, 61, 113),
+            offset(432, 21, 68),
+            offset(440, 20, 17),
+            offset(441, 114, 45),
+            offset(442, 42, 105),
+            offset(450, 32, 15),
+            offset(451, 64, 93),
+            offset(452, 91, 13),
+            offset(453, 111, 50),
+            offset(454, 100, 114),
+            offset(455, 37, 114),
+            offset(456, 26, 72),
+            offset(460, 22, 16),
+            offset(461, 52, 41),
+            offset(462, 35, 87),
+            offset(463, 62, 113),
+            offset(470, 18, 15),
+            offset(471, 104, 69),
+            offset(472, 78, 87),
+            offset(473, 64, 114),
+            offset(480, 75, 30),
+            offset(481, 103, 75),
+            offset(482, 20, 106),
+            offset(490, 70, 26),
+            offset(491, 20, 75),
+            offset(492, 23, 109),
+            offset(500, 25, 66),
+            offset(501, 86, 27),
+            offset(502, 93, 108),
+            offset(510, 54, 53),
+            offset(511, 94, 45),
+            offset(512, 106, 107),
+            offset(520, 108, 15),
+            offset(521, 36, 49),
+            offset(522, 23, 92),
+            offset(530, 18, 18),
+            offset(531, 86, 34),
+            offset(532, 30, 109),
+            offset(540, 18, 60),
+            offset(541, 113, 31),
+            offset(542, 61, 96),
+            offset(543, 99, 111),
+            offset(544, 36, 114),
+            offset(550, 109, 16),
+            offset(551, 54, 112),
+            offset(552, 84, 91),
+            offset(553, 55, 76),
+            offset(554, 22, 35),
+            offset(560, 79, 18),
+            offset(561, 70, 108),
+            offset(562, 15, 98),
+            offset(563, 13, 66),
+            offset(570, 26, 13),
+            offset(571, 64, 14),
+            offset(572, 97, 14),
+            offset(573, 110, 61),
+            offset(574, 64, 109),
+            offset(580, 111, 34),
+            offset(581, 81, 100),
+            offset(582, 55, 111),
+            offset(583, 16, 114),
+            offset(590, 16, 55),
+            offset(591, 52, 16),
+            offset(592, 113, 100),
+            offset(593, 53, 112),
+            offset(600, 71, 14),
+            offset(601, 96, 58),
+            offset(602, 51, 106),
+            offset(610, 30, 96),
+            offset(620, 87, 65),
+            offset(630, 19, 17),
+            offset(631, 70, 100),
+            offset(640, 110, 16),
+            offset(641, 57, 101),
+            offset(642, 18, 60),
+            offset(650, 32, 30),
+            offset(651, 88, 107),
+            offset(660, 55, 22),
+            offset(661, 110, 111),
+            offset(662, 81, 109),
+            offset(663, 45, 109),
+            offset(664, 15, 48),
+            offset(670, 56, 20),
+            offset(671, 110, 62),
+            offset(672, 40, 102),
+            offset(680, 34, 21),
+            offset(681, 110, 105),
+            offset(682, 79, 87),
+            offset(683, 16, 112),
+            offset(690, 20, 18),
+            offset(691, 34, 103),
+            offset(692, 110, 57),
+            offset(693, 104, 103),
+            offset(700, 32, 14),
+            offset(701, 60, 14),
+            offset(702, 99, 21),
+            offset(703, 106, 56),
+            offset(704, 114, 92),
+            offset(705, 19, 108),
+            offset(710, 23, 14),
+            offset(711, 57, 14),
+            offset(712, 100, 13),
+            offset(713, 107, 67),
+            offset(714, 89, 113),
+            offset(715, 58, 113),
+            offset(716, 22, 112),
+            offset(720, 41, 57),
+            offset(721, 55, 104),
+            offset(722, 101, 15),
+            offset(723, 108, 100),
+            offset(724, 14, 75),
+            offset(730, 48, 70),
+            offset(731, 64, 21),
+            offset(732, 97, 70),
+            offset(733, 112, 35),
+            offset(734, 14, 70),
+            offset(740, 35, 18),
+            offset(741, 67, 36),
+            offset(742, 88, 98),
+            offset(743, 112, 37),
+            offset(744, 14, 101),
+            offset(750, 24, 23),
+            offset(751, 105, 105),
+            offset(760, 107, 59),
+            offset(761, 23, 106),
+            offset(770, 21, 21),
+            offset(771, 68, 107),
+            offset(780, 57, 24),
+            offset(781, 53, 90),
+            offset(790, 78, 14),
+            offset(791, 94, 61),
+            offset(792, 100, 114),
+            offset(793, 67, 114),
+            offset(794, 36, 113),
+            offset(800, 16, 14),
+            offset(801, 76, 17),
+            offset(802, 110, 16),
+            offset(803, 17, 54),
+            offset(810, 16, 53),
+            offset(811, 70, 106),
+            offset(820, 47, 13),
+            offset(821, 78, 17),
+            offset(822, 36, 114),
+            offset(823, 23, 42),
+            offset(830, 36, 17),
+            offset(831, 64, 13),
+            offset(832, 112, 13),
+            offset(833, 113, 61),
+            offset(834, 64, 114),
+            offset(835, 15, 112),
+            offset(836, 15, 63),
+            offset(840, 22, 30),
+            offset(841, 55, 27),
+            offset(842, 107, 43),
+            offset(843, 49, 106),
+            offset(850, 110, 54),
+            offset(860, 19, 15),
+            offset(861, 61, 18),
+            offset(862, 111, 14),
+            offset(863, 113, 64),
+            offset(864, 114, 92),
+            offset(865, 57, 113),
+            offset(870, 17, 16),
+            offset(871, 46, 109),
+            offset(872, 19, 85),
+            offset(873, 17, 58),
+            offset(880, 20, 16),
+            offset(881, 106, 86),
+            offset(882, 114, 14),
+            offset(883, 39, 108),
+            offset(890, 25, 17),
+            offset(891, 68, 15),
+            offset(892, 97, 16),
+            offset(893, 103, 104),
+            offset(894, 13, 99),
+            offset(895, 15, 66),
+            offset(900, 56, 20),
+            offset(901, 62, 105),
+            offset(910, 19, 19),
+            offset(911, 58, 15),
+            offset(912, 111, 14),
+            offset(913, 110, 63),
+            offset(914, 101, 110),
+            offset(915, 15, 76),
+            offset(920, 97, 21),
+            offset(921, 23, 49),
+            offset(930, 17, 16),
+            offset(931, 59, 15),
+            offset(932, 106, 21),
+            offset(933, 113, 62),
+            offset(934, 15, 114),
+            offset(935, 16, 66),
+            offset(940, 31, 15),
+            offset(941, 21, 108));
+
+    private static final Map<Integer, Point2D> HUT_OFFSETS = Map.ofEntries(
+            offset(8, 88, 81),
+            offset(18, 69, 46),
+            offset(28, 48, 36),
+            offset(38, 52, 94),
+            offset(48, 32, 63),
+            offset(58, 84, 76),
+            offset(68, 83, 42),
+            offset(78, 91, 42),
+            offset(88, 56, 90),
+            offset(98, 43, 63),
+            offset(108, 56, 83),
+            offset(118, 84, 45),
+            offset(128, 78, 41),
+            offset(138, 80, 40),
+            offset(141, 57, 44),
+            offset(151, 73, 96),
+            offset(161, 34, 64),
+            offset(171, 60, 21),
+            offset(173, 28, 58),
+            offset(181, 70, 104),
+            offset(191, 47, 85),
+            offset(201, 98, 46),
+            offset(211, 99, 48),
+            offset(221, 53, 27),
+            offset(231, 81, 15),
+            offset(248, 76, 30),
+            offset(251, 52, 21),
+            offset(261, 100, 75),
+            offset(271, 70, 106),
+            offset(281, 71, 44),
+            offset(292, 98, 64),
+            offset(451, 77, 56),
+            offset(461, 98, 72),
+            offset(471, 26, 41),
+            offset(481, 27, 55),
+            offset(491, 107, 55),
+            offset(501, 60, 94),
+            offset(511, 23, 71),
+            offset(521, 77, 91),
+            offset(531, 30, 76),
+            offset(542, 85, 39),
+            offset(553, 15, 68),
+            offset(568, 39, 54),
+            offset(578, 80, 68),
+            offset(588, 75, 60),
+            offset(598, 91, 52),
+            offset(662, 71, 79),
+            offset(682, 43, 82),
+            offset(692, 63, 104),
+            offset(701, 47, 41),
+            offset(703, 89, 82),
+            offset(711, 76, 17),
+            offset(718, 30, 85),
+            offset(721, 82, 44),
+            offset(731, 53, 105),
+            offset(741, 58, 104),
+            offset(793, 54, 94),
+            offset(808, 90, 48),
+            offset(828, 94, 56),
+            offset(834, 64, 64),
+            offset(836, 64, 64),
+            offset(838, 71, 39),
+            offset(839, 54, 91),
+            offset(841, 107, 73),
+            offset(868, 86, 73),
+            offset(878, 75, 32),
+            offset(881, 92, 36),
+            offset(898, 71, 38),
+            offset(918, 58, 45),
+            offset(938, 72, 86));
+
+    private static final Map<Integer, Point2D> MARKER_OFFSETS = Map.ofEntries(
+            offset(420, 52, 3),
+            offset(500, 79, -1),
+            offset(640, 0, 79),
+            offset(700, -1, 78),
+            offset(800, 7, 17),
+            offset(820, 77, 0),
+            offset(1040, 79, 79),
+            offset(1240, 5, 74),
+            offset(1300, 0, 0),
+            offset(1360, 0, 77),
+            offset(1420, 52, 50),
+            offset(1500, 5, 71),
+            offset(1620, 61, 74),
+            offset(1720, 76, 2),
+            offset(1740, 3, 74),
+            offset(1800, 5, 1),
+            offset(1900, 70, 4),
+            offset(2000, 4, 32),
+            offset(2120, 42, 49),
+            offset(2220, 71, 16),
+            offset(2300, 35, 18),
+            offset(2420, 75, 43),
+            offset(2520, 79, -1),
+            offset(2720, 79, 79),
+            offset(3000, 75, 1),
+            offset(3110, 74, 79),
+            offset(3210, 67, 74),
+            offset(3420, 33, 77),
+            offset(3500, 10, 60),
+            offset(3600, 59, 13),
+            offset(3710, 75, 75),
+            offset(3800, 19, 0),
+            offset(4100, 52, 75),
+            offset(4420, 56, 76),
+            offset(4540, 71, 79),
+            offset(4720, 14, 53),
+            offset(4820, 78, 78),
+            offset(4900, 14, 18),
+            offset(4920, 79, 79),
+            offset(5000, 24, 18),
+            offset(5100, 18, 2),
+            offset(5200, 59, 7),
+            offset(5320, 58, 73),
+            offset(5430, 66, 48),
+            offset(5600, -1, -1),
+            offset(5920, 78, 0),
+            offset(6020, 61, 75),
+            offset(6100, 37, 31),
+            offset(6200, 8, 5),
+            offset(6510, 25, 76),
+            offset(6720, 1, 43),
+            offset(7200, 13, 11),
+            offset(7320, 68, 79),
+            offset(7600, 75, 0),
+            offset(7810, 2, 74),
+            offset(8020, 72, 76),
+            offset(8021, 1, 77),
+            offset(8100, 18, 1),
+            offset(8101, 3, 56),
+            offset(8220, 79, 79),
+            offset(8300, -1, 0),
+            offset(8301, 77, 77),
+            offset(8420, 72, 1),
+            offset(8600, 0, 69),
+            offset(8640, 78, 78),
+            offset(9000, 7, 22),
+            offset(9001, 76, 1));
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private BoardLayout() {
+    }
+
+    /**
+     * Returns the offset of the given occupant within its unrotated tile.
+     *
+     * @param occ the occupant
+     * @return the offset of the occupant, in pixels
+     * @throws IllegalArgumentException if the occupant has no offset
+     */
+    static Point2D occupantOffset(Occupant occ) {
+        Point2D offset = (occ.kind() == Occupant.Kind.PAWN ? PAWN_OFFSETS : HUT_OFFSETS).get(occ.zoneId());
+        Preconditions.checkArgument(offset != null);
+        return offset;
+    }
+
+    /**
+     * Returns the offset of the marker of the given animal within its unrotated tile.
+     *
+     * @param animal the animal
+     * @return the offset of the marker, in pixels
+     * @throws IllegalArgumentException if the animal has no marker offset
+     */
+    static Point2D markerOffset(Animal animal) {
+        Point2D offset = MARKER_OFFSETS.get(animal.id());
+        Preconditions.checkArgument(offset != null);
+        return offset;
+    }
+
+    /**
+     * Returns a list of animals in the given tile.
+     *
+     * @param tile The tile to check.
+     * @return A list of animals in the given tile.
+     */
+    static List<Animal> animalsInTile(PlacedTile tile) {
+        List<Animal> result = new ArrayList<>();
+        for (Zone.Meadow meadow : tile.meadowZones()) result.addAll(meadow.animals());
+        return result;
+    }
+
+    /**
+     * Returns whether the placed tile with the given id is veiled by the given highlighted tiles.
+     *
+     * @param tileId           the id of the tile
+     * @param highlightedTiles the highlighted tiles
+     * @return true if the tile is veiled, false otherwise
+     */
+    static boolean isVeiled(int tileId, IntSet highlightedTiles) {
+        return !highlightedTiles.isEmpty() && !highlightedTiles.contains(tileId);
+    }
+
+    /**
+     * Returns how the cell at the given position looks: the tile it shows, placed or about to be, its
+     * rotation and its veil.
+     *
+     * @param gameState        the current game state
+     * @param pos              the position of the cell
+     * @param hovered          whether the mouse is over the cell
+     * @param rotation         the current rotation of the tile to place
+     * @param highlightedTiles the highlighted tiles
+     * @return the look of the cell
+     */
+    static CellLook cellLook(GameState gameState, Pos pos, boolean hovered, Rotation rotation,
+                             IntSet highlightedTiles) {
+        Board board = gameState.board();
+        PlacedTile tile = board.tileAt(pos);
+        if (tile != null) {
+            Color veil = isVeiled(tile.id(), highlightedTiles) ? Color.BLACK : null;
+            return new CellLook(tile.id(), tile.rotation(), veil);
+        }
+        if (gameState.nextAction() != GameState.Action.PLACE_TILE || !board.insertionPositions().contains(pos)) {
+            return new CellLook(NO_TILE, Rotation.NONE, null);
+        }
+        if (!hovered) return new CellLook(NO_TILE, Rotation.NONE, ColorMap.fillColor(gameState.currentPlayer()));
+        PlacedTile placed = new PlacedTile(gameState.tileToPlace(), gameState.currentPlayer(), rotation, pos);
+        return new CellLook(placed.id(), rotation, board.canAddTile(placed) ? null : Color.WHITE);
+    }
+
+    /**
+     * Places the tile to place at the given position with the given rotation, if the player is allowed to,
+     * and then resets the rotation.
+     *
+     * @param gameState the current game state
+     * @param pos       the clicked position
+     * @param rot       the current rotation of the tile to place
+     * @param placeTile the consumer for placing the tile
+     */
+    static void tryPlaceTile(GameState gameState, Pos pos, SimpleObjectProperty<Rotation> rot,
+                             Consumer<Pos> placeTile) {
+        if (gameState.nextAction() != GameState.Action.PLACE_TILE
+                || !gameState.board().insertionPositions().contains(pos)) {
+            return;
+        }
+        PlacedTile tile = new PlacedTile(gameState.tileToPlace(), gameState.currentPlayer(), rot.getValue(), pos);
+        if (gameState.board().canAddTile(tile)) {
+            placeTile.accept(pos);
+            rot.set(Rotation.NONE);
+        }
+    }
+
+    /**
+     * Returns an entry of an offset table.
+     *
+     * @param id the zone or animal id
+     * @param x  the x offset, in pixels
+     * @param y  the y offset, in pixels
+     * @return the entry
+     */
+    private static Map.Entry<Integer, Point2D> offset(int id, int x, int y) {
+        return Map.entry(id, new Point2D(x, y));
+    }
+
+    /**
+     * How a cell of the board looks.
+     *
+     * @param tileId   the id of the tile shown, or {@link #NO_TILE} if the cell shows none
+     * @param rotation the rotation of the tile shown
+     * @param veil     the color of the veil over the cell, or null if it is not veiled
+     * @author Bjork Pedersen (376143)
+     */
+    record CellLook(int tileId, Rotation rotation, Color veil) {
+    }
+}
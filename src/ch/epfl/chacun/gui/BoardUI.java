@@ -1,23 +1,28 @@
 package ch.epfl.chacun.gui;
 
 import ch.epfl.chacun.*;
-import javafx.beans.binding.Bindings;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.effect.Blend;
 import javafx.scene.effect.BlendMode;
 import javafx.scene.effect.ColorInput;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.GridPane;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
+import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -29,6 +34,14 @@ import java.util.function.Consumer;
  * @author Bjork Pedersen (376143)
  */
 public class BoardUI {
+    private static final int VIEWPORT_MARGIN = 1;
+    private static final double MIN_ZOOM = 0.1;
+    private static final double MAX_ZOOM = 2;
+    // Below this zoom, occupants and markers are too small to be useful and are not shown
+    private static final double DETAIL_MIN_ZOOM = 0.5;
+    // Zoom factor applied for each pixel of mouse wheel scrolling
+    private static final double ZOOM_PER_SCROLL_PIXEL = 1.005;
+
     private BoardUI() {
     }
 
@@ -49,408 +62,494 @@ public class BoardUI {
                               ObservableValue<GameState> state,
                               SimpleObjectProperty<Rotation> rot,
                               ObservableValue<Set<Occupant>> visibleOccupants,
-                              ObservableValue<Set<Integer>> highlightedTiles,
+                              ObservableValue<IntSet> highlightedTiles,
                               Consumer<Rotation> rotateTile,
                               Consumer<Pos> placeTile,
                               Consumer<Occupant> selectOcc) {
 
-        GridPane boardGrid = new GridPane();
-        boardGrid.setId("board-grid");
-
-//        ImageView[] imageCache = new ImageView[94];
-        Map<Integer, ImageView> imageCache = new HashMap<>();
-
-        for (int x = -reach; x <= reach; ++x) {
-            for (int y = -reach; y <= reach; ++y) {
-
-                Group cell = new Group();
-                ImageView cellImage = new ImageView();
-                cellImage.setFitWidth(ImageLoader.NORMAL_TILE_FIT_SIZE);
-                cellImage.setFitHeight(ImageLoader.NORMAL_TILE_FIT_SIZE);
-                cell.getChildren().add(cellImage);
-
-                WritableImage emptyTile = new WritableImage(
-                        ImageLoader.NORMAL_TILE_FIT_SIZE,
-                        ImageLoader.NORMAL_TILE_FIT_SIZE);
-                emptyTile.getPixelWriter().setColor(0, 0, Color.gray(0.98));
-                ImageView emptyTileImage = new ImageView(emptyTile);
-
-                int finalY = y;
-                int finalX = x;
-                Pos tilePos = new Pos(finalX, finalY);
-
-                //Create all the cell properties that handle the mouse clicks/hovering...
-                Map<String, BooleanProperty> cellProperties = createCellProperties(cell, rot, rotateTile);
-                BooleanProperty isHovered = cellProperties.get("isHovered");
-                BooleanProperty isLeftMousePressed = cellProperties.get("isLeftMousePressed");
-                BooleanProperty isRightMousePressed = cellProperties.get("isRightMousePressed");
-                BooleanProperty isOptionPressed = cellProperties.get("isOptionPressed");
-
-
-                // Manages the background image, rotation and veil color of each cell.
-                ObservableValue<Tile> tileToPlace = state.map(GameState::tileToPlace);
-                tileToPlace.addListener((o, oldVal, newVal) -> {
-                    CellData cellData = new CellData(emptyTileImage, rot.getValue(), null, imageCache);
-                    ObservableValue<CellData> obsCellData = Bindings.createObjectBinding(() -> {
-                        return cellData.bindCellData(
-                                tilePos,
-                                isLeftMousePressed,
-                                isRightMousePressed,
-                                isOptionPressed,
-                                isHovered,
-                                highlightedTiles,
-                                rot,
-                                state,
-                                placeTile);
-                    }, isLeftMousePressed, isRightMousePressed, isOptionPressed, isHovered, highlightedTiles, state);
-
-                    cellImage.imageProperty().bind(obsCellData.map(c -> c.backgroundImage.getImage()));
-                    cell.rotateProperty().bind(obsCellData.map(c -> c.rotation.degreesCW()));
-                    cell.effectProperty().bind(obsCellData.map(c -> {
-                        Blend blend = new Blend(BlendMode.SRC_OVER, null, c.veilColor);
-                        blend.setOpacity(0.5);
-                        return blend;
-                    }));
-
-                    // Manages the canceled animal markers and the occupant Images of
-                    // each cell if the cell contains a tile.
-                    ObservableValue<PlacedTile> lastPlacedTile = state.map(g -> g.board().lastPlacedTile());
-                    lastPlacedTile.addListener((observableValue, LastPlaced, newLastPlaced) -> {
-                        Board board1 = state.getValue().board();
-                        if (board1.tileAt(tilePos) != null &&
-                                board1.tileAt(tilePos).equals(newLastPlaced)) {
-                            PlayerColor occupantPlacerColor = newLastPlaced.placer();
-                            Map<Occupant.Kind, String> occupantKindToString = Map.
-                                    of(Occupant.Kind.PAWN, "pawn_", Occupant.Kind.HUT, "hut_");
-
-                            for (Occupant occ : state.getValue().lastTilePotentialOccupants()) {
-                                Node occPath = Icon.newFor(occupantPlacerColor, occ.kind());
-                                occPath.setId(occupantKindToString.get(occ.kind()) + occ.zoneId());
-                                occPath.visibleProperty().bind(visibleOccupants.map(occSet -> occSet.contains(occ)));
-                                occPath.setOnMouseClicked(e -> selectOcc.accept(occ));
-                                occPath.rotateProperty().bind(obsCellData.map(c -> c.rotation.negated().degreesCW()));
-                                cell.getChildren().add(occPath);
-                            }
-                            List<Animal> animalsInTile = animalsInTile(newLastPlaced);
-                            if (!animalsInTile.equals(List.of())) {
-                                for (Animal a : animalsInTile) {
-                                    ImageView crossedAnimal = new ImageView();
-                                    crossedAnimal.setFitWidth(ImageLoader.MARKER_FIT_SIZE);
-                                    crossedAnimal.setFitHeight(ImageLoader.MARKER_FIT_SIZE);
-                                    crossedAnimal.setId(STR. "marker_\{ a.id() }" );
-                                    crossedAnimal.getStyleClass().add("marker");
-                                    crossedAnimal.visibleProperty().
-                                            bind(state.map(s -> s.board().cancelledAnimals().contains(a)));
-                                    crossedAnimal.rotateProperty().bind(obsCellData.map(c -> c.rotation.degreesCW()));
-                                    cell.getChildren().add(crossedAnimal);
-                                }
-                            }
-                        }
-                    });
-                });
-                boardGrid.add(cell, x + reach, y + reach);
-            }
-        }
-        ScrollPane boardScrollPane = new ScrollPane(boardGrid);
+        // Only the cells in the viewport have nodes, so the board pane is sized explicitly.
+        // It is scaled by the zoom inside a group, so that the scroll pane sees its zoomed size.
+        double side = (2 * reach + 1) * BoardLayout.CELL_PITCH - BoardLayout.CELL_GAP;
+        Pane boardPane = new Pane();
+        boardPane.setId("board-grid");
+        boardPane.setMinSize(side, side);
+        boardPane.setPrefSize(side, side);
+        DoubleProperty zoom = new SimpleDoubleProperty(1);
+        Scale scale = new Scale();
+        scale.xProperty().bind(zoom);
+        scale.yProperty().bind(zoom);
+        boardPane.getTransforms().add(scale);
+
+        Dispatcher dispatcher = new Dispatcher(
+                reach, boardPane, state, rot, visibleOccupants, highlightedTiles, rotateTile, placeTile, selectOcc);
+        dispatcher.start();
+
+        ScrollPane boardScrollPane = new ScrollPane(new Group(boardPane));
         boardScrollPane.getStylesheets().add("board.css");
         boardScrollPane.setId("board-scroll-pane");
         boardScrollPane.setVvalue(0.5);
         boardScrollPane.setHvalue(0.5);
+
+        InvalidationListener viewportListener = o -> {
+            Bounds viewport = boardScrollPane.getViewportBounds();
+            double z = zoom.get();
+            double minX = boardScrollPane.getHvalue() * Math.max(0, side * z - viewport.getWidth()) / z;
+            double minY = boardScrollPane.getVvalue() * Math.max(0, side * z - viewport.getHeight()) / z;
+            dispatcher.showCells(
+                    firstCell(minX, reach), lastCell(minX + viewport.getWidth() / z, reach),
+                    firstCell(minY, reach), lastCell(minY + viewport.getHeight() / z, reach));
+        };
+        boardScrollPane.hvalueProperty().addListener(viewportListener);
+        boardScrollPane.vvalueProperty().addListener(viewportListener);
+        boardScrollPane.viewportBoundsProperty().addListener(viewportListener);
+        zoom.addListener(viewportListener);
+        zoom.addListener((o, oldZoom, newZoom) -> dispatcher.setZoom(newZoom.doubleValue()));
+
+        // Zooms with the control key and the mouse wheel, or with a pinch, around the point under the mouse.
+        boardScrollPane.addEventFilter(ScrollEvent.SCROLL, e -> {
+            if (!e.isControlDown() && !e.isShortcutDown()) return;
+            zoomAt(boardScrollPane, zoom, side, Math.pow(ZOOM_PER_SCROLL_PIXEL, e.getDeltaY()), e.getX(), e.getY());
+            e.consume();
+        });
+        boardScrollPane.addEventHandler(ZoomEvent.ZOOM, e -> {
+            zoomAt(boardScrollPane, zoom, side, e.getZoomFactor(), e.getX(), e.getY());
+            e.consume();
+        });
         return boardScrollPane;
     }
 
     /**
-     * Creates a map of BooleanProperty instances for a given cell.
-     * These properties represent different states of the cell,
-     * such as whether it is being hovered over, whether the left or right mouse button is being pressed,
-     * and whether the option key is being pressed.
-     * This method also handles the logic for rotating the tile when the right mouse button is clicked.
+     * Multiplies the zoom of the board by the given factor, keeping the point under the mouse in place.
      *
-     * @param cell       The Group object representing the cell for which to create the properties.
-     * @param rot        The current rotation state of the game.
-     * @param rotateTile A Consumer for handling tile rotation.
-     * @return A map where the keys are the names of the properties and the values are the BooleanProperty instances.
+     * @param scrollPane the scroll pane of the board
+     * @param zoom       the zoom of the board
+     * @param side       the side of the unzoomed board, in pixels
+     * @param factor     the factor to multiply the zoom by
+     * @param x          the x coordinate of the mouse in the scroll pane
+     * @param y          the y coordinate of the mouse in the scroll pane
      */
-    private static Map<String, BooleanProperty> createCellProperties(Group cell,
-                                                                     SimpleObjectProperty<Rotation> rot,
-                                                                     Consumer<Rotation> rotateTile) {
-        Map<String, BooleanProperty> cellProperties = new HashMap<>();
-
-        // Create a BooleanProperty for whether the cell is being hovered over.
-        BooleanProperty isHovered = new SimpleBooleanProperty();
-        cell.hoverProperty().addListener((observable, oldValue, newValue) -> isHovered.set(newValue));
-        cellProperties.put("isHovered", isHovered);
-
-        // Create a BooleanProperty for whether the left mouse button is being pressed.
-        BooleanProperty isLeftMousePressed = new SimpleBooleanProperty(false);
-        cell.addEventFilter(MouseEvent.MOUSE_PRESSED, event -> {
-            if (event.getButton() == MouseButton.PRIMARY) {
-                isLeftMousePressed.set(true);
-            }
-        });
-        cell.addEventFilter(MouseEvent.MOUSE_RELEASED, event -> {
-            if (event.getButton() == MouseButton.PRIMARY) {
-                isLeftMousePressed.set(false);
-            }
-        });
-        cellProperties.put("isLeftMousePressed", isLeftMousePressed);
-
-        // Create BooleanProperties for whether the right mouse button is being
-        // pressed and whether the option key is being pressed.
-        BooleanProperty isOptionPressed = new SimpleBooleanProperty(false);
-        BooleanProperty isRightMousePressed = new SimpleBooleanProperty(false);
-        cell.addEventFilter(MouseEvent.MOUSE_PRESSED, event -> {
-            if (event.getButton() == MouseButton.SECONDARY && !event.isAltDown()) {
-                isRightMousePressed.set(true);
-                rotateTile.accept(Rotation.RIGHT);
-            } else if (event.getButton() == MouseButton.SECONDARY && event.isAltDown()) {
-                isOptionPressed.set(true);
-                isRightMousePressed.set(true);
-                rotateTile.accept(Rotation.LEFT);
-            }
-        });
-        cell.addEventFilter(MouseEvent.MOUSE_RELEASED, event -> {
-            if (event.getButton() == MouseButton.SECONDARY) {
-                isRightMousePressed.set(false);
-                isOptionPressed.set(false);
-            }
-        });
-        cellProperties.put("isOptionPressed", isOptionPressed);
-        cellProperties.put("isRightMousePressed", isRightMousePressed);
+    private static void zoomAt(ScrollPane scrollPane, DoubleProperty zoom, double side,
+                               double factor, double x, double y) {
+        double oldZoom = zoom.get();
+        double newZoom = Math.clamp(oldZoom * factor, MIN_ZOOM, MAX_ZOOM);
+        if (newZoom == oldZoom) return;
+
+        Bounds viewport = scrollPane.getViewportBounds();
+        double boardX = (scrollPane.getHvalue() * Math.max(0, side * oldZoom - viewport.getWidth()) + x) / oldZoom;
+        double boardY = (scrollPane.getVvalue() * Math.max(0, side * oldZoom - viewport.getHeight()) + y) / oldZoom;
+
+        zoom.set(newZoom);
+        scrollPane.layout();
+        double rangeX = Math.max(0, side * newZoom - viewport.getWidth());
+        double rangeY = Math.max(0, side * newZoom - viewport.getHeight());
+        scrollPane.setHvalue(rangeX == 0 ? 0.5 : Math.clamp((boardX * newZoom - x) / rangeX, 0, 1));
+        scrollPane.setVvalue(rangeY == 0 ? 0.5 : Math.clamp((boardY * newZoom - y) / rangeY, 0, 1));
+    }
 
-        return cellProperties;
+    /**
+     * Returns the board coordinate of the first cell to materialize, for the given start of the viewport.
+     *
+     * @param min   the start of the viewport, in pixels
+     * @param reach the reach of the board
+     * @return the first coordinate to materialize
+     */
+    private static int firstCell(double min, int reach) {
+        return Math.max(-reach, (int) Math.floor(min / BoardLayout.CELL_PITCH) - VIEWPORT_MARGIN - reach);
     }
 
     /**
-     * Returns a list of animals in the given tile.
+     * Returns the board coordinate of the last cell to materialize, for the given end of the viewport.
      *
-     * @param tile  The tile to check.
-     * @return A list of animals in the given tile.
+     * @param max   the end of the viewport, in pixels
+     * @param reach the reach of the board
+     * @return the last coordinate to materialize
      */
-    private static List<Animal> animalsInTile(PlacedTile tile) {
-        List<Animal> result = new ArrayList<>();
-        for (Zone.Meadow meadow : tile.meadowZones()) result.addAll(meadow.animals());
-        return result;
+    private static int lastCell(double max, int reach) {
+        return Math.min(reach, (int) Math.floor(max / BoardLayout.CELL_PITCH) + VIEWPORT_MARGIN - reach);
     }
 
     /**
-     * This class represents the data for a cell on the game board.
-     * It contains the background image, rotation, and veil color for the cell.
+     * The single listener of the board: it compares consecutive values of the observed state and only
+     * redraws the cells whose tile, occupants, highlight or hover state actually changed.
+     * Only the cells of the viewport are materialized; the others are recycled through a pool.
      *
      * @author Bjork Pedersen (376143)
      */
-    public static class CellData {
-        private ImageView backgroundImage;
-        private Rotation rotation;
-        private ColorInput veilColor;
-        private Map<Integer, ImageView> cache;
+    private static final class Dispatcher {
+        private final int reach;
+        private final Pane boardPane;
+        private final ObservableValue<GameState> state;
+        private final SimpleObjectProperty<Rotation> rot;
+        private final ObservableValue<Set<Occupant>> visibleOccupants;
+        private final ObservableValue<IntSet> highlightedTiles;
+        private final Consumer<Rotation> rotateTile;
+        private final Consumer<Pos> placeTile;
+        private final Consumer<Occupant> selectOcc;
+
+        private final Map<Pos, Cell> cells = new HashMap<>();
+        private final Deque<Cell> pool = new ArrayDeque<>();
+        private final Map<Occupant, Node> occupantNodes = new HashMap<>();
+        private final Map<Animal, Node> markerNodes = new HashMap<>();
+        private final Map<Color, Blend> veils = new HashMap<>();
+        private Cell hoveredCell;
+        private int tilePixelSize = ImageLoader.tilePixelSizeFor(ImageLoader.NORMAL_TILE_FIT_SIZE);
+        private boolean detailsShown = true;
 
         /**
-         * Constructs a new CellData object with the given background image, rotation, and veil color.
+         * Constructs a new Dispatcher observing the given values.
          *
-         * @param backgroundImage the background image for the cell
-         * @param rotation        the rotation of the cell
-         * @param veilColor       the veil color for the cell
+         * @param reach            the reach of the board
+         * @param boardPane        the pane holding the materialized cells
+         * @param state            the current game state
+         * @param rot              the current rotation of the tile to place
+         * @param visibleOccupants the set of visible occupants
+         * @param highlightedTiles the set of highlighted tiles
+         * @param rotateTile       the consumer for rotating the tile to place
+         * @param placeTile        the consumer for placing the tile
+         * @param selectOcc        the consumer for selecting an occupant
+         */
+        private Dispatcher(int reach,
+                           Pane boardPane,
+                           ObservableValue<GameState> state,
+                           SimpleObjectProperty<Rotation> rot,
+                           ObservableValue<Set<Occupant>> visibleOccupants,
+                           ObservableValue<IntSet> highlightedTiles,
+                           Consumer<Rotation> rotateTile,
+                           Consumer<Pos> placeTile,
+                           Consumer<Occupant> selectOcc) {
+            this.reach = reach;
+            this.boardPane = boardPane;
+            this.state = state;
+            this.rot = rot;
+            this.visibleOccupants = visibleOccupants;
+            this.highlightedTiles = highlightedTiles;
+            this.rotateTile = rotateTile;
+            this.placeTile = placeTile;
+            this.selectOcc = selectOcc;
+        }
+
+        /**
+         * Starts listening to the observed values.
          */
-        public CellData(ImageView backgroundImage,
-                        Rotation rotation,
-                        ColorInput veilColor,
-                        Map<Integer,
-                                ImageView> cache) {
-            this.backgroundImage = backgroundImage;
-            this.rotation = rotation;
-            this.veilColor = veilColor;
-            this.cache = new HashMap<>(Map.copyOf(cache));
+        private void start() {
+            state.addListener((o, oldState, newState) -> stateChanged(oldState, newState));
+            visibleOccupants.addListener((o, oldSet, newSet) -> occupantsChanged(oldSet, newSet));
+            highlightedTiles.addListener((o, oldSet, newSet) -> highlightChanged(oldSet, newSet));
+            rot.addListener((o, oldRotation, newRotation) -> {
+                if (hoveredCell != null) redraw(hoveredCell);
+            });
         }
 
         /**
-         * Binds the cell data to the given properties and observable values.
-         * This method handles the logic for updating the cell's image, rotation, and veil color based on the game
-         * state and user interactions.
+         * Adapts the materialized cells to the given zoom: picks the resolution of the tile images, and
+         * hides occupants and markers when zoomed out.
          *
-         * @param pos               the position of the cell on the board
-         * @param leftMouseClicked  a property that is true when the left mouse button is pressed
-         * @param rightMouseClicked a property that is true when the right mouse button is pressed
-         * @param optionClicked     a property that is true when the option key is pressed
-         * @param isHovered         a property that is true when the mouse is hovering over the cell
-         * @param highlightedTiles  an observable value containing the set of highlighted tile IDs
-         * @param state             an observable value containing the current game state
-         * @param placeTile         a consumer for handling tile placement
-         * @return a new CellData object with the updated properties
+         * @param zoom the zoom of the board
          */
-        public CellData bindCellData(Pos pos,
-                                     BooleanProperty leftMouseClicked,
-                                     BooleanProperty rightMouseClicked,
-                                     BooleanProperty optionClicked,
-                                     BooleanProperty isHovered,
-                                     ObservableValue<Set<Integer>> highlightedTiles,
-                                     SimpleObjectProperty<Rotation> rot,
-                                     ObservableValue<GameState> state,
-                                     Consumer<Pos> placeTile
-        ) {
-
-            WritableImage emptyTile = new WritableImage(1, 1);
-            emptyTile.getPixelWriter().setColor(0, 0, Color.gray(0.98));
-            ImageView emptyTileImage = new ImageView(emptyTile);
-            GameState gameState = state.getValue();
-
-            if (gameState.board().tileAt(pos) == null) {
-                return handleEmptyTile(
-                        pos,
-                        leftMouseClicked,
-                        rightMouseClicked,
-                        optionClicked,
-                        isHovered,
-                        rot,
-                        gameState,
-                        placeTile,
-                        emptyTileImage);
-            } else {
-                return handlePlacedTile(pos, highlightedTiles, state);
+        private void setZoom(double zoom) {
+            int newPixelSize = ImageLoader.tilePixelSizeFor(ImageLoader.NORMAL_TILE_FIT_SIZE * zoom);
+            boolean newDetailsShown = zoom >= DETAIL_MIN_ZOOM;
+            if (newPixelSize != tilePixelSize) {
+                tilePixelSize = newPixelSize;
+                for (Cell cell : cells.values()) redraw(cell);
+            }
+            if (newDetailsShown != detailsShown) {
+                detailsShown = newDetailsShown;
+                for (Cell cell : cells.values()) cell.details.setVisible(detailsShown);
             }
         }
 
         /**
-         * Handles the logic for an empty tile on the board.
+         * Materializes the cells in the given ranges of board coordinates, and recycles all the others.
          *
-         * @param pos               the position of the tile
-         * @param leftMouseClicked  checks if the left mouse button is clicked
-         * @param rightMouseClicked checks if the right mouse button is clicked
-         * @param optionClicked     checks if option is clicked
-         * @param isHovered         checks if the mouse is hovering the cell
-         * @param rot               rotation of the tile
-         * @param gameState         the current gameState
-         * @param placeTile         the consumer for placing the tile
-         * @param emptyTileImage    the image of the empty tile
-         * @return a new CellData with this case handled
+         * @param minX the first column to show
+         * @param maxX the last column to show
+         * @param minY the first row to show
+         * @param maxY the last row to show
          */
-        private CellData handleEmptyTile(Pos pos,
-                                         BooleanProperty leftMouseClicked,
-                                         BooleanProperty rightMouseClicked,
-                                         BooleanProperty optionClicked,
-                                         BooleanProperty isHovered,
-                                         SimpleObjectProperty<Rotation> rot,
-                                         GameState gameState,
-                                         Consumer<Pos> placeTile,
-                                         ImageView emptyTileImage) {
-            rotation = rot.getValue();
-            ColorInput veil;
-            Set<Pos> insertionPositions = gameState.board().insertionPositions();
-            if (insertionPositions.contains(pos)) {
-                if (gameState.nextAction() == GameState.Action.PLACE_TILE && isHovered.get()) {
-                    return handleTilePlacement(
-                            pos,
-                            leftMouseClicked,
-                            rightMouseClicked,
-                            optionClicked,
-                            rot,
-                            gameState,
-                            placeTile);
-                } else if (gameState.nextAction() == GameState.Action.PLACE_TILE) {
-                    veil = new ColorInput(
-                            0,
-                            0,
-                            ImageLoader.NORMAL_TILE_FIT_SIZE,
-                            ImageLoader.NORMAL_TILE_FIT_SIZE,
-                            ColorMap.fillColor(gameState.currentPlayer()));
-                    return new CellData(emptyTileImage, rotation, veil, cache);
+        private void showCells(int minX, int maxX, int minY, int maxY) {
+            Iterator<Cell> shown = cells.values().iterator();
+            while (shown.hasNext()) {
+                Cell cell = shown.next();
+                if (cell.pos.x() < minX || cell.pos.x() > maxX || cell.pos.y() < minY || cell.pos.y() > maxY) {
+                    shown.remove();
+                    recycle(cell);
                 }
             }
-            return new CellData(emptyTileImage, rotation, null, cache);
+            for (int x = minX; x <= maxX; ++x) {
+                for (int y = minY; y <= maxY; ++y) {
+                    Pos pos = new Pos(x, y);
+                    if (!cells.containsKey(pos)) cells.put(pos, materialize(pos));
+                }
+            }
+        }
+
+        /**
+         * Returns a cell showing the given position, taken from the pool if possible.
+         *
+         * @param pos the position of the cell
+         * @return the materialized cell
+         */
+        private Cell materialize(Pos pos) {
+            Cell cell = pool.poll();
+            if (cell == null) cell = newCell();
+
+            cell.pos = pos;
+            cell.group.setLayoutX((pos.x() + reach) * BoardLayout.CELL_PITCH);
+            cell.group.setLayoutY((pos.y() + reach) * BoardLayout.CELL_PITCH);
+            cell.group.setVisible(true);
+            cell.details.setVisible(detailsShown);
+
+            Board board = state.getValue().board();
+            PlacedTile tile = board.tileAt(pos);
+            if (tile != null) attachTile(cell, tile, board);
+            redraw(cell);
+            return cell;
         }
 
         /**
-         * Handles the logic placing a tile on the board including the rotation.
+         * Detaches the given cell from its position and puts it back into the pool.
          *
-         * @param pos               the position of the tile
-         * @param leftMouseClicked  checks if the left mouse button is clicked
-         * @param rightMouseClicked checks if the right mouse button is clicked
-         * @param optionClicked     checks if option is clicked
-         * @param rot               rotation of the tile
-         * @param gameState         the current gameState
-         * @param placeTile         the consumer for placing the tile
-         * @return a new CellData with this case handled
+         * @param cell the cell to recycle
          */
-        private CellData handleTilePlacement(Pos pos,
-                                             BooleanProperty leftMouseClicked,
-                                             BooleanProperty rightMouseClicked,
-                                             BooleanProperty optionClicked,
-                                             SimpleObjectProperty<Rotation> rot,
-                                             GameState gameState,
-                                             Consumer<Pos> placeTile) {
-            int tileId = gameState.tileToPlace().id();
-            ImageView tileImage;
-//            if (cache[tileId] != null) tileImage = cache[tileId];
-//            else {
-//                tileImage = new ImageView(ImageLoader.normalImageForTile(tileId));
-//                cache[tileId] = tileImage;
-//            }
-            ImageView cacheImage = cache.get(tileId);
-            if (cacheImage != null) tileImage = cacheImage;
-            else {
-                tileImage = new ImageView(ImageLoader.normalImageForTile(tileId));
-                cache.put(tileId, tileImage);
+        private void recycle(Cell cell) {
+            if (cell.tile != null) {
+                for (Occupant occ : cell.tile.potentialOccupants()) occupantNodes.remove(occ);
+                for (Animal a : BoardLayout.animalsInTile(cell.tile)) markerNodes.remove(a);
+                cell.details.getChildren().clear();
+                cell.tile = null;
             }
+            if (hoveredCell == cell) hoveredCell = null;
+            cell.pos = null;
+            cell.group.setVisible(false);
+            pool.push(cell);
+        }
 
-            if (optionClicked.get() && rightMouseClicked.get()) {
-                rotation = rotation.add(Rotation.LEFT);
-            } else if (!optionClicked.get() && rightMouseClicked.get()) {
-                rotation = rotation.add(Rotation.RIGHT);
+        /**
+         * Creates a new cell, adds it to the board pane and registers its mouse handlers.
+         *
+         * @return the new cell
+         */
+        private Cell newCell() {
+            Cell cell = new Cell();
+            boardPane.getChildren().add(cell.group);
+
+            cell.group.hoverProperty().addListener((o, oldValue, newValue) -> {
+                if (cell.pos == null) return;
+                Cell previous = hoveredCell;
+                hoveredCell = newValue ? cell : (hoveredCell == cell ? null : hoveredCell);
+                if (previous != null && previous != hoveredCell) redraw(previous);
+                redraw(cell);
+            });
+            cell.group.addEventFilter(MouseEvent.MOUSE_PRESSED, event -> {
+                if (event.getButton() == MouseButton.PRIMARY) {
+                    if (cell.pos != null) BoardLayout.tryPlaceTile(state.getValue(), cell.pos, rot, placeTile);
+                } else if (event.getButton() == MouseButton.SECONDARY) {
+                    rotateTile.accept(event.isAltDown() ? Rotation.LEFT : Rotation.RIGHT);
+                }
+            });
+            return cell;
+        }
+
+        /**
+         * Redraws the materialized cells affected by the transition between the two given game states.
+         *
+         * @param oldState the previously displayed game state
+         * @param newState the game state to display
+         */
+        private void stateChanged(GameState oldState, GameState newState) {
+            Board oldBoard = oldState.board();
+            Board newBoard = newState.board();
+            Set<Cell> dirty = new HashSet<>();
+
+            for (PlacedTile tile : newBoard.tilesPlacedAfter(oldBoard.tileCount())) {
+                Cell cell = cells.get(tile.pos());
+                if (cell != null && cell.tile == null) {
+                    attachTile(cell, tile, newBoard);
+                    dirty.add(cell);
+                }
             }
 
-            if (!gameState.board().
-                    canAddTile(new PlacedTile(gameState.tileToPlace(), gameState.currentPlayer(), rotation, pos)) &&
-                    gameState.nextAction() == GameState.Action.PLACE_TILE) {
-                ColorInput veil = new ColorInput(
-                        0,
-                        0,
-                        ImageLoader.NORMAL_TILE_FIT_SIZE,
-                        ImageLoader.NORMAL_TILE_FIT_SIZE,
-                        Color.WHITE);
-                return new CellData(tileImage, rotation, veil, cache);
+            Set<Pos> oldInsertions = oldBoard.insertionPositions();
+            Set<Pos> newInsertions = newBoard.insertionPositions();
+            if (oldState.nextAction() != newState.nextAction()
+                    || oldState.currentPlayer() != newState.currentPlayer()
+                    || !oldInsertions.equals(newInsertions)) {
+                for (Pos pos : oldInsertions) addCell(dirty, pos);
+                for (Pos pos : newInsertions) addCell(dirty, pos);
             }
-            if (gameState.board().
-                    canAddTile(new PlacedTile(gameState.tileToPlace(), gameState.currentPlayer(), rotation, pos)) &&
-                    leftMouseClicked.get()) {
-                placeTile.accept(pos);
-                rot.set(Rotation.NONE);
+
+            if (hoveredCell != null && oldState.tileToPlace() != newState.tileToPlace()) {
+                dirty.add(hoveredCell);
             }
-            return new CellData(tileImage, rotation, null, cache);
+
+            if (!oldBoard.cancelledAnimals().equals(newBoard.cancelledAnimals())) {
+                for (Map.Entry<Animal, Node> marker : markerNodes.entrySet()) {
+                    marker.getValue().setVisible(newBoard.cancelledAnimals().contains(marker.getKey()));
+                }
+            }
+
+            for (Cell cell : dirty) redraw(cell);
         }
 
         /**
-         * Handles the logic for a placed tile on the board including its eventual veil.
+         * Shows and hides the occupants whose visibility changed.
          *
-         * @param pos              the position of the tile
-         * @param highlightedTiles the set of highlighted tiles
-         * @param state            the current gameState
-         * @return a new CellData with this case handled
+         * @param oldSet the previously visible occupants
+         * @param newSet the occupants to show
          */
-        private CellData handlePlacedTile(Pos pos,
-                                          ObservableValue<Set<Integer>> highlightedTiles,
-                                          ObservableValue<GameState> state) {
-            PlacedTile placedTile = state.getValue().board().tileAt(pos);
-            int tileId = placedTile.id();
-            ImageView tileImage;
-            ImageView cacheImage = cache.get(tileId);
-            if (cacheImage != null) tileImage = cacheImage;
-            else {
-                tileImage = new ImageView(ImageLoader.normalImageForTile(tileId));
-                cache.put(tileId, tileImage);
+        private void occupantsChanged(Set<Occupant> oldSet, Set<Occupant> newSet) {
+            for (Occupant occ : oldSet) {
+                if (!newSet.contains(occ)) setOccupantVisible(occ, false);
+            }
+            for (Occupant occ : newSet) {
+                if (!oldSet.contains(occ)) setOccupantVisible(occ, true);
             }
+        }
 
-            rotation = placedTile.rotation();
-            ColorInput veil = null;
+        /**
+         * Redraws the placed tiles whose veil changed with the highlighted tiles.
+         *
+         * @param oldSet the previously highlighted tiles
+         * @param newSet the tiles to highlight
+         */
+        private void highlightChanged(IntSet oldSet, IntSet newSet) {
+            for (Cell cell : cells.values()) {
+                if (cell.tile == null) continue;
+                int id = cell.tile.id();
+                if (BoardLayout.isVeiled(id, oldSet) != BoardLayout.isVeiled(id, newSet)) redraw(cell);
+            }
+        }
 
-            if (!highlightedTiles.getValue().contains(placedTile.id()) && !highlightedTiles.getValue().isEmpty()) {
-                veil = new ColorInput(
-                        0,
-                        0,
-                        ImageLoader.NORMAL_TILE_FIT_SIZE,
-                        ImageLoader.NORMAL_TILE_FIT_SIZE,
-                        Color.BLACK);
+        /**
+         * Attaches the given tile to the given cell, along with its occupant and cancelled animal markers.
+         *
+         * @param cell  the cell
+         * @param tile  the tile placed on the cell
+         * @param board the board the tile is placed on
+         */
+        private void attachTile(Cell cell, PlacedTile tile, Board board) {
+            cell.tile = tile;
+
+            Set<Occupant> visible = visibleOccupants.getValue();
+            for (Occupant occ : tile.potentialOccupants()) {
+                Node occPath = Icon.newFor(tile.placer(), occ.kind());
+                Point2D offset = BoardLayout.occupantOffset(occ);
+                occPath.setTranslateX(offset.getX());
+                occPath.setTranslateY(offset.getY());
+                occPath.setVisible(visible.contains(occ));
+                occPath.setOnMouseClicked(e -> selectOcc.accept(occ));
+                occPath.setRotate(tile.rotation().negated().degreesCW());
+                occupantNodes.put(occ, occPath);
+                cell.details.getChildren().add(occPath);
+            }
+            for (Animal a : BoardLayout.animalsInTile(tile)) {
+                ImageView crossedAnimal = new ImageView();
+                crossedAnimal.setFitWidth(ImageLoader.MARKER_FIT_SIZE);
+                crossedAnimal.setFitHeight(ImageLoader.MARKER_FIT_SIZE);
+                Point2D offset = BoardLayout.markerOffset(a);
+                crossedAnimal.setTranslateX(offset.getX());
+                crossedAnimal.setTranslateY(offset.getY());
+                crossedAnimal.getStyleClass().add("marker");
+                crossedAnimal.setVisible(board.cancelledAnimals().contains(a));
+                crossedAnimal.setRotate(tile.rotation().degreesCW());
+                markerNodes.put(a, crossedAnimal);
+                cell.details.getChildren().add(crossedAnimal);
             }
-            return new CellData(tileImage, rotation, veil, cache);
+        }
+
+        /**
+         * Redraws the background image, rotation and veil of the given cell, changing only what differs
+         * from what it currently displays.
+         *
+         * @param cell the cell to redraw
+         */
+        private void redraw(Cell cell) {
+            Pos pos = cell.pos;
+            BoardLayout.CellLook look = BoardLayout.cellLook(
+                    state.getValue(), pos, cell == hoveredCell, rot.getValue(), highlightedTiles.getValue());
+            Image image = look.tileId() == BoardLayout.NO_TILE
+                    ? ImageLoader.placeholder()
+                    : ImageLoader.tileImage(look.tileId(), tilePixelSize, loaded -> redrawIfShown(cell, pos));
+            Rotation rotation = look.rotation();
+            Color veil = look.veil();
+
+            if (cell.image.getImage() != image) cell.image.setImage(image);
+            if (cell.group.getRotate() != rotation.degreesCW()) cell.group.setRotate(rotation.degreesCW());
+            Blend effect = veil == null ? null : veils.computeIfAbsent(veil, Dispatcher::newVeil);
+            if (cell.group.getEffect() != effect) cell.group.setEffect(effect);
+        }
+
+        /**
+         * Redraws the given cell once an image it requested is decoded, if it still shows the same position.
+         *
+         * @param cell the cell
+         * @param pos  the position the cell showed when it requested the image
+         */
+        private void redrawIfShown(Cell cell, Pos pos) {
+            if (pos.equals(cell.pos)) redraw(cell);
+        }
+
+        /**
+         * Adds the materialized cell at the given position, if any, to the given set.
+         *
+         * @param dirty the set of cells to redraw
+         * @param pos   the position
+         */
+        private void addCell(Set<Cell> dirty, Pos pos) {
+            Cell cell = cells.get(pos);
+            if (cell != null) dirty.add(cell);
+        }
+
+        /**
+         * Shows or hides the node of the given occupant, if it is materialized.
+         *
+         * @param occ     the occupant
+         * @param visible whether the occupant should be visible
+         */
+        private void setOccupantVisible(Occupant occ, boolean visible) {
+            Node node = occupantNodes.get(occ);
+            if (node != null) node.setVisible(visible);
+        }
+
+        /**
+         * Creates the veil effect of the given color.
+         *
+         * @param color the color of the veil
+         * @return the veil effect
+         */
+        private static Blend newVeil(Color color) {
+            ColorInput input = new ColorInput(
+                    0,
+                    0,
+                    ImageLoader.NORMAL_TILE_FIT_SIZE,
+                    ImageLoader.NORMAL_TILE_FIT_SIZE,
+                    color);
+            Blend blend = new Blend(BlendMode.SRC_OVER, null, input);
+            blend.setOpacity(0.5);
+            return blend;
+        }
+    }
+
+    /**
+     * A cell of the board, shown at a position of the viewport, with the tile it displays if any.
+     *
+     * @author Bjork Pedersen (376143)
+     */
+    private static final class Cell {
+        private final Group group = new Group();
+        private final ImageView image = new ImageView();
+        private final Group details = new Group();
+        private Pos pos;
+        private PlacedTile tile;
+
+        /**
+         * Constructs a new Cell, not yet shown at any position.
+         */
+        private Cell() {
+            image.setFitWidth(ImageLoader.NORMAL_TILE_FIT_SIZE);
+            image.setFitHeight(ImageLoader.NORMAL_TILE_FIT_SIZE);
+            group.getChildren().addAll(image, details);
         }
     }
-}
\ No newline at end of file
+}
@@ -74,7 +74,9 @@ public class DecksUI {
 
         tile.addListener((o, oldTile, newTile) -> {
             if (newTile != null) {
-                tileToPlaceView.setImage(ImageLoader.largeImageForTile(newTile.id()));
+                tileToPlaceView.setImage(ImageLoader.largeImageForTile(newTile.id(), loaded -> {
+                    if (tile.getValue() == newTile) tileToPlaceView.setImage(loaded);
+                }));
             }
         });
 
@@ -0,0 +1,120 @@
+package ch.epfl.chacun.gui;
+
+import ch.epfl.chacun.ActionEncoder;
+import ch.epfl.chacun.GameEventPublisher;
+import ch.epfl.chacun.GameState;
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Computes the transitions of the game state on a dedicated worker thread, so that scoring and deck
+ * drawing never stall the JavaFX application thread. Only the latest state computed by the worker is
+ * published to the interface: states computed while a publication is pending are coalesced into it, and
+ * nothing is scheduled on the application thread while no transition is computed.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class GameStateWorker {
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(Thread.ofVirtual()
+            .name("game-state-worker")
+            .factory());
+    private final AtomicReference<Snapshot> pendingSnapshot = new AtomicReference<>();
+    private final ObjectProperty<GameState> displayedState;
+    private final ObjectProperty<List<String>> displayedActions;
+    private final GameEventPublisher gameEvents;
+
+    // Only accessed by the worker thread
+    private GameState state;
+    private final List<String> actions;
+
+    /**
+     * Constructs a new GameStateWorker publishing to the given properties.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param state      the property holding the game state displayed by the interface
+     * @param actions    the property holding the encoded actions displayed by the interface
+     * @param gameEvents the publisher fed with every transition computed by the worker
+     */
+    public GameStateWorker(ObjectProperty<GameState> state,
+                           ObjectProperty<List<String>> actions,
+                           GameEventPublisher gameEvents) {
+        this.state = state.get();
+        this.actions = new ArrayList<>(actions.get());
+        this.displayedState = state;
+        this.displayedActions = actions;
+        this.gameEvents = gameEvents;
+    }
+
+    /**
+     * Submits a transition, which is applied on the worker thread to the latest computed game state.
+     * The transition returns the new game state along with its encoded action, or null to leave the
+     * state unchanged. A null encoded action changes the state without recording any action.
+     * If the transition throws, the state is left unchanged and the exception is rethrown on the
+     * JavaFX application thread.
+     *
+     * @param transition the transition to apply
+     */
+    public void submit(Function<GameState, ActionEncoder.StateAction> transition) {
+        worker.execute(() -> {
+            GameState before = state;
+            ActionEncoder.StateAction stateAction;
+            try {
+                stateAction = transition.apply(before);
+            } catch (RuntimeException e) {
+                // Fails on the application thread, as the transition would have had it run there
+                Platform.runLater(() -> {
+                    throw e;
+                });
+                return;
+            }
+            if (stateAction == null) {
+                return;
+            }
+
+            state = stateAction.getGameState();
+            if (stateAction.getEncodedAction() != null) {
+                actions.add(stateAction.getEncodedAction());
+            }
+            // Only schedules a publication if none is pending, which will then publish this snapshot
+            if (pendingSnapshot.getAndSet(new Snapshot(state, List.copyOf(actions))) == null) {
+                Platform.runLater(this::publishPendingSnapshot);
+            }
+            gameEvents.publishTransition(before, state);
+        });
+    }
+
+    /**
+     * Stops the worker and the publication to the interface. Pending transitions are discarded.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Publishes the latest snapshot computed by the worker to the interface, unless the worker was stopped.
+     * Called on the JavaFX application thread.
+     */
+    private void publishPendingSnapshot() {
+        Snapshot snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot != null && !worker.isShutdown()) {
+            displayedActions.set(snapshot.actions());
+            displayedState.set(snapshot.state());
+        }
+    }
+
+    /**
+     * The state published to the interface, along with the encoded actions that lead to it.
+     *
+     * @param state   the game state
+     * @param actions the encoded actions
+     */
+    private record Snapshot(GameState state, List<String> actions) {
+    }
+}
@@ -3,7 +3,6 @@ package ch.epfl.chacun.gui;
 import ch.epfl.chacun.Occupant;
 import ch.epfl.chacun.PlayerColor;
 import javafx.scene.Node;
-import javafx.scene.paint.Color;
 import javafx.scene.shape.SVGPath;
 
 /**
@@ -32,17 +31,23 @@ public class Icon {
      */
     public static Node newFor(PlayerColor player, Occupant.Kind kind) {
         SVGPath svg = new SVGPath();
-        Color col = ColorMap.fillColor(player);
+        svg.setContent(svgPathFor(kind));
+        svg.setFill(ColorMap.fillColor(player));
+        svg.setStroke(ColorMap.strokeColor(player));
+        return svg;
+    }
+
+    /**
+     * Returns the SVG path of the icon of a given occupant kind, centered on the origin.
+     *
+     * @param kind the kind of occupant
+     * @return the SVG path of the icon
+     */
+    public static String svgPathFor(Occupant.Kind kind) {
         if (kind == Occupant.Kind.PAWN) {
-            svg.setContent("M -10 10 H -4 L 0 2 L 6 10 H 12 L 5 0 L 12 -2 L 12 -4 L 6 -6\n" +
-                    "L 6 -10 L 0 -10 L -2 -4 L -6 -2 L -8 -10 L -12 -10 L -8 6 Z");
-            svg.setFill(col);
-            svg.setStroke(ColorMap.strokeColor(player));
-        } else {
-            svg.setContent("M -8 10 H 8 V 2 H 12 L 0 -10 L -12 2 H -8 Z");
-            svg.setFill(col);
-            svg.setStroke(ColorMap.strokeColor(player));
+            return "M -10 10 H -4 L 0 2 L 6 10 H 12 L 5 0 L 12 -2 L 12 -4 L 6 -6\n" +
+                    "L 6 -10 L 0 -10 L -2 -4 L -6 -2 L -8 -10 L -12 -10 L -8 6 Z";
         }
-        return svg;
+        return "M -8 10 H 8 V 2 H 12 L 0 -10 L -12 2 H -8 Z";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package ch.epfl.chacun.gui;
+
+import ch.epfl.chacun.Preconditions;
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A cache of decoded tile images, keyed by tile id and resolution. The least recently used images are
+ * evicted as soon as the decoded size of the cached images exceeds the byte budget of the cache.
+ * All the methods of this class are thread safe.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class ImageCache {
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long byteBudget;
+    private final Map<Key, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a new empty ImageCache.
+     *
+     * @param byteBudget the maximum decoded size of the cached images, in bytes
+     * @throws IllegalArgumentException if the byte budget is not strictly positive
+     */
+    public ImageCache(long byteBudget) {
+        Preconditions.checkArgument(byteBudget > 0);
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Returns the image of the given tile at the given resolution, decoding it with the given decoder
+     * if it is not cached yet. The decoder is called outside of the lock of the cache.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @param decoder   the decoder of the image, called on a cache miss
+     * @return the image
+     */
+    public Image get(int tileId, int pixelSize, Supplier<Image> decoder) {
+        Image image = getIfPresent(tileId, pixelSize);
+        if (image == null) {
+            countMiss();
+            image = decoder.get();
+            put(tileId, pixelSize, image);
+        }
+        return image;
+    }
+
+    /**
+     * Returns the image of the given tile at the given resolution if it is cached, and counts the request
+     * as a hit if it is. As the same image may be looked up many times while it is being decoded, a miss
+     * is only counted by {@link #countMiss()} when a decode starts.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @return the cached image, or null if it is not cached
+     */
+    public synchronized Image getIfPresent(int tileId, int pixelSize) {
+        Image image = images.get(new Key(tileId, pixelSize));
+        if (image != null) hits += 1;
+        return image;
+    }
+
+    /**
+     * Counts a request that had to decode an image.
+     */
+    synchronized void countMiss() {
+        misses += 1;
+    }
+
+    /**
+     * Adds the image of the given tile at the given resolution to the cache, then evicts the least recently
+     * used images until the cache fits its budget again. The image just added is never evicted.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @param image     the decoded image
+     */
+    public synchronized void put(int tileId, int pixelSize, Image image) {
+        Key key = new Key(tileId, pixelSize);
+        if (images.put(key, image) == null) bytes += key.bytes();
+
+        Iterator<Key> eldest = images.keySet().iterator();
+        while (bytes > byteBudget && images.size() > 1) {
+            Key evicted = eldest.next();
+            eldest.remove();
+            bytes -= evicted.bytes();
+            evictions += 1;
+        }
+    }
+
+    /**
+     * Returns whether the image of the given tile at the given resolution is cached.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @return true if the image is cached, false otherwise
+     */
+    public synchronized boolean contains(int tileId, int pixelSize) {
+        return images.containsKey(new Key(tileId, pixelSize));
+    }
+
+    /**
+     * Returns the current statistics of this cache.
+     *
+     * @return the statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, images.size(), bytes, byteBudget);
+    }
+
+    /**
+     * The key of a cached image.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @author Bjork Pedersen (376143)
+     */
+    private record Key(int tileId, int pixelSize) {
+        /**
+         * Returns the decoded size of the image, in bytes.
+         *
+         * @return the size of the image
+         */
+        private long bytes() {
+            return (long) pixelSize * pixelSize * BYTES_PER_PIXEL;
+        }
+    }
+
+    /**
+     * The statistics of an image cache.
+     *
+     * @param hits       the number of requests served from the cache
+     * @param misses     the number of requests that had to decode an image
+     * @param evictions  the number of images evicted to fit the budget
+     * @param size       the number of cached images
+     * @param bytes      the decoded size of the cached images, in bytes
+     * @param byteBudget the byte budget of the cache
+     * @author Bjork Pedersen (376143)
+     */
+    public record Stats(long hits, long misses, long evictions, int size, long bytes, long byteBudget) {
+    }
+}
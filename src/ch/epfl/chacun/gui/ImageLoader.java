@@ -1,6 +1,21 @@
 package ch.epfl.chacun.gui;
 
+import ch.epfl.chacun.Tile;
+import ch.epfl.chacun.TileDecks;
+import javafx.application.Platform;
 import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 public class ImageLoader {
     public static final int LARGE_TILE_PIXEL_SIZE = 512;
@@ -9,21 +24,221 @@ public class ImageLoader {
     public static final int NORMAL_TILE_FIT_SIZE = 128;
     public static final int MARKER_PIXEL_SIZE = 98;
     public static final int MARKER_FIT_SIZE = 48;
+    // Resolutions of the tile images, from the smallest thumbnail to the large preview
+    private static final int[] TILE_PIXEL_SIZES = {64, 128, NORMAL_TILE_PIXEL_SIZE, LARGE_TILE_PIXEL_SIZE};
+
+    // Enough for every tile in both resolutions, can be lowered with -Dchacun.imageCacheBytes
+    public static final long DEFAULT_CACHE_BYTES = 128L * 1024 * 1024;
+    private static final ImageCache CACHE =
+            new ImageCache(Long.getLong("chacun.imageCacheBytes", DEFAULT_CACHE_BYTES));
+
+    // Packed images, mapped at startup if the archive was built, see TileImageArchiveBuilder
+    private static final TileImageArchive ARCHIVE = TileImageArchive.openIfPresent(
+            Path.of(System.getProperty("chacun.imageArchive", TileImageArchive.DEFAULT_FILE_NAME)));
+
+    // Images being decoded in the background, so that each one is only decoded once
+    private static final Map<Long, CompletableFuture<Image>> PENDING = new ConcurrentHashMap<>();
+    private static final ExecutorService DECODERS = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            Thread.ofPlatform().name("image-decoder-", 0).daemon().factory());
 
     private ImageLoader() {
     }
 
     public static Image normalImageForTile(int tileId) {
-        if (tileId < 10) {
-            return new Image(STR. "/256/0\{ tileId }.jpg" );
-        }
-        return new Image(STR. "/256/\{ tileId }.jpg" );
+        return CACHE.get(tileId, NORMAL_TILE_PIXEL_SIZE, () -> decode(NORMAL_TILE_PIXEL_SIZE, tileId));
     }
 
     public static Image largeImageForTile(int tileId) {
-        if (tileId < 10) {
-            return new Image(STR. "/512/0\{ tileId }.jpg" );
+        return CACHE.get(tileId, LARGE_TILE_PIXEL_SIZE, () -> decode(LARGE_TILE_PIXEL_SIZE, tileId));
+    }
+
+    /**
+     * Returns the normal image of the given tile if it is already decoded, or the placeholder otherwise.
+     * In the latter case, the image is decoded in the background and given to the consumer on the
+     * JavaFX application thread once it is ready.
+     *
+     * @param tileId   the id of the tile
+     * @param onLoaded the consumer of the image, only called if the placeholder was returned
+     * @return the image of the tile, or the placeholder
+     */
+    public static Image normalImageForTile(int tileId, Consumer<Image> onLoaded) {
+        return imageOrPlaceholder(tileId, NORMAL_TILE_PIXEL_SIZE, onLoaded);
+    }
+
+    /**
+     * Returns the large image of the given tile if it is already decoded, or the placeholder otherwise.
+     * In the latter case, the image is decoded in the background and given to the consumer on the
+     * JavaFX application thread once it is ready.
+     *
+     * @param tileId   the id of the tile
+     * @param onLoaded the consumer of the image, only called if the placeholder was returned
+     * @return the image of the tile, or the placeholder
+     */
+    public static Image largeImageForTile(int tileId, Consumer<Image> onLoaded) {
+        return imageOrPlaceholder(tileId, LARGE_TILE_PIXEL_SIZE, onLoaded);
+    }
+
+    /**
+     * Returns the image of the given tile at the given resolution if it is already decoded. Otherwise, the
+     * image is decoded in the background and given to the consumer on the JavaFX application thread once it
+     * is ready, and until then the image of the tile at the closest decoded resolution is returned, so that
+     * changing resolution does not show the placeholder. The placeholder is only returned if no image of
+     * the tile is decoded.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels, as returned by {@link #tilePixelSizeFor(double)}
+     * @param onLoaded  the consumer of the image, only called if the image at that resolution was not
+     *                  decoded yet
+     * @return the image of the tile, at that resolution if possible, or the placeholder
+     */
+    public static Image tileImage(int tileId, int pixelSize, Consumer<Image> onLoaded) {
+        Image image = imageOrPlaceholder(tileId, pixelSize, onLoaded);
+        if (image != placeholder()) return image;
+        // Closest larger image first, as scaling it down stays sharp, then closest smaller one
+        for (int i = 0; i < TILE_PIXEL_SIZES.length; ++i) {
+            if (TILE_PIXEL_SIZES[i] <= pixelSize) continue;
+            Image larger = CACHE.getIfPresent(tileId, TILE_PIXEL_SIZES[i]);
+            if (larger != null) return larger;
+        }
+        for (int i = TILE_PIXEL_SIZES.length - 1; i >= 0; --i) {
+            if (TILE_PIXEL_SIZES[i] >= pixelSize) continue;
+            Image smaller = CACHE.getIfPresent(tileId, TILE_PIXEL_SIZES[i]);
+            if (smaller != null) return smaller;
+        }
+        return image;
+    }
+
+    /**
+     * Returns the resolution of the tile images to use for tiles displayed at the given size. Like the
+     * normal images shown at the normal fit size, images have twice the displayed size, so that they stay
+     * sharp on high density screens.
+     *
+     * @param displayedSize the side of the displayed tiles, in pixels
+     * @return the side of the images to use, in pixels
+     */
+    public static int tilePixelSizeFor(double displayedSize) {
+        for (int pixelSize : TILE_PIXEL_SIZES) {
+            if (pixelSize >= 2 * displayedSize) return pixelSize;
+        }
+        return LARGE_TILE_PIXEL_SIZE;
+    }
+
+    /**
+     * Decodes the normal images of the given tiles in parallel in the background, if they are not
+     * decoded yet.
+     *
+     * @param tileIds the ids of the tiles
+     */
+    public static void warmNormalImages(Iterable<Integer> tileIds) {
+        for (int tileId : tileIds) loadAsync(tileId, NORMAL_TILE_PIXEL_SIZE);
+    }
+
+    /**
+     * Decodes in the background both images of the tile to place and of the next tiles of each deck,
+     * so that the preview and the placed tile appear instantly. Images already decoded or being decoded
+     * are skipped.
+     *
+     * @param tileToPlace the tile to place, may be null
+     * @param decks       the decks the next tiles will be drawn from
+     * @param count       the number of tiles to prefetch from the top of each deck
+     */
+    public static void prefetchNextTiles(Tile tileToPlace, TileDecks decks, int count) {
+        List<Tile> nextTiles = new ArrayList<>();
+        if (tileToPlace != null) nextTiles.add(tileToPlace);
+        nextTiles.addAll(decks.normalTiles().subList(0, Math.min(count, decks.normalTiles().size())));
+        nextTiles.addAll(decks.menhirTiles().subList(0, Math.min(count, decks.menhirTiles().size())));
+
+        for (Tile tile : nextTiles) {
+            for (int pixelSize : new int[]{NORMAL_TILE_PIXEL_SIZE, LARGE_TILE_PIXEL_SIZE}) {
+                if (!CACHE.contains(tile.id(), pixelSize)) loadAsync(tile.id(), pixelSize);
+            }
+        }
+    }
+
+    /**
+     * Returns the grey image shown while a tile image is being decoded, and on empty cells.
+     *
+     * @return the placeholder image
+     */
+    public static Image placeholder() {
+        return Placeholder.IMAGE;
+    }
+
+    public static ImageCache.Stats cacheStats() {
+        return CACHE.stats();
+    }
+
+    private static Image imageOrPlaceholder(int tileId, int pixelSize, Consumer<Image> onLoaded) {
+        Image cached = CACHE.getIfPresent(tileId, pixelSize);
+        if (cached != null) return cached;
+        loadAsync(tileId, pixelSize).thenAccept(image -> Platform.runLater(() -> onLoaded.accept(image)));
+        return placeholder();
+    }
+
+    /**
+     * Decodes the image of the given tile at the given resolution on the decoding pool, and adds it
+     * to the cache. Each image is decoded at most once at a time, and not at all if it was cached since
+     * the caller looked it up.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @return the future decoded image
+     */
+    static CompletableFuture<Image> loadAsync(int tileId, int pixelSize) {
+        long key = TileImageArchive.key(tileId, pixelSize);
+        CompletableFuture<Image> created = new CompletableFuture<>();
+        CompletableFuture<Image> pending = PENDING.putIfAbsent(key, created);
+        if (pending != null) return pending;
+
+        // A decode may have completed, and left the pending images, since the caller looked the cache up
+        Image cached = CACHE.getIfPresent(tileId, pixelSize);
+        if (cached != null) {
+            PENDING.remove(key);
+            created.complete(cached);
+            return created;
+        }
+
+        CACHE.countMiss();
+        DECODERS.execute(() -> {
+            try {
+                Image image = decode(pixelSize, tileId);
+                CACHE.put(tileId, pixelSize, image);
+                created.complete(image);
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            } finally {
+                PENDING.remove(key);
+            }
+        });
+        return created;
+    }
+
+    private static Image decode(int pixelSize, int tileId) {
+        if (ARCHIVE != null) {
+            Image packed = ARCHIVE.read(tileId, pixelSize);
+            if (packed != null) return packed;
+        }
+
+        // Without archive, smaller resolutions are scaled down from the closest larger source image
+        int sourceSize = pixelSize > NORMAL_TILE_PIXEL_SIZE ? LARGE_TILE_PIXEL_SIZE : NORMAL_TILE_PIXEL_SIZE;
+        String path = tileId < 10
+                ? STR. "/\{ sourceSize }/0\{ tileId }.jpg"
+                : STR. "/\{ sourceSize }/\{ tileId }.jpg" ;
+        if (pixelSize == sourceSize) return new Image(path);
+        return new Image(path, pixelSize, pixelSize, true, true);
+    }
+
+    /**
+     * Holds the placeholder image, created on first use once the JavaFX toolkit is running.
+     */
+    private static final class Placeholder {
+        private static final Image IMAGE = createPlaceholder();
+
+        private static Image createPlaceholder() {
+            WritableImage emptyTile = new WritableImage(1, 1);
+            emptyTile.getPixelWriter().setColor(0, 0, Color.gray(0.98));
+            return emptyTile;
         }
-        return new Image(STR. "/512/\{ tileId }.jpg" );
     }
 }
@@ -16,6 +16,10 @@ import java.util.random.RandomGenerator;
 import java.util.random.RandomGeneratorFactory;
 
 public class Main extends Application {
+    // Set this system property to true to draw the board onto a single canvas
+    private static final String CANVAS_BOARD_PROPERTY = "chacun.canvasBoard";
+    // Number of tiles of each deck whose images are decoded ahead of time
+    private static final int PREFETCHED_TILES = 3;
 
 
     public static void main(String[] args) {
@@ -43,23 +47,33 @@ public class Main extends Application {
         Collections.shuffle(tiles, randomGenerator);
         TileDecks tileDecks = tileListToTileDeck(tiles);
 
+        //Decodes the board images in the background, in the order in which the tiles will be drawn
+        List<Integer> tileIds = new ArrayList<>();
+        for (List<Tile> deck : List.of(tileDecks.startTiles(), tileDecks.normalTiles(), tileDecks.menhirTiles())) {
+            for (Tile tile : deck) tileIds.add(tile.id());
+        }
+        ImageLoader.warmNormalImages(tileIds);
+
 
         //PlayersUI parameters initialization
         TextMaker textMaker = new TextMakerFr(players); //Also used for BoardUI
         GameState gameState = GameState.initial(playerColors, tileDecks, textMaker);
         SimpleObjectProperty<GameState> state = new SimpleObjectProperty<>(gameState); //Also used for BoardUI
+        state.addListener((o, oldState, newState) ->
+                ImageLoader.prefetchNextTiles(newState.tileToPlace(), newState.tileDecks(), PREFETCHED_TILES));
 
         //ActionsUI parameters initialization
-        SimpleObjectProperty<List<String>> obsActions = new SimpleObjectProperty<>(new ArrayList<>());
-        Consumer<String> executeAction = s -> {
-            GameState state1 = state.getValue();
-            ActionEncoder.StateAction stateAction = ActionEncoder.decodeAndApply(state1, s);
-            state1 = stateAction.getGameState();
-            List<String> newActions = new ArrayList<>(obsActions.get());
-            newActions.add(stateAction.getEncodedAction());
-            obsActions.set(newActions);
-            state.set(state1);
-        };
+        SimpleObjectProperty<List<String>> obsActions = new SimpleObjectProperty<>(List.of());
+
+        //Transitions are computed by the worker, which feeds the event stream of the game
+        GameEventPublisher gameEvents = new GameEventPublisher();
+        GameStateWorker worker = new GameStateWorker(state, obsActions, gameEvents);
+        primaryStage.setOnHidden(e -> {
+            worker.shutdown();
+            gameEvents.close();
+        });
+
+        Consumer<String> executeAction = s -> worker.submit(state1 -> ActionEncoder.decodeAndApply(state1, s));
 
         //DecksUI parameters initialisation
         ObservableValue<Tile> obsTileToPlace = state.map(GameState::tileToPlace);
@@ -72,16 +86,16 @@ public class Main extends Application {
                 return textMaker.clickToUnoccupy();
             } else return "";
         });
-        Consumer<Occupant> handler = o -> {
-            GameState state1 = state.getValue();
+        Consumer<Occupant> handler = o -> worker.submit(state1 -> {
             if (state1.nextAction() == GameState.Action.OCCUPY_TILE) {
-                String action = ActionEncoder.withNewOccupant(state1, null).getEncodedAction();
-                List<String> updatedActions = new ArrayList<>(obsActions.getValue());
-                updatedActions.add(action);
-                obsActions.set(updatedActions);
-                state.set(state1.withNewOccupant(null));
-            } else if (state1.nextAction() == GameState.Action.RETAKE_PAWN) state.set(state1.withOccupantRemoved(null));
-        };
+                return new ActionEncoder.StateAction(
+                        state1.withNewOccupant(null),
+                        ActionEncoder.encodeNewOccupant(null));
+            } else if (state1.nextAction() == GameState.Action.RETAKE_PAWN) {
+                return new ActionEncoder.StateAction(state1.withOccupantRemoved(null), null);
+            }
+            return null;
+        });
 
         //MessageBoardUI parameters initialization
         ObservableValue<List<MessageBoard.Message>> obsMessageBoard = state.
@@ -98,45 +112,48 @@ public class Main extends Application {
             }
             return occupants;
         });
-        Set<Integer> highlightedTiles = new HashSet<>(); //Also used in MessageBoardUI
-        ObjectProperty<Set<Integer>> obsHighlightedTiles = new SimpleObjectProperty<>(highlightedTiles);
+        ObjectProperty<IntSet> obsHighlightedTiles = new SimpleObjectProperty<>(IntSet.EMPTY); //Also used in MessageBoardUI
         Consumer<Rotation> rotateTile = r -> {
             Rotation currentRotation = rotation.getValue();
             Rotation newRotation = currentRotation.add(r);
             rotation.set(newRotation);
         };
         Consumer<Pos> placeTile = p -> {
-            GameState state1 = state.getValue();
-            PlacedTile placedTile = new PlacedTile(
-                    state1.tileToPlace(),
-                    state1.currentPlayer(),
-                    rotation.getValue(),
-                    p
-            );
-            String action = ActionEncoder.withPlacedTile(state1, placedTile).getEncodedAction();
-            List<String> updatedActions = new ArrayList<>(obsActions.getValue());
-            updatedActions.add(action);
-            obsActions.set(updatedActions);
-            state.set(state.get().withPlacedTile(placedTile));
+            Rotation placedRotation = rotation.getValue();
+            worker.submit(state1 -> {
+                if (state1.nextAction() != GameState.Action.PLACE_TILE) return null;
+                PlacedTile placedTile = new PlacedTile(
+                        state1.tileToPlace(),
+                        state1.currentPlayer(),
+                        placedRotation,
+                        p
+                );
+                if (!state1.board().canAddTile(placedTile)) return null;
+                return ActionEncoder.withPlacedTile(state1, placedTile);
+            });
         };
-        Consumer<Occupant> selectOccupant = o -> {
-            GameState state1 = state.getValue();
-            String action = "";
-            List<String> updatedActions = new ArrayList<>(obsActions.getValue());
+        Consumer<Occupant> selectOccupant = o -> worker.submit(state1 -> {
             if (state1.nextAction() == GameState.Action.OCCUPY_TILE &&
                     o.zoneId() / 10 == state1.board().lastPlacedTile().id()) {
-                action = ActionEncoder.withNewOccupant(state1, o).getEncodedAction();
-                state.set(state1.withNewOccupant(o));
+                return ActionEncoder.withNewOccupant(state1, o);
             } else if (state1.nextAction() == GameState.Action.RETAKE_PAWN && o.kind() == Occupant.Kind.PAWN) {
-                action = ActionEncoder.withOccupantRemoved(state1, o).getEncodedAction();
-                state.set(state1.withOccupantRemoved(o));
+                return ActionEncoder.withOccupantRemoved(state1, o);
             }
-            if (!action.isEmpty()) updatedActions.add(action);
-            obsActions.set(updatedActions);
-        };
+            return null;
+        });
 
         //Creation of all the Nodes and the Scene for the generalUI.
-        Node boardUI = BoardUI.create(
+        Node boardUI = Boolean.getBoolean(CANVAS_BOARD_PROPERTY)
+                ? BoardCanvasUI.create(
+                REACH,
+                state,
+                rotation,
+                visibleOccupants,
+                obsHighlightedTiles,
+                rotateTile,
+                placeTile,
+                selectOccupant)
+                : BoardUI.create(
                 REACH,
                 state,
                 rotation,
@@ -160,7 +177,7 @@ public class Main extends Application {
 
         gameView.setCenter(boardUI);
         gameView.setRight(sidePanel);
-        state.set(state.getValue().withStartingTilePlaced());
+        worker.submit(state1 -> new ActionEncoder.StateAction(state1.withStartingTilePlaced(), null));
 
         //Settings of the primary stage.
         Scene scene = new Scene(gameView);
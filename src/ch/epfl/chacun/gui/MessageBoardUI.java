@@ -1,18 +1,17 @@
 package ch.epfl.chacun.gui;
 
+import ch.epfl.chacun.IntSet;
 import ch.epfl.chacun.MessageBoard;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.text.Text;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-
-import static javafx.application.Platform.runLater;
 
 /**
  * This class provides a user interface for the message board in the game.
@@ -34,68 +33,115 @@ public class MessageBoardUI {
     }
 
     /**
-     * Creates a new Node for the message board UI.
+     * Creates a new Node for the message board UI. Messages are only ever appended to the message board,
+     * so only the new messages are added to the list, whose cells are reused as it scrolls.
      *
      * @param observableMessageBoard the observable message board
      * @param observableTileIds      the observable tile IDs
      * @return a Node representing the message board UI
      */
     public static Node create(ObservableValue<List<MessageBoard.Message>> observableMessageBoard,
-                              ObjectProperty<Set<Integer>> observableTileIds) {
-        VBox box = new VBox();
+                              ObjectProperty<IntSet> observableTileIds) {
+        ObservableList<MessageBoard.Message> messages =
+                FXCollections.observableArrayList(observableMessageBoard.getValue());
+        ListView<MessageBoard.Message> listView = new ListView<>(messages);
+        listView.setId("message-board");
+        listView.getStylesheets().add("message-board.css");
+        listView.setFocusTraversable(false);
+        listView.setCellFactory(l -> new MessageCell(observableTileIds));
+
         observableMessageBoard.addListener((o, oldObs, newObs) -> {
-            box.getChildren().clear();
-            for (int i = 0; i < newObs.size(); ++i) {
-                MessageBoard.Message currentMessage = newObs.get(i);
-                Text text = createMessageText(currentMessage, observableTileIds);
-                box.getChildren().add(text);
+            if (!isAppendedTo(messages, newObs)) {
+                messages.setAll(newObs);
+            } else if (newObs.size() > messages.size()) {
+                messages.addAll(newObs.subList(messages.size(), newObs.size()));
+            } else {
+                return;
             }
+            listView.scrollTo(messages.size() - 1);
         });
+        return listView;
+    }
 
-        return createScrollPane(box);
+    /**
+     * Returns whether the given new messages only append messages to the displayed ones.
+     *
+     * @param displayed the displayed messages
+     * @param messages  the new messages
+     * @return true if the displayed messages are a prefix of the new messages, false otherwise
+     */
+    private static boolean isAppendedTo(List<MessageBoard.Message> displayed, List<MessageBoard.Message> messages) {
+        if (displayed.size() > messages.size()) return false;
+        // Comparing the last displayed message is enough, as the message board is never rewritten
+        return displayed.isEmpty() || displayed.getLast().equals(messages.get(displayed.size() - 1));
     }
 
     /**
-     * Creates a Text for a message on the message board. The Text includes the message's text and event handlers
-     * for when the mouse enters and exits the Text. When the mouse enters the Text, the message's tile IDs are added
-     * to the observable tile IDs. When the mouse exits the Text,
-     * the message's tile IDs are removed from the observable tile IDs.
+     * Adds the tile IDs of a message to the highlighted tile IDs, without copying them if nothing else
+     * is highlighted. Setting the same set again does not notify the listeners.
      *
-     * @param currentMessage    The message for which the Text is being created.
-     * @param observableTileIds An ObjectProperty of a Set of Integers representing the observable tile IDs.
-     * @return A Text for the message.
+     * @param observableTileIds the highlighted tile IDs
+     * @param tileIds           the tile IDs of the message
      */
-    private static Text createMessageText(
-            MessageBoard.Message currentMessage,
-            ObjectProperty<Set<Integer>> observableTileIds) {
-        Text text = new Text(currentMessage.text());
-        text.setWrappingWidth(TEXT_WRAPPING_WIDTH);
-        text.setOnMouseEntered(mouseEvent -> {
-            Set<Integer> updatedObservableTileIds = new HashSet<>(observableTileIds.getValue());
-            updatedObservableTileIds.addAll(currentMessage.tileIds());
-            observableTileIds.set(updatedObservableTileIds);
-        });
-        text.setOnMouseExited(mouseEvent -> {
-            Set<Integer> updatedObservableTileIds = new HashSet<>(observableTileIds.getValue());
-            updatedObservableTileIds.removeAll(currentMessage.tileIds());
-            observableTileIds.set(updatedObservableTileIds);
-        });
-        return text;
+    private static void highlight(ObjectProperty<IntSet> observableTileIds, IntSet tileIds) {
+        observableTileIds.set(observableTileIds.getValue().union(tileIds));
     }
 
     /**
-     * Creates a ScrollPane for a VBox. The ScrollPane includes the VBox and has the ID "message-board". It also has
-     * the stylesheet "message-board.css". After the ScrollPane is created, its vertical scroll value is set to 1.
+     * Removes the tile IDs of a message from the highlighted tile IDs, without copying them if none
+     * of them is highlighted.
      *
-     * @param box The VBox for which the ScrollPane is being created.
-     * @return A ScrollPane for the VBox.
+     * @param observableTileIds the highlighted tile IDs
+     * @param tileIds           the tile IDs of the message
      */
-    private static ScrollPane createScrollPane(VBox box) {
-        ScrollPane messageScrollPane = new ScrollPane(box);
-        messageScrollPane.setId("message-board");
-        messageScrollPane.getStylesheets().add("message-board.css");
-        messageScrollPane.layout();
-        messageScrollPane.setVvalue(1);
-        return messageScrollPane;
+    private static void unhighlight(ObjectProperty<IntSet> observableTileIds, IntSet tileIds) {
+        observableTileIds.set(observableTileIds.getValue().difference(tileIds));
+    }
+
+    /**
+     * A reusable cell of the message list. While the mouse is over it, the tiles of its message are
+     * highlighted.
+     *
+     * @author Bjork Pedersen (376143)
+     */
+    private static final class MessageCell extends ListCell<MessageBoard.Message> {
+        private final Text text = new Text();
+        private final ObjectProperty<IntSet> observableTileIds;
+
+        /**
+         * Constructs a new empty MessageCell.
+         *
+         * @param observableTileIds the highlighted tile IDs
+         */
+        private MessageCell(ObjectProperty<IntSet> observableTileIds) {
+            this.observableTileIds = observableTileIds;
+            text.setWrappingWidth(TEXT_WRAPPING_WIDTH);
+            hoverProperty().addListener((o, wasHovered, isHovered) -> {
+                MessageBoard.Message message = getItem();
+                if (message == null) return;
+                if (isHovered) {
+                    highlight(observableTileIds, message.tileIds());
+                } else {
+                    unhighlight(observableTileIds, message.tileIds());
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(MessageBoard.Message message, boolean empty) {
+            MessageBoard.Message previous = getItem();
+            if (isHover() && previous != null && previous != message) {
+                unhighlight(observableTileIds, previous.tileIds());
+            }
+            super.updateItem(message, empty);
+            if (empty || message == null) {
+                setGraphic(null);
+            } else {
+                text.setText(message.text());
+                setGraphic(text);
+                // The hover property does not change when the cell is reused under the mouse
+                if (isHover() && previous != message) highlight(observableTileIds, message.tileIds());
+            }
+        }
     }
-}
\ No newline at end of file
+}
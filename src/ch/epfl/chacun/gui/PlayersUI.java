@@ -1,6 +1,9 @@
 package ch.epfl.chacun.gui;
 
 import ch.epfl.chacun.*;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.Node;
 import javafx.scene.layout.VBox;
@@ -41,21 +44,20 @@ public class PlayersUI {
         generalBox.setId("players");
 
         ObservableValue<PlayerColor> currentPlayer = obsGameState.map(GameState::currentPlayer);
-        ObservableValue<Map<PlayerColor, Integer>> points = obsGameState.
-                map(gameState -> gameState.messageBoard().points());
-
-        obsGameState.addListener((o, oldState, newState) -> {
-            points.getValue().clear();
-            newState.messageBoard().points().forEach((k, v) -> points.getValue().put(k, v));
-        });
+        // Computed once per state and shared by every node, which only updates when its own player changed
+        ObservableValue<Map<PlayerColor, PlayerStats>> playerStats = obsGameState.map(GameState::playerStats);
+        // Updated from one state to the next, so that only the areas that changed are scored again
+        ObjectProperty<ScoreProjection> projection =
+                new SimpleObjectProperty<>(ScoreProjection.of(obsGameState.getValue()));
+        obsGameState.addListener((o, oldState, newState) -> projection.set(projection.get().withState(newState)));
 
         for (PlayerColor player : obsGameState.getValue().players()) {
             TextFlow playerTextFlow = createPlayerTextFlow(
                     player,
-                    points,
+                    playerStats.map(stats -> stats.get(player)),
+                    projection.map(p -> p.projectedPoints(player)),
                     text,
                     currentPlayer,
-                    obsGameState,
                     generalBox);
             generalBox.getChildren().add(playerTextFlow);
         }
@@ -68,25 +70,24 @@ public class PlayersUI {
      * the player's current points, and icons for the player's occupants.
      *
      * @param player        The player for whom the TextFlow is being created.
-     * @param points        An ObservableValue of a Map that maps each PlayerColor to their current points.
+     * @param stats         An ObservableValue of the player's current statistics.
+     * @param projected     An ObservableValue of the points the player would have if the game ended now.
      * @param text          A TextMaker for creating the text for the player's points.
      * @param currentPlayer An ObservableValue of the current player.
-     * @param obsGameState  An ObservableValue of the current game state.
      * @param generalBox    The VBox that contains the TextFlows for all players.
      * @return A TextFlow for the player.
      */
     private static TextFlow createPlayerTextFlow(PlayerColor player,
-                                                 ObservableValue<Map<PlayerColor,
-                                                         Integer>> points,
+                                                 ObservableValue<PlayerStats> stats,
+                                                 ObservableValue<Integer> projected,
                                                  TextMaker text,
                                                  ObservableValue<PlayerColor> currentPlayer,
-                                                 ObservableValue<GameState> obsGameState,
                                                  VBox generalBox) {
         TextFlow playerTextFlow = new TextFlow();
         playerTextFlow.getStyleClass().add("player");
 
         Circle playerCircle = new Circle(5, ColorMap.fillColor(player));
-        Text playerText = createPlayerText(player, points, text);
+        Text playerText = createPlayerText(player, stats, projected, text);
 
         // Keep track of the previous currentPlayer
         final PlayerColor[] previousPlayer = {null};
@@ -115,7 +116,7 @@ public class PlayersUI {
         playerTextFlow.getChildren().add(playerCircle);
         playerTextFlow.getChildren().add(playerText);
 
-        createOccupantIcons(player, obsGameState, playerTextFlow);
+        createOccupantIcons(player, stats, playerTextFlow);
 
         // Store the player in the userData of the TextFlow
         playerTextFlow.setUserData(player);
@@ -124,27 +125,23 @@ public class PlayersUI {
     }
 
     /**
-     * Creates a Text for a player's points.
+     * Creates a Text for a player's points, followed by the points they would have if the game ended now.
      *
-     * @param player The player for whom the Text is being created.
-     * @param points An ObservableValue of a Map that maps each PlayerColor to their current points.
-     * @param text   A TextMaker for creating the text for the player's points.
+     * @param player    The player for whom the Text is being created.
+     * @param stats     An ObservableValue of the player's current statistics.
+     * @param projected An ObservableValue of the points the player would have if the game ended now.
+     * @param text      A TextMaker for creating the text for the player's points.
      * @return A Text for the player's points.
      */
-    private static Text createPlayerText(
-            PlayerColor player,
-            ObservableValue<Map<PlayerColor,
-                    Integer>> points,
-            TextMaker text) {
+    private static Text createPlayerText(PlayerColor player,
+                                         ObservableValue<PlayerStats> stats,
+                                         ObservableValue<Integer> projected,
+                                         TextMaker text) {
         Text playerText = new Text();
-        playerText.textProperty().set(text.playerName(player) + " : " +
-                points.getValue().getOrDefault(player, 0) + "\n");
-
-        points.addListener((o, oldPoints, newPoints) -> {
-            playerText.setText(text.playerName(player) + " : " +
-                    points.getValue().getOrDefault(player, 0) + "\n");
-        });
-
+        playerText.textProperty().bind(Bindings.createStringBinding(
+                () -> text.playerName(player) + " : " + stats.getValue().points()
+                        + " (\u2192 " + projected.getValue() + ")\n",
+                stats, projected));
         return playerText;
     }
 
@@ -152,20 +149,20 @@ public class PlayersUI {
      * Creates icons for a player's occupants and adds them to a TextFlow.
      *
      * @param player         The player for whom the icons are being created.
-     * @param obsGameState   An ObservableValue of the current game state.
+     * @param stats          An ObservableValue of the player's current statistics.
      * @param playerTextFlow The TextFlow to which the icons are added.
      */
     private static void createOccupantIcons(
             PlayerColor player,
-            ObservableValue<GameState> obsGameState,
+            ObservableValue<PlayerStats> stats,
             TextFlow playerTextFlow) {
         for (Occupant.Kind o : List.of(Occupant.Kind.HUT, Occupant.Kind.PAWN)) {
+            ObservableValue<Integer> freeOccupants = stats.map(s -> s.freeOccupantsCount(o));
             for (int i = 0; i < Occupant.occupantsCount(o); ++i) {
                 Node occ = Icon.newFor(player, o);
                 int finalI = i;
 
-                ObservableValue<Double> opacity = obsGameState.map(gameState ->
-                        gameState.freeOccupantsCount(player, o) < finalI + 1 ? 0.1 : 1);
+                ObservableValue<Double> opacity = freeOccupants.map(free -> free < finalI + 1 ? 0.1 : 1);
 
                 occ.opacityProperty().bind(opacity);
 
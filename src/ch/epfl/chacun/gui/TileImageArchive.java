@@ -0,0 +1,140 @@
+package ch.epfl.chacun.gui;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A memory-mapped archive of tile images, built by {@link TileImageArchiveBuilder}. It holds several
+ * resolutions of every tile, either pre-decoded as raw pixels or as JPEG bytes, behind an index of offsets,
+ * so that images are read without looking up one classpath resource per file.
+ *
+ * <p>The archive starts with its magic number, its version and the number of its entries, followed by
+ * the index of the entries and then by their data. Each index entry holds the tile id, the side of the
+ * image in pixels, the format of the data, and the offset and length of the data in the archive.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class TileImageArchive {
+    /**
+     * The default name of the archive file, looked up in the working directory.
+     */
+    public static final String DEFAULT_FILE_NAME = "tiles.pack";
+
+    static final int MAGIC = 0x43_68_43_75;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+    static final int ENTRY_BYTES = 4 * Integer.BYTES + Long.BYTES;
+    static final int FORMAT_BGRA_PRE = 0;
+    static final int FORMAT_JPEG = 1;
+
+    private final ByteBuffer data;
+    private final Map<Long, Entry> index;
+
+    /**
+     * Constructs a new TileImageArchive reading the given mapped data.
+     *
+     * @param data  the content of the archive
+     * @param index the entries of the archive, by key
+     */
+    private TileImageArchive(ByteBuffer data, Map<Long, Entry> index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    /**
+     * Maps the archive at the given path into memory and reads its index.
+     *
+     * @param path the path of the archive
+     * @return the archive, or null if there is no valid archive at the given path
+     */
+    public static TileImageArchive openIfPresent(Path path) {
+        if (!Files.isRegularFile(path)) return null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != MAGIC || data.getInt(Integer.BYTES) != VERSION) return null;
+
+            int count = data.getInt(2 * Integer.BYTES);
+            Map<Long, Entry> index = new HashMap<>();
+            for (int i = 0; i < count; ++i) {
+                int at = HEADER_BYTES + i * ENTRY_BYTES;
+                Entry entry = new Entry(
+                        data.getInt(at + 2 * Integer.BYTES),
+                        data.getLong(at + 3 * Integer.BYTES),
+                        data.getInt(at + 3 * Integer.BYTES + Long.BYTES));
+                if (entry.offset() < 0 || entry.offset() + entry.length() > data.capacity()) return null;
+                index.put(key(data.getInt(at), data.getInt(at + Integer.BYTES)), entry);
+            }
+            return new TileImageArchive(data, index);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether this archive contains the image of the given tile at the given resolution.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @return true if the image is in the archive, false otherwise
+     */
+    public boolean contains(int tileId, int pixelSize) {
+        return index.containsKey(key(tileId, pixelSize));
+    }
+
+    /**
+     * Reads the image of the given tile at the given resolution.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @return the image, or null if it is not in the archive
+     */
+    public Image read(int tileId, int pixelSize) {
+        Entry entry = index.get(key(tileId, pixelSize));
+        if (entry == null) return null;
+
+        ByteBuffer bytes = data.slice((int) entry.offset(), entry.length());
+        if (entry.format() == FORMAT_BGRA_PRE) {
+            WritableImage image = new WritableImage(pixelSize, pixelSize);
+            image.getPixelWriter().setPixels(
+                    0, 0, pixelSize, pixelSize, PixelFormat.getByteBgraPreInstance(), bytes, 4 * pixelSize);
+            return image;
+        }
+        byte[] jpeg = new byte[entry.length()];
+        bytes.get(jpeg);
+        return new Image(new ByteArrayInputStream(jpeg));
+    }
+
+    /**
+     * Returns the key of the image of the given tile at the given resolution.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @return the key of the image
+     */
+    static long key(int tileId, int pixelSize) {
+        return (long) tileId << 32 | pixelSize;
+    }
+
+    /**
+     * The location of an image in the archive.
+     *
+     * @param format the format of the data
+     * @param offset the offset of the data from the start of the archive
+     * @param length the length of the data, in bytes
+     * @author Bjork Pedersen (376143)
+     */
+    private record Entry(int format, long offset, int length) {
+    }
+}
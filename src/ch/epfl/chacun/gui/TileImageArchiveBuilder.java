@@ -0,0 +1,164 @@
+package ch.epfl.chacun.gui;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Build step packing the tile images of the resources directory into a {@link TileImageArchive}.
+ * The 64, 128 and 256 pixel variants are scaled from the 256 pixel images and stored pre-decoded,
+ * while the 512 pixel images are stored as their original JPEG bytes.
+ *
+ * <p>Usage: {@code java ch.epfl.chacun.gui.TileImageArchiveBuilder [resources directory] [archive]}.
+ * The archive is written to {@value TileImageArchive#DEFAULT_FILE_NAME} in the working directory by default,
+ * where the game looks for it; see the README for the full command.
+ *
+ * @author Bjork Pedersen (376143)
+ */
+public final class TileImageArchiveBuilder {
+    private static final int[] DECODED_PIXEL_SIZES = {64, 128, ImageLoader.NORMAL_TILE_PIXEL_SIZE};
+    private static final Pattern TILE_FILE = Pattern.compile("(\\d+)\\.jpg");
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private TileImageArchiveBuilder() {
+    }
+
+    /**
+     * Builds the archive.
+     *
+     * @param args the resources directory and the path of the archive, both optional
+     * @throws IOException if an image cannot be read or the archive cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path resources = Path.of(args.length > 0 ? args[0] : "resources");
+        Path archive = Path.of(args.length > 1 ? args[1] : TileImageArchive.DEFAULT_FILE_NAME);
+        int count = build(resources, archive);
+        System.out.println(STR. "Packed \{ count } images into \{ archive } (\{ Files.size(archive) } bytes)" );
+    }
+
+    /**
+     * Packs the tile images of the given resources directory into an archive at the given path.
+     *
+     * @param resources the resources directory, holding one directory of images per resolution
+     * @param archive   the path of the archive to write
+     * @return the number of images packed
+     * @throws IOException if an image cannot be read or the archive cannot be written
+     */
+    static int build(Path resources, Path archive) throws IOException {
+        List<Variant> variants = new ArrayList<>();
+        for (int tileId : tileIds(resources.resolve(String.valueOf(ImageLoader.NORMAL_TILE_PIXEL_SIZE)))) {
+            BufferedImage source = ImageIO.read(tileFile(resources, ImageLoader.NORMAL_TILE_PIXEL_SIZE, tileId).toFile());
+            for (int pixelSize : DECODED_PIXEL_SIZES) {
+                variants.add(new Variant(tileId, pixelSize, TileImageArchive.FORMAT_BGRA_PRE,
+                        bgraPixels(source, pixelSize)));
+            }
+            Path large = tileFile(resources, ImageLoader.LARGE_TILE_PIXEL_SIZE, tileId);
+            if (Files.isRegularFile(large)) {
+                variants.add(new Variant(tileId, ImageLoader.LARGE_TILE_PIXEL_SIZE, TileImageArchive.FORMAT_JPEG,
+                        Files.readAllBytes(large)));
+            }
+        }
+
+        try (OutputStream file = Files.newOutputStream(archive);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(TileImageArchive.MAGIC);
+            out.writeInt(TileImageArchive.VERSION);
+            out.writeInt(variants.size());
+
+            long offset = TileImageArchive.HEADER_BYTES + (long) variants.size() * TileImageArchive.ENTRY_BYTES;
+            for (Variant variant : variants) {
+                out.writeInt(variant.tileId());
+                out.writeInt(variant.pixelSize());
+                out.writeInt(variant.format());
+                out.writeLong(offset);
+                out.writeInt(variant.data().length);
+                offset += variant.data().length;
+            }
+            for (Variant variant : variants) out.write(variant.data());
+        }
+        return variants.size();
+    }
+
+    /**
+     * Returns the ids of the tiles whose image is in the given directory, in increasing order.
+     *
+     * @param directory the directory
+     * @return the ids of the tiles
+     * @throws IOException if the directory cannot be listed
+     */
+    private static List<Integer> tileIds(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> TILE_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Integer.parseInt(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Returns the path of the image of the given tile at the given resolution.
+     *
+     * @param resources the resources directory
+     * @param pixelSize the side of the image, in pixels
+     * @param tileId    the id of the tile
+     * @return the path of the image
+     */
+    private static Path tileFile(Path resources, int pixelSize, int tileId) {
+        return resources.resolve(String.valueOf(pixelSize)).resolve(STR. "\{ tileId < 10 ? "0" : "" }\{ tileId }.jpg" );
+    }
+
+    /**
+     * Scales the given image to the given size and returns its pixels as premultiplied BGRA bytes.
+     *
+     * @param source    the image
+     * @param pixelSize the side of the scaled image, in pixels
+     * @return the pixels of the scaled image
+     */
+    private static byte[] bgraPixels(BufferedImage source, int pixelSize) {
+        BufferedImage scaled = new BufferedImage(pixelSize, pixelSize, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(source, 0, 0, pixelSize, pixelSize, null);
+        graphics.dispose();
+
+        int[] argb = scaled.getRGB(0, 0, pixelSize, pixelSize, null, 0, pixelSize);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 * argb.length);
+        for (int pixel : argb) {
+            // The tiles are opaque, so their premultiplied and straight colors are the same
+            bytes.write(pixel);
+            bytes.write(pixel >>> 8);
+            bytes.write(pixel >>> 16);
+            bytes.write(pixel >>> 24);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A variant of a tile image to pack.
+     *
+     * @param tileId    the id of the tile
+     * @param pixelSize the side of the image, in pixels
+     * @param format    the format of the data
+     * @param data      the data of the image
+     * @author Bjork Pedersen (376143)
+     */
+    private record Variant(int tileId, int pixelSize, int format, byte[] data) {
+    }
+}
@@ -0,0 +1,84 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimalSetTest {
+    @Test
+    void animalSetBehavesLikeHashSet() {
+        var random = new Random(2024);
+        for (int i = 0; i < 50; i += 1) {
+            var expected = new HashSet<Animal>();
+            var set = AnimalSet.EMPTY;
+            for (int j = 0; j < 20; j += 1) {
+                var added = randomAnimals(random, random.nextInt(6));
+                var previous = set;
+                set = set.withAll(added);
+                expected.addAll(added);
+
+                assertEquals(expected, set);
+                assertEquals(set, expected);
+                assertEquals(expected.hashCode(), set.hashCode());
+                assertEquals(expected.size(), set.size());
+                assertEquals(expected, new HashSet<>(set));
+                for (var kind : Animal.Kind.values()) {
+                    assertEquals(expected.stream().filter(a -> a.kind() == kind).count(), set.count(kind));
+                }
+                if (previous.containsAll(added)) assertSame(previous, set);
+            }
+            for (var animal : randomAnimals(random, 20)) assertEquals(expected.contains(animal), set.contains(animal));
+        }
+    }
+
+    @Test
+    void animalSetDifferenceAndUnionWork() {
+        var random = new Random(7);
+        for (int i = 0; i < 50; i += 1) {
+            var first = randomAnimals(random, random.nextInt(30));
+            var second = randomAnimals(random, random.nextInt(30));
+            var firstSet = AnimalSet.copyOf(first);
+            var secondSet = AnimalSet.copyOf(second);
+
+            var difference = new HashSet<>(first);
+            difference.removeAll(second);
+            assertEquals(difference, firstSet.difference(secondSet));
+
+            var union = new HashSet<>(first);
+            union.addAll(second);
+            assertEquals(union, firstSet.withAll(secondSet));
+            assertEquals(firstSet.withAll(second), firstSet.withAll(secondSet));
+            assertSame(firstSet, firstSet.withAll(firstSet.difference(secondSet)));
+            assertSame(firstSet, firstSet.difference(AnimalSet.EMPTY));
+        }
+    }
+
+    @Test
+    void animalSetIsImmutableAndRejectsNegativeIds() {
+        var set = AnimalSet.copyOf(List.of(new Animal(56000, Animal.Kind.DEER), new Animal(3, Animal.Kind.TIGER)));
+        assertThrows(UnsupportedOperationException.class, () -> set.add(new Animal(1, Animal.Kind.DEER)));
+        assertThrows(UnsupportedOperationException.class, set::clear);
+        assertThrows(UnsupportedOperationException.class, () -> {
+            var iterator = set.iterator();
+            iterator.next();
+            iterator.remove();
+        });
+        assertEquals(2, set.size());
+        assertFalse(set.contains(new Animal(-1, Animal.Kind.DEER)));
+        assertFalse(set.contains("deer"));
+        assertThrows(IllegalArgumentException.class, () -> set.withAll(Set.of(new Animal(-1, Animal.Kind.DEER))));
+        assertTrue(AnimalSet.EMPTY.isEmpty());
+        assertFalse(AnimalSet.EMPTY.iterator().hasNext());
+    }
+
+    private static List<Animal> randomAnimals(Random random, int count) {
+        var animals = new ArrayList<Animal>();
+        var kinds = Animal.Kind.values();
+        for (int i = 0; i < count; i += 1) {
+            animals.add(new Animal(random.nextInt(9_500), kinds[random.nextInt(kinds.length)]));
+        }
+        return animals;
+    }
+}
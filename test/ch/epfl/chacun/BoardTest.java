@@ -552,6 +552,44 @@ class BoardTest {
         assertEquals(Set.of(forest1, forest2, forest3), board.forestsClosedByLastTile());
     }
 
+    @Test
+    void boardLastPlacementOutcomeIsEmptyForEmptyBoard() {
+        assertEquals(Board.PlacementOutcome.NONE, Board.EMPTY.lastPlacementOutcome());
+        assertTrue(Board.EMPTY.lastPlacementOutcome().isEmpty());
+    }
+
+    @Test
+    void boardLastPlacementOutcomeFollowsOccupantsOfClosedForest() {
+        var allTiles = allTiles();
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t17 = new PlacedTile(allTiles.get(17), PlayerColor.RED, Rotation.NONE, new Pos(-1, 0));
+        var t27 = new PlacedTile(allTiles.get(27), PlayerColor.RED, Rotation.NONE, new Pos(1, 0));
+        var t37 = new PlacedTile(allTiles.get(37), PlayerColor.RED, Rotation.NONE, new Pos(0, 1));
+
+        var board = Board.EMPTY
+                .withNewTile(t56)
+                .withNewTile(t17)
+                .withNewTile(t27)
+                .withNewTile(t37);
+
+        var forestZones = Set.of(
+                (Zone.Forest) t56.zoneWithId(56_1),
+                (Zone.Forest) t27.zoneWithId(27_3),
+                (Zone.Forest) t37.zoneWithId(37_0));
+        var outcome = board.lastPlacementOutcome();
+        assertEquals(t37, outcome.tile());
+        assertEquals(Set.of(new Area<>(forestZones, List.of(), 0)), outcome.closedForests());
+        assertEquals(Set.of(), outcome.closedRivers());
+        assertFalse(outcome.isEmpty());
+
+        board = board.withOccupant(new Occupant(Occupant.Kind.PAWN, 37_0));
+        var occupiedForest = new Area<>(forestZones, List.of(PlayerColor.RED), 0);
+        assertEquals(Set.of(occupiedForest), board.lastPlacementOutcome().closedForests());
+
+        board = board.withoutGatherersOrFishersIn(Set.of(occupiedForest), Set.of());
+        assertEquals(Set.of(new Area<>(forestZones, List.of(), 0)), board.lastPlacementOutcome().closedForests());
+    }
+
     @Test
     void boardRiversClosedByLastTileWorksWithNoRiverClosed() {
         var allTiles = allTiles();
@@ -947,6 +985,75 @@ class BoardTest {
         assertEquals(board1.hashCode(), board2.hashCode());
     }
 
+    @Test
+    void boardEqualsComparesStructureAndNotHistory() {
+        var allTiles = allTiles();
+
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t17 = new PlacedTile(allTiles.get(17), PlayerColor.BLUE, Rotation.NONE, new Pos(-1, 0));
+        var occupant = new Occupant(Occupant.Kind.PAWN, 17_0);
+
+        var board1 = Board.EMPTY.withNewTile(t56).withNewTile(t17);
+        var board2 = Board.EMPTY.withNewTile(t56).withNewTile(t17).withOccupant(occupant);
+        var board3 = board2.withoutOccupant(occupant);
+
+        assertNotEquals(board1, board2);
+        assertNotEquals(board2, board3);
+        assertEquals(board1, board3);
+        assertEquals(board1.hashCode(), board3.hashCode());
+        assertEquals(board1.hashCode(), board1.hashCode());
+    }
+
+    @Test
+    void boardTilesPlacedAfterReturnsNewTilesInPlacementOrder() {
+        var allTiles = allTiles();
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t17 = new PlacedTile(allTiles.get(17), PlayerColor.BLUE, Rotation.NONE, new Pos(-1, 0));
+        var t27 = new PlacedTile(allTiles.get(27), PlayerColor.RED, Rotation.NONE, new Pos(1, 0));
+        var board1 = Board.EMPTY.withNewTile(t56);
+        var board3 = board1.withNewTile(t17).withNewTile(t27);
+
+        assertEquals(0, Board.EMPTY.tileCount());
+        assertEquals(1, board1.tileCount());
+        assertEquals(3, board3.tileCount());
+        assertEquals(List.of(t17, t27), board3.tilesPlacedAfter(board1.tileCount()));
+        assertEquals(List.of(t56, t17, t27), board3.tilesPlacedAfter(0));
+        assertEquals(List.of(), board3.tilesPlacedAfter(board3.tileCount()));
+    }
+
+    @Test
+    void boardWithNothingNewReturnsSameBoard() {
+        var t56 = new PlacedTile(allTiles().get(56), null, Rotation.NONE, new Pos(0, 0));
+        var board = Board.EMPTY.withNewTile(t56);
+
+        assertSame(board, board.withMoreCancelledAnimals(Set.of()));
+        assertSame(board, board.withoutGatherersOrFishersIn(Set.of(), Set.of()));
+    }
+
+    @Test
+    void boardDerivedQueriesAreComputedOnceAndUnmodifiable() throws InterruptedException {
+        var allTiles = allTiles();
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t17 = new PlacedTile(allTiles.get(17), PlayerColor.BLUE, Rotation.NONE, new Pos(-1, 0));
+        var board = Board.EMPTY.withNewTile(t56).withNewTile(t17)
+                .withOccupant(new Occupant(Occupant.Kind.PAWN, 17_0));
+
+        var results = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i += 1) {
+            threads.add(Thread.ofPlatform().start(() -> results.add(board.insertionPositions())));
+        }
+        for (var thread : threads) thread.join();
+
+        assertEquals(1, results.size());
+        assertSame(board.insertionPositions(), results.iterator().next());
+        assertSame(board.occupants(), board.occupants());
+        assertEquals(1, board.occupantCount(PlayerColor.BLUE, Occupant.Kind.PAWN));
+        assertEquals(0, board.occupantCount(PlayerColor.RED, Occupant.Kind.PAWN));
+        assertThrows(UnsupportedOperationException.class, () -> board.insertionPositions().clear());
+        assertThrows(UnsupportedOperationException.class, () -> board.occupants().clear());
+    }
+
     //<editor-fold desc="Tiles">
     private static List<Tile> allTiles() {
         ArrayList<Tile> tiles = new ArrayList<>();
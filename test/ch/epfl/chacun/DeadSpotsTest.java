@@ -0,0 +1,82 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadSpotsTest {
+    private static Set<Pos> expectedDeadPositions(Board board, TileDecks decks) {
+        var remaining = new ArrayList<>(decks.normalTiles());
+        remaining.addAll(decks.menhirTiles());
+        var dead = new HashSet<Pos>();
+        for (var pos : board.insertionPositions()) {
+            var fillable = false;
+            for (var tile : remaining) {
+                for (var rotation : Rotation.ALL) {
+                    fillable |= board.canAddTile(new PlacedTile(tile, PlayerColor.RED, rotation, pos));
+                }
+            }
+            if (!fillable) dead.add(pos);
+        }
+        return dead;
+    }
+
+    @Test
+    void deadSpotsUpdatedIncrementallyMatchAllRemainingTilesAndRotations() {
+        for (int seed = 0; seed < 3; seed += 1) {
+            var random = new Random(seed);
+            var decks = RandomGames.shuffledDecks(random);
+            var board = RandomGames.startingBoard();
+            var deadSpots = DeadSpots.of(board, decks);
+
+            var sawDeadSpot = false;
+            while (decks.deckSize(Tile.Kind.NORMAL) > 0) {
+                var expected = expectedDeadPositions(board, decks);
+                assertEquals(expected, deadSpots.deadPositions());
+                assertEquals(DeadSpots.of(board, decks).deadPositions(), deadSpots.deadPositions());
+                for (var pos : board.insertionPositions()) {
+                    assertEquals(expected.contains(pos), deadSpots.isDead(pos));
+                }
+                for (var forest : deadSpots.unclosableForests()) assertTrue(forest.openConnections() > 0);
+                for (var river : deadSpots.unclosableRivers()) assertTrue(river.openConnections() > 0);
+                sawDeadSpot |= !expected.isEmpty();
+
+                var tile = decks.topTile(Tile.Kind.NORMAL);
+                decks = decks.withTopTileDrawn(Tile.Kind.NORMAL);
+                var newBoard = RandomGames.withRandomPlacement(board, tile, null, random);
+                deadSpots = newBoard != board ? deadSpots.withPlacedTile(newBoard, decks) : DeadSpots.of(board, decks);
+                board = newBoard;
+            }
+            assertTrue(sawDeadSpot);
+        }
+    }
+
+    @Test
+    void deadSpotsWithoutTilesLeftMakeAllOpenAreasUnclosable() {
+        var board = RandomGames.startingBoard();
+        var deadSpots = DeadSpots.of(board, new TileDecks(List.of(), List.of(), List.of()));
+        assertEquals(board.insertionPositions(), deadSpots.deadPositions());
+        assertFalse(deadSpots.isDead(Pos.ORIGIN));
+        assertFalse(deadSpots.isDead(new Pos(Board.REACH + 1, 0)));
+
+        var startTile = board.tileAt(Pos.ORIGIN);
+        var forests = new HashSet<Area<Zone.Forest>>();
+        var rivers = new HashSet<Area<Zone.River>>();
+        for (var zone : startTile.tile().sideZones()) {
+            if (zone instanceof Zone.Forest forest) forests.add(board.forestArea(forest));
+            if (zone instanceof Zone.River river) rivers.add(board.riverArea(river));
+        }
+        assertEquals(forests, deadSpots.unclosableForests());
+        assertEquals(rivers, deadSpots.unclosableRivers());
+    }
+
+    @Test
+    void deadSpotsWithPlacedTileRejectsBoardWithoutNewTile() {
+        var board = Board.EMPTY.withNewTile(new PlacedTile(Tiles.TILES.get(56), null, Rotation.NONE, Pos.ORIGIN));
+        var decks = new TileDecks(List.of(), List.of(), List.of());
+        var deadSpots = DeadSpots.of(board, decks);
+        assertThrows(IllegalArgumentException.class, () -> deadSpots.withPlacedTile(board, decks));
+    }
+}
@@ -0,0 +1,95 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckCompositionTest {
+    @Test
+    void deckCompositionCountsMatchRemainingTilesAfterEachDraw() {
+        var decks = RandomGames.shuffledDecks(new Random(7));
+        for (var kind : Tile.Kind.values()) {
+            var current = decks;
+            while (true) {
+                var deck = switch (kind) {
+                    case START -> current.startTiles();
+                    case NORMAL -> current.normalTiles();
+                    case MENHIR -> current.menhirTiles();
+                };
+                var composition = current.composition(kind);
+                assertEquals(deck.size(), composition.tileCount());
+
+                var signatures = new HashMap<DeckComposition.SideSignature, Integer>();
+                var animals = new EnumMap<Animal.Kind, Integer>(Animal.Kind.class);
+                for (var animalKind : Animal.Kind.values()) animals.put(animalKind, 0);
+                var fish = 0;
+                var menhirs = 0;
+                var powers = new EnumMap<Zone.SpecialPower, Integer>(Zone.SpecialPower.class);
+                for (var tile : deck) {
+                    signatures.merge(DeckComposition.SideSignature.of(tile), 1, Integer::sum);
+                    for (var zone : tile.zones()) {
+                        if (zone instanceof Zone.Meadow meadow) {
+                            for (var animal : meadow.animals()) animals.merge(animal.kind(), 1, Integer::sum);
+                        }
+                        if (zone instanceof Zone.Water water) fish += water.fishCount();
+                        if (zone instanceof Zone.Forest forest && forest.kind() == Zone.Forest.Kind.WITH_MENHIR) {
+                            menhirs += 1;
+                        }
+                        if (zone.specialPower() != null) powers.merge(zone.specialPower(), 1, Integer::sum);
+                    }
+                }
+                assertEquals(signatures, composition.sideSignatureCounts());
+                for (var entry : signatures.entrySet()) {
+                    assertEquals(entry.getValue(), composition.sideSignatureCount(entry.getKey()));
+                }
+                assertEquals(animals, composition.animalCounts());
+                assertEquals(fish, composition.fishCount());
+                assertEquals(menhirs, composition.menhirCount());
+                for (var power : Zone.SpecialPower.values()) {
+                    assertEquals(powers.getOrDefault(power, 0), composition.specialPowerCount(power));
+                }
+
+                if (deck.isEmpty()) break;
+                current = current.withTopTileDrawn(kind);
+            }
+        }
+    }
+
+    @Test
+    void deckCompositionSideSignatureDoesNotDependOnRotation() {
+        for (var tile : Tiles.TILES) {
+            var rotated = new Tile(tile.id(), tile.kind(), tile.e(), tile.s(), tile.w(), tile.n());
+            assertEquals(DeckComposition.SideSignature.of(tile), DeckComposition.SideSignature.of(rotated));
+        }
+        assertEquals(0, new TileDecks(List.of(), List.of(), List.of()).composition(Tile.Kind.NORMAL)
+                .sideSignatureCount(DeckComposition.SideSignature.of(Tiles.TILES.getFirst())));
+        assertThrows(IllegalArgumentException.class, () -> new DeckComposition.SideSignature(81));
+        // The code 3 is that of the signature of code 1 rotated by a quarter turn
+        assertThrows(IllegalArgumentException.class, () -> new DeckComposition.SideSignature(3));
+        assertEquals(1, new DeckComposition.SideSignature(1).code());
+    }
+
+    @Test
+    void deckCompositionPlaceableProbabilityMatchesPlaceableTiles() {
+        var random = new Random(11);
+        var decks = RandomGames.shuffledDecks(random);
+        var startTile = decks.startTiles().getFirst();
+        var board = Board.EMPTY.withNewTile(new PlacedTile(startTile, null, Rotation.NONE, Pos.ORIGIN));
+        while (decks.deckSize(Tile.Kind.NORMAL) > 0) {
+            var deck = decks.normalTiles();
+            var placeable = 0;
+            for (var tile : deck) {
+                if (board.couldPlaceTile(tile)) placeable += 1;
+            }
+            assertEquals((double) placeable / deck.size(),
+                    decks.composition(Tile.Kind.NORMAL).placeableProbability(board), 1e-12);
+
+            var tile = decks.topTile(Tile.Kind.NORMAL);
+            decks = decks.withTopTileDrawn(Tile.Kind.NORMAL);
+            board = RandomGames.withRandomPlacement(board, tile, null, random);
+        }
+        assertEquals(0, decks.composition(Tile.Kind.NORMAL).placeableProbability(board));
+    }
+}
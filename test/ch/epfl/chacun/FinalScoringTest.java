@@ -0,0 +1,120 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinalScoringTest {
+    @Test
+    void finalScoringCountsLikeTheOldPathOnRandomBoards() {
+        var random = new Random(2024);
+        var textMaker = new TextMakerFr(Map.of(PlayerColor.RED, "Rouge", PlayerColor.BLUE, "Bleu", PlayerColor.GREEN, "Vert"));
+        int wildFires = 0, pitTraps = 0, eatenDeer = 0, rafts = 0;
+        for (int game = 0; game < 40; game += 1) {
+            var tiles = new ArrayList<>(Tiles.TILES.stream().filter(t -> t.kind() != Tile.Kind.START).toList());
+            Collections.shuffle(tiles, random);
+            var board = RandomGames.randomBoards(random, tiles, true).getLast();
+            var lastTile = board.lastPlacedTile();
+            // Animals cancelled during the last turn, after the board whose areas are counted
+            var endOfTurnBoard = board.withMoreCancelledAnimals(randomAnimals(random, board, 3));
+            var messageBoard = new MessageBoard(textMaker, List.of());
+
+            var expected = oldCount(board, endOfTurnBoard.cancelledAnimals(), lastTile, messageBoard);
+            var actual = FinalScoring.count(board, endOfTurnBoard.cancelledAnimals(), lastTile, messageBoard);
+            assertEquals(expected.board(), actual.board());
+            assertEquals(expected.board().cancelledAnimals(), actual.board().cancelledAnimals());
+            assertEquals(expected.messageBoard().messages(), actual.messageBoard().messages());
+            for (int i = 0; i < expected.messageBoard().messages().size(); i += 1) {
+                assertEquals(expected.messageBoard().messages().get(i).text(),
+                        actual.messageBoard().messages().get(i).text());
+            }
+
+            for (var meadow : board.meadowAreas()) {
+                if (!meadow.isOccupied()) continue;
+                if (meadow.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE) != null) wildFires += 1;
+                if (meadow.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP) != null) pitTraps += 1;
+            }
+            for (var riverSystem : board.riverSystemAreas()) {
+                if (riverSystem.isOccupied() && riverSystem.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
+                    rafts += 1;
+                }
+            }
+            eatenDeer += actual.board().cancelledAnimals().size() - endOfTurnBoard.cancelledAnimals().size();
+        }
+        assertTrue(wildFires > 0);
+        assertTrue(pitTraps > 0);
+        assertTrue(eatenDeer > 0);
+        assertTrue(rafts > 0);
+    }
+
+    @Test
+    void finalScoringAddsNoMessageForUnoccupiedAreas() {
+        var board = RandomGames.startingBoard();
+        var messageBoard = new MessageBoard(new TextMakerFr(Map.of()), List.of());
+        var outcome = FinalScoring.count(board, Set.of(), board.lastPlacedTile(), messageBoard);
+        assertEquals(board.cancelledAnimals(), outcome.board().cancelledAnimals());
+        assertEquals(List.of(), outcome.messageBoard().messages());
+    }
+
+    private static Set<Animal> randomAnimals(Random random, Board board, int count) {
+        var animals = new ArrayList<Animal>();
+        for (var meadow : board.meadowAreas()) {
+            for (var zone : meadow.zones()) animals.addAll(zone.animals());
+        }
+        animals.sort(Comparator.comparingInt(Animal::id));
+        Collections.shuffle(animals, random);
+        return Set.copyOf(animals.subList(0, Math.min(count, animals.size())));
+    }
+
+    // The final count as it was before FinalScoring, gathering the animals of a meadow again for each step
+    private static FinalScoring.Outcome oldCount(Board board,
+                                                 Set<Animal> cancelledAnimals,
+                                                 PlacedTile tile,
+                                                 MessageBoard messageBoard) {
+        Board newBoard = board;
+        Set<Animal> deletedAnimals = new HashSet<>(cancelledAnimals);
+        for (Area<Zone.Meadow> meadowArea : board.meadowAreas()) {
+            Zone zoneWithWildFire = meadowArea.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE);
+            Zone zoneWithPitTrap = meadowArea.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP);
+            Map<Animal.Kind, Integer> animalCount = new HashMap<>();
+            for (var kind : Animal.Kind.values()) animalCount.put(kind, 0);
+            for (Animal animal : Area.animals(meadowArea, board.cancelledAnimals())) {
+                animalCount.put(animal.kind(), animalCount.get(animal.kind()) + 1);
+            }
+
+            if (zoneWithWildFire != null) {
+                messageBoard = messageBoard.withScoredMeadow(meadowArea, board.cancelledAnimals());
+            } else if (zoneWithPitTrap != null) {
+                for (Animal animal : Area.animals(meadowArea, board.cancelledAnimals())) {
+                    if (!Area.animals(board.adjacentMeadow(tile.pos(), (Zone.Meadow) zoneWithPitTrap), deletedAnimals)
+                            .contains(animal)
+                            && animal.kind() == Animal.Kind.DEER
+                            && animalCount.get(Animal.Kind.TIGER) > 0) {
+                        deletedAnimals.add(animal);
+                        animalCount.put(Animal.Kind.TIGER, animalCount.get(Animal.Kind.TIGER) - 1);
+                    }
+                }
+                newBoard = board.withMoreCancelledAnimals(deletedAnimals);
+                messageBoard = messageBoard.withScoredPitTrap(meadowArea, deletedAnimals);
+            } else {
+                for (Animal animal : Area.animals(meadowArea, board.cancelledAnimals())) {
+                    if (animal.kind() == Animal.Kind.DEER && animalCount.get(Animal.Kind.TIGER) > 0) {
+                        deletedAnimals.add(animal);
+                        animalCount.put(Animal.Kind.TIGER, animalCount.get(Animal.Kind.TIGER) - 1);
+                    }
+                }
+                newBoard = board.withMoreCancelledAnimals(deletedAnimals);
+                messageBoard = messageBoard.withScoredMeadow(meadowArea, deletedAnimals);
+            }
+        }
+        for (Area<Zone.Water> waterArea : newBoard.riverSystemAreas()) {
+            if (waterArea.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
+                messageBoard = messageBoard.withScoredRaft(waterArea);
+            }
+            messageBoard = messageBoard.withScoredRiverSystem(waterArea);
+        }
+        return new FinalScoring.Outcome(newBoard, messageBoard);
+    }
+}
@@ -0,0 +1,139 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventTest {
+    private static GameState initialState() {
+        var startTiles = new ArrayList<Tile>();
+        var normalTiles = new ArrayList<Tile>();
+        var menhirTiles = new ArrayList<Tile>();
+        for (Tile tile : Tiles.TILES) {
+            switch (tile.kind()) {
+                case START -> startTiles.add(tile);
+                case NORMAL -> normalTiles.add(tile);
+                case MENHIR -> menhirTiles.add(tile);
+            }
+        }
+        var players = List.of(PlayerColor.RED, PlayerColor.BLUE);
+        var textMaker = new TextMakerFr(Map.of(PlayerColor.RED, "Rouge", PlayerColor.BLUE, "Bleu"));
+        return GameState.initial(players, new TileDecks(startTiles, normalTiles, menhirTiles), textMaker);
+    }
+
+    @Test
+    void gameEventBetweenIsEmptyForSameState() {
+        var state = initialState();
+        assertEquals(List.of(), GameEvent.between(state, state));
+    }
+
+    @Test
+    void gameEventBetweenWorksForStartingTile() {
+        var state0 = initialState();
+        var state1 = state0.withStartingTilePlaced();
+
+        var expected = List.of(
+                new GameEvent.TilePlaced(state1.board().lastPlacedTile()),
+                new GameEvent.TurnPassed(PlayerColor.RED, state1.tileToPlace()));
+        assertEquals(expected, GameEvent.between(state0, state1));
+    }
+
+    @Test
+    void gameEventBetweenWorksForPlacedTileAndOccupant() {
+        var state1 = initialState().withStartingTilePlaced();
+        var tile = state1.tileToPlace();
+        PlacedTile placedTile = null;
+        for (Pos pos : state1.board().insertionPositions()) {
+            for (Rotation rotation : Rotation.ALL) {
+                var candidate = new PlacedTile(tile, PlayerColor.RED, rotation, pos);
+                if (placedTile == null && state1.board().canAddTile(candidate)) placedTile = candidate;
+            }
+        }
+        assertNotNull(placedTile);
+
+        // Nothing is occupied yet, so every zone of the tile can take one of the player's pawns
+        var state2 = state1.withPlacedTile(placedTile);
+        assertEquals(GameState.Action.OCCUPY_TILE, state2.nextAction());
+        assertEquals(List.of(new GameEvent.TilePlaced(placedTile)), GameEvent.between(state1, state2));
+
+        var occupant = state2.lastTilePotentialOccupants().stream()
+                .filter(o -> o.kind() == Occupant.Kind.PAWN)
+                .min(Comparator.comparingInt(Occupant::zoneId))
+                .orElseThrow();
+        var state3 = state2.withNewOccupant(occupant);
+        assertTrue(state3.board().occupants().contains(occupant));
+        var events3 = GameEvent.between(state2, state3);
+        assertEquals(new GameEvent.OccupantPlaced(PlayerColor.RED, occupant), events3.getFirst());
+        assertInstanceOf(GameEvent.TurnPassed.class, events3.getLast());
+        assertEquals(PlayerColor.BLUE, ((GameEvent.TurnPassed) events3.getLast()).player());
+    }
+
+    @Test
+    void gameEventBetweenReportsClosedAreasInTheOrderOfTheirScores() {
+        var states = GameStateTest.forestAndRiverClosingStates();
+        var before = states.get(0);
+        var placed = states.get(1);
+
+        var closed = GameEvent.between(before, placed).stream()
+                .filter(e -> e instanceof GameEvent.AreaClosed)
+                .map(e -> ((GameEvent.AreaClosed) e).area())
+                .toList();
+        assertEquals(placed.board().lastPlacementOutcome().closedAreas(), closed);
+        assertEquals(2, closed.size());
+        assertEquals(List.of(PlayerColor.GREEN), closed.get(0).occupants());
+        assertEquals(List.of(PlayerColor.BLUE), closed.get(1).occupants());
+    }
+
+    @Test
+    void gameEventPublisherDeliversEventsInOrderWithBackpressure() throws InterruptedException {
+        var received = Collections.synchronizedList(new ArrayList<GameEvent>());
+        var completed = new CountDownLatch(1);
+
+        try (var publisher = new GameEventPublisher(Runnable::run, 1)) {
+            publisher.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(GameEvent item) {
+                    received.add(item);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    fail(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+
+            var state0 = initialState();
+            var state1 = state0.withStartingTilePlaced();
+            publisher.publishTransition(state0, state1);
+        }
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, received.size());
+        assertInstanceOf(GameEvent.TilePlaced.class, received.get(0));
+        assertInstanceOf(GameEvent.TurnPassed.class, received.get(1));
+    }
+
+    @Test
+    void gameEventPublisherConstructorThrowsOnInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new GameEventPublisher(Runnable::run, 0));
+    }
+}
@@ -224,6 +224,32 @@ class GameStateTest {
         assertEquals(0, state.tileToPlace().id());
     }
 
+    @Test
+    void gameStatePlayerStatsMatchesPointsAndFreeOccupants() {
+        var state = initialGameState(List.of(1, 37, 0), List.of());
+        state = state
+                .withPlacedTile(new PlacedTile(state.tileToPlace(), PlayerColor.RED, Rotation.NONE, new Pos(-1, 0)))
+                .withNewOccupant(new Occupant(Occupant.Kind.PAWN, 1_3));
+
+        var stats = state.playerStats();
+        assertEquals(state.players().size(), stats.size());
+        assertEquals(new PlayerStats(0, 3, 4), stats.get(PlayerColor.RED));
+        assertEquals(new PlayerStats(0, 3, 5), stats.get(PlayerColor.BLUE));
+
+        state = state
+                .withPlacedTile(new PlacedTile(state.tileToPlace(), PlayerColor.BLUE, Rotation.NONE, new Pos(-1, 1)))
+                .withNewOccupant(null);
+
+        for (var entry : state.playerStats().entrySet()) {
+            var player = entry.getKey();
+            assertEquals(state.messageBoard().points().getOrDefault(player, 0), entry.getValue().points());
+            for (var kind : Occupant.Kind.values()) {
+                assertEquals(state.freeOccupantsCount(player, kind), entry.getValue().freeOccupantsCount(kind));
+            }
+        }
+        assertEquals(new PlayerStats(4, 3, 5), state.playerStats().get(PlayerColor.RED));
+    }
+
     @Test
     void gameStateWithPlacedTileCorrectlyHandlesOccupantsOfForestWithManyOfThem() {
         var state = initialGameState(List.of(1, 42, 47, 28, 58, 0), List.of());
@@ -698,8 +724,10 @@ class GameStateTest {
         assertEquals(expectedPoints, actualPoints);
     }
 
-    @Test
-    void gameStateWithPlacedTileWorksAtEndOfGameWithPitTrap() {
+    /**
+     * Plays a game whose last tile is placed next to a pit trap, and returns its successive states.
+     */
+    private static List<GameState> pitTrapGameStates() {
         var positions = Map.ofEntries(
                 Map.entry(92, new Pos(-3, -1)), // PIT_TRAP
                 Map.entry(67, new Pos(-2, -1)),
@@ -737,11 +765,21 @@ class GameStateTest {
         };
 
         // Place all tiles
+        var states = new ArrayList<GameState>();
+        states.add(state);
         for (int i = 0; i < positions.size(); i += 1) {
             var placedTile = nextPlacedTile.apply(state);
-            state = state.withPlacedTile(placedTile)
-                    .withNewOccupant(occupants.get(placedTile.id()));
+            state = state.withPlacedTile(placedTile);
+            states.add(state);
+            state = state.withNewOccupant(occupants.get(placedTile.id()));
+            states.add(state);
         }
+        return states;
+    }
+
+    @Test
+    void gameStateWithPlacedTileWorksAtEndOfGameWithPitTrap() {
+        var state = pitTrapGameStates().getLast();
 
         var expectedPoints = Map.of(PlayerColor.RED, 6);
 
@@ -753,6 +791,26 @@ class GameStateTest {
         assertEquals("{RED}|6", state.messageBoard().messages().getLast().text());
     }
 
+    @Test
+    void gameStateScoreProjectionMatchesEndOfGameWithPitTrap() {
+        var states = pitTrapGameStates();
+        var projection = ScoreProjection.of(states.getFirst());
+        for (var state : states.subList(0, states.size() - 1)) projection = projection.withState(state);
+
+        // The last tile closes nothing, so the final points are those projected once it was placed
+        var lastState = states.getLast();
+        assertTrue(lastState.board().lastPlacementOutcome().isEmpty());
+        assertEquals(6, lastState.messageBoard().points().get(PlayerColor.RED));
+        assertEquals(6, projection.projectedPoints(PlayerColor.RED));
+        assertEquals(6, projection.finalPoints(PlayerColor.RED));
+
+        // Once the game is over, the final points are on the message board and are not counted again
+        var endProjection = projection.withState(lastState);
+        assertEquals(6, endProjection.projectedPoints(PlayerColor.RED));
+        assertEquals(0, endProjection.finalPoints(PlayerColor.RED));
+        assertEquals(endProjection.projectedPoints(), ScoreProjection.of(lastState).projectedPoints());
+    }
+
     @Test
     void gameStateWithPlacedTileWorksAtEndOfGameWithRaft() {
         var positions = Map.ofEntries(
@@ -806,6 +864,47 @@ class GameStateTest {
         assertEquals("{GREEN}|8", state.messageBoard().messages().getLast().text());
     }
 
+    /**
+     * Plays a game whose fourth tile closes a forest occupied by GREEN and a river occupied by BLUE, the forest
+     * zone of the tile coming before its river zone. Returns the states before the tile is placed, once it is
+     * placed, and once the turn is over.
+     */
+    static List<GameState> forestAndRiverClosingStates() {
+        var players = List.of(PlayerColor.RED, PlayerColor.BLUE, PlayerColor.GREEN);
+        var state = truncateDeck(initialGameState(players, List.of(73, 54, 57, 4), List.of()), Tile.Kind.MENHIR, 0);
+        state = state
+                .withPlacedTile(new PlacedTile(state.tileToPlace(), PlayerColor.RED, Rotation.LEFT, new Pos(-1, 0)))
+                .withNewOccupant(new Occupant(Occupant.Kind.PAWN, 73_0));
+        state = state
+                .withPlacedTile(new PlacedTile(state.tileToPlace(), PlayerColor.BLUE, Rotation.LEFT, new Pos(-2, 0)))
+                .withNewOccupant(new Occupant(Occupant.Kind.PAWN, 54_2)); // fisher (BLUE)
+        state = state
+                .withPlacedTile(new PlacedTile(state.tileToPlace(), PlayerColor.GREEN, Rotation.NONE, new Pos(-1, -1)))
+                .withNewOccupant(new Occupant(Occupant.Kind.PAWN, 57_4)); // gatherer (GREEN)
+
+        var placedState = state.withPlacedTile(
+                new PlacedTile(state.tileToPlace(), PlayerColor.RED, Rotation.NONE, new Pos(-2, -1)));
+        return List.of(state, placedState, placedState.withNewOccupant(null));
+    }
+
+    @Test
+    void gameStateScoresAreasClosedByOneTileInTheOrderOfItsZones() {
+        var states = forestAndRiverClosingStates();
+        var before = states.getFirst();
+        var after = states.getLast();
+        assertEquals(4, before.tileToPlace().id());
+        assertEquals(Action.PLACE_TILE, after.nextAction());
+
+        var newMessages = after.messageBoard().messages()
+                .subList(before.messageBoard().messages().size(), after.messageBoard().messages().size());
+        assertEquals(
+                List.of(Set.of(PlayerColor.GREEN), Set.of(PlayerColor.BLUE)),
+                newMessages.stream().map(MessageBoard.Message::scorers).toList());
+        assertTrue(newMessages.stream().allMatch(m -> m.points() > 0));
+        assertFalse(after.board().occupants().contains(new Occupant(Occupant.Kind.PAWN, 57_4)));
+        assertFalse(after.board().occupants().contains(new Occupant(Occupant.Kind.PAWN, 54_2)));
+    }
+
     private static GameState initialGameState(List<Integer> firstNormalTiles, List<Integer> firstMenhirTiles) {
         return initialGameState(List.of(PlayerColor.values()), firstNormalTiles, firstMenhirTiles);
     }
@@ -0,0 +1,39 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+    @Test
+    void intIntMapBehavesLikeHashMap() {
+        var random = new Random(2024);
+        var expected = new HashMap<Integer, Integer>();
+        var map = new IntIntMap(4);
+        for (int i = 0; i < 5_000; i += 1) {
+            int key = random.nextInt(2_000) - 1_000;
+            int value = random.nextInt();
+            expected.put(key, value);
+            map.put(key, value);
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -1_100; key < 1_100; key += 1) {
+            assertEquals(expected.getOrDefault(key, -1), map.getOrDefault(key, -1));
+        }
+    }
+
+    @Test
+    void intIntMapReturnsDefaultValueForMissingKeys() {
+        var map = new IntIntMap(0);
+        assertEquals(7, map.getOrDefault(0, 7));
+        map.put(0, 3);
+        map.put(Integer.MIN_VALUE, 4);
+        assertEquals(3, map.getOrDefault(0, 7));
+        assertEquals(4, map.getOrDefault(Integer.MIN_VALUE, 7));
+        assertEquals(7, map.getOrDefault(16, 7));
+        assertEquals(2, map.size());
+    }
+}
@@ -0,0 +1,75 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSetTest {
+    @Test
+    void intSetBehavesLikeHashSet() {
+        var random = new Random(2024);
+        for (int i = 0; i < 100; i += 1) {
+            var first = randomInts(random, random.nextInt(20));
+            var second = randomInts(random, random.nextInt(20));
+            var firstSet = IntSet.copyOf(first);
+            var secondSet = IntSet.copyOf(second);
+
+            assertEquals(first, firstSet);
+            assertEquals(firstSet, first);
+            assertEquals(first.hashCode(), firstSet.hashCode());
+            assertEquals(first.size(), firstSet.size());
+            assertEquals(new TreeSet<>(first).stream().toList(), List.copyOf(firstSet));
+
+            var union = new HashSet<>(first);
+            union.addAll(second);
+            assertEquals(union, firstSet.union(secondSet));
+
+            var difference = new HashSet<>(first);
+            difference.removeAll(second);
+            assertEquals(difference, firstSet.difference(secondSet));
+            assertEquals(first.containsAll(second), firstSet.containsAll(secondSet));
+            assertEquals(first.containsAll(second), firstSet.containsAll(second));
+
+            for (int value = -1; value < 200; value += 1) assertEquals(first.contains(value), firstSet.contains(value));
+            var visited = new ArrayList<Integer>();
+            firstSet.forEachInt(visited::add);
+            assertEquals(List.copyOf(firstSet), visited);
+        }
+    }
+
+    @Test
+    void intSetOperationsReturnAnOperandWhenPossible() {
+        var set = IntSet.of(1, 5, 90);
+        var subset = IntSet.of(5);
+        var disjoint = IntSet.of(2, 3);
+        assertSame(set, set.union(subset));
+        assertSame(set, subset.union(set));
+        assertSame(set, set.union(IntSet.EMPTY));
+        assertSame(set, set.difference(disjoint));
+        assertSame(IntSet.EMPTY, subset.difference(set));
+        assertSame(set, IntSet.copyOf(set));
+        assertEquals(IntSet.of(1, 90), set.difference(subset));
+        assertEquals(IntSet.of(1, 2, 3, 5, 90), set.union(disjoint));
+    }
+
+    @Test
+    void intSetIsImmutableAndRejectsNegativeIntegers() {
+        var set = IntSet.of(1, 2, 3);
+        assertThrows(UnsupportedOperationException.class, () -> set.add(4));
+        assertThrows(UnsupportedOperationException.class, set::clear);
+        assertEquals(IntSet.of(3, 2, 1), set);
+        assertThrows(IllegalArgumentException.class, () -> IntSet.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> IntSet.copyOf(List.of(1, -2)));
+        assertFalse(set.contains("1"));
+        assertTrue(IntSet.EMPTY.isEmpty());
+        assertFalse(IntSet.EMPTY.iterator().hasNext());
+    }
+
+    private static Set<Integer> randomInts(Random random, int count) {
+        var ints = new HashSet<Integer>();
+        for (int i = 0; i < count; i += 1) ints.add(random.nextInt(random.nextBoolean() ? 100 : 200));
+        return ints;
+    }
+}
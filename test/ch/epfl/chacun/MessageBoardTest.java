@@ -2,6 +2,7 @@ package ch.epfl.chacun;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Proxy;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -406,6 +407,26 @@ class MessageBoardTest {
         // assertEquals(expectedMessage.scorers(), actualMessage.scorers());
         assertEquals(expectedMessage.tileIds(), actualMessage.tileIds());
     }
+
+    @Test
+    void messageBoardHashesMessagesWithoutFormattingTheirTexts() {
+        var formatted = new int[1];
+        var basic = new BasicTextMaker();
+        var textMaker = (TextMaker) Proxy.newProxyInstance(TextMaker.class.getClassLoader(),
+                new Class<?>[]{TextMaker.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == TextMaker.class) formatted[0] += 1;
+                    return method.invoke(basic, args);
+                });
+        var mb = new MessageBoard(textMaker, List.of()).withWinners(Set.of(PURPLE, YELLOW), 27);
+        var message = mb.messages().getFirst();
+
+        var expected = new MessageBoard.Message("{YELLOW,PURPLE}|27", 0, message.scorers(), Set.of());
+        assertEquals(expected.hashCode(), message.hashCode());
+        mb.hashCode();
+        assertEquals(0, formatted[0]);
+        assertEquals(expected.text(), message.text());
+        assertEquals(1, formatted[0]);
+    }
 }
 
 class BasicTextMaker implements TextMaker {
@@ -0,0 +1,159 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlacementKernelTest {
+    @Test
+    void placementKernelFindsSamePlacementsAsSideComparison() {
+        var random = new Random(2024);
+        var kernel = PlacementKernel.local();
+        for (int game = 0; game < 5; game += 1) {
+            var board = RandomGames.startingBoard();
+            for (var tile : RandomGames.shuffledDecks(random).normalTiles()) {
+                var expected = expectedPlacements(board, tile);
+                var count = kernel.findPlacements(board, tile);
+                var actual = new HashSet<PlacedTile>();
+                for (int i = 0; i < count; i += 1) {
+                    actual.add(new PlacedTile(tile, PlayerColor.RED, kernel.placementRotation(i), kernel.placementPos(i)));
+                }
+                assertEquals(expected.size(), count);
+                assertEquals(expected, actual);
+                assertEquals(!expected.isEmpty(), kernel.hasPlacement(board, tile));
+                for (var placedTile : actual) assertTrue(board.canAddTile(placedTile));
+
+                board = RandomGames.withRandomPlacement(board, tile, PlayerColor.RED, random);
+            }
+        }
+    }
+
+    @Test
+    void placementKernelRejectsOccupiedIsolatedAndOutsidePositions() {
+        var kernel = PlacementKernel.local();
+        var board = RandomGames.startingBoard();
+        var tile = Tiles.TILES.get(17);
+        for (var rotation : Rotation.ALL) {
+            assertFalse(kernel.canPlace(board, tile, rotation, Pos.ORIGIN));
+            assertFalse(kernel.canPlace(board, tile, rotation, new Pos(2, 0)));
+            assertFalse(kernel.canPlace(board, tile, rotation, new Pos(Board.REACH + 1, 0)));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> kernel.placement(kernel.findPlacements(board, tile)));
+    }
+
+    @Test
+    void placementKernelDoesNotAllocateOnceWarmedUp() {
+        var random = new Random(1);
+        var tiles = RandomGames.shuffledDecks(random).normalTiles();
+        var finalBoard = RandomGames.randomBoards(random, tiles.subList(0, 30), false).getLast();
+        var nextTiles = tiles.subList(30, 40).toArray(Tile[]::new);
+        Runnable turns = () -> {
+            for (var tile : nextTiles) {
+                PlacementKernel.local().findPlacements(finalBoard, tile);
+                PlacementKernel.local().hasPlacement(finalBoard, tile);
+            }
+        };
+        for (int i = 0; i < 20_000; i += 1) turns.run();
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long baseline = allocatedBytes(threads, threadId, () -> {});
+        long allocated = allocatedBytes(threads, threadId, turns);
+        assertEquals(baseline, allocated);
+    }
+
+    @Test
+    void placementKernelChecksOccupationAndOutcomeLikeTileZones() {
+        var random = new Random(2024);
+        var kernel = PlacementKernel.local();
+        for (var tile : Tiles.TILES) {
+            var zones = new ArrayList<Zone>();
+            for (int i = 0, count = kernel.loadTileZones(tile); i < count; i += 1) zones.add(kernel.tileZone(i));
+            assertEquals(tile.zones().size(), zones.size());
+            assertEquals(tile.zones(), Set.copyOf(zones));
+        }
+        for (int game = 0; game < 5; game += 1) {
+            for (var board : RandomGames.randomBoards(random, RandomGames.shuffledDecks(random).normalTiles(), false)) {
+                var placedTile = board.lastPlacedTile();
+                var outcome = board.lastPlacementOutcome();
+                int effects = kernel.placementEffects(placedTile, board.zonePartitions());
+                assertEquals(!outcome.closedForests().isEmpty(), (effects & PlacementKernel.CLOSES_FOREST) != 0);
+                assertEquals(!outcome.closedRivers().isEmpty(), (effects & PlacementKernel.CLOSES_RIVER) != 0);
+                assertEquals(!outcome.closedRiverSystems().isEmpty(),
+                        (effects & PlacementKernel.CLOSES_RIVER_SYSTEM) != 0);
+                assertEquals(!outcome.logboatRiverSystems().isEmpty(), (effects & PlacementKernel.HAS_LOGBOAT) != 0);
+                for (int pawns = 0; pawns <= 1; pawns += 1) {
+                    for (int huts = 0; huts <= 1; huts += 1) {
+                        assertEquals(expectedCanOccupy(board, placedTile.tile(), pawns, huts),
+                                kernel.canOccupy(board, placedTile.tile(), pawns, huts));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void placementKernelChecksOccupationAndOutcomeWithoutAllocating() {
+        var random = new Random(1);
+        var tiles = RandomGames.shuffledDecks(random).normalTiles();
+        var boards = RandomGames.randomBoards(random, tiles, false).subList(0, 40).toArray(Board[]::new);
+        Runnable turns = () -> {
+            var kernel = PlacementKernel.local();
+            for (var board : boards) {
+                var placedTile = board.lastPlacedTile();
+                kernel.placementEffects(placedTile, board.zonePartitions());
+                kernel.canOccupy(board, placedTile.tile(), 1, 1);
+                kernel.canOccupy(board, placedTile.tile(), 0, 1);
+            }
+        };
+        for (int i = 0; i < 20_000; i += 1) turns.run();
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long baseline = allocatedBytes(threads, threadId, () -> {});
+        long allocated = allocatedBytes(threads, threadId, turns);
+        assertEquals(baseline, allocated);
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads, long threadId, Runnable runnable) {
+        long before = threads.getThreadAllocatedBytes(threadId);
+        runnable.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static boolean expectedCanOccupy(Board board, Tile tile, int freePawns, int freeHuts) {
+        var canOccupy = false;
+        for (var zone : tile.zones()) {
+            if ((zone instanceof Zone.River river && river.hasLake()) || zone instanceof Zone.Lake) {
+                if (!board.riverSystemArea((Zone.Water) zone).isOccupied() && freeHuts > 0) canOccupy = true;
+            } else {
+                if (freePawns == 0) return false;
+                if (zone instanceof Zone.River river && !board.riverSystemArea(river).isOccupied()) canOccupy = true;
+                if (zone instanceof Zone.Meadow meadow && !board.meadowArea(meadow).isOccupied()) canOccupy = true;
+                if (zone instanceof Zone.Forest forest && !board.forestArea(forest).isOccupied()) canOccupy = true;
+            }
+        }
+        return canOccupy;
+    }
+
+    private static Set<PlacedTile> expectedPlacements(Board board, Tile tile) {
+        var placements = new HashSet<PlacedTile>();
+        for (var pos : board.insertionPositions()) {
+            for (var rotation : Rotation.ALL) {
+                var placedTile = new PlacedTile(tile, PlayerColor.RED, rotation, pos);
+                var fits = true;
+                for (var direction : Direction.ALL) {
+                    var neighbour = board.tileAt(pos.neighbor(direction));
+                    if (neighbour != null && !neighbour.side(direction.opposite()).isSameKindAs(placedTile.side(direction))) {
+                        fits = false;
+                    }
+                }
+                if (fits) placements.add(placedTile);
+            }
+        }
+        return placements;
+    }
+}
@@ -0,0 +1,99 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static ch.epfl.chacun.GameState.Action;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayoutTest {
+    private static void assertSameGame(GameState state, Playout playout) {
+        assertEquals(state.nextAction(), playout.nextAction());
+        assertEquals(state.currentPlayer(), playout.currentPlayer());
+        assertEquals(state.tileToPlace(), playout.tileToPlace());
+        assertEquals(state.board(), playout.board());
+        var points = state.messageBoard().points();
+        for (var player : state.players()) {
+            assertEquals(points.getOrDefault(player, 0), playout.points(player));
+            for (var kind : Occupant.Kind.values()) {
+                assertEquals(state.freeOccupantsCount(player, kind), playout.freeOccupantsCount(player, kind));
+            }
+        }
+    }
+
+    private static Occupant randomPawnOf(Board board, PlayerColor player, Random random) {
+        var pawns = board.tilesPlacedAfter(0).stream()
+                .filter(t -> t.placer() == player && t.occupant() != null)
+                .map(PlacedTile::occupant)
+                .filter(o -> o.kind() == Occupant.Kind.PAWN)
+                .toList();
+        return pawns.isEmpty() || random.nextBoolean() ? null : pawns.get(random.nextInt(pawns.size()));
+    }
+
+    @Test
+    void playoutFollowsGameStateAndGivesTheSamePoints() {
+        for (int seed = 0; seed < 40; seed += 1) {
+            var random = new Random(seed);
+            var state = RandomGames.initialState(random).withStartingTilePlaced();
+            // Starts some playouts in the middle of the game, with points and occupants on the board
+            for (int i = random.nextInt(40); i > 0 && state.nextAction() != Action.END_GAME; i -= 1) {
+                state = RandomGames.nextState(state, random);
+            }
+            var playout = Playout.of(state);
+            assertSameGame(state, playout);
+
+            while (state.nextAction() != Action.END_GAME) {
+                switch (state.nextAction()) {
+                    case PLACE_TILE -> {
+                        var kernel = PlacementKernel.local();
+                        var i = random.nextInt(kernel.findPlacements(state.board(), state.tileToPlace()));
+                        var tile = new PlacedTile(state.tileToPlace(), state.currentPlayer(),
+                                kernel.placementRotation(i), kernel.placementPos(i));
+                        state = state.withPlacedTile(tile);
+                        playout.placeTile(tile);
+                    }
+                    case OCCUPY_TILE -> {
+                        assertEquals(state.lastTilePotentialOccupants(), playout.lastTilePotentialOccupants());
+                        var occupants = state.lastTilePotentialOccupants().stream()
+                                .sorted(Comparator.comparingInt(Occupant::zoneId).thenComparing(Occupant::kind))
+                                .toList();
+                        var occupant = occupants.isEmpty() || random.nextInt(8) == 0
+                                ? null
+                                : occupants.get(random.nextInt(occupants.size()));
+                        GameState next;
+                        try {
+                            next = state.withNewOccupant(occupant);
+                        } catch (IllegalArgumentException e) {
+                            // A fisher offered on a river whose river system already has a hut
+                            var finalOccupant = occupant;
+                            assertThrows(IllegalArgumentException.class, () -> playout.occupy(finalOccupant));
+                            occupant = null;
+                            next = state.withNewOccupant(null);
+                        }
+                        state = next;
+                        playout.occupy(occupant);
+                    }
+                    case RETAKE_PAWN -> {
+                        var pawn = randomPawnOf(state.board(), state.currentPlayer(), random);
+                        state = state.withOccupantRemoved(pawn);
+                        playout.removeOccupant(pawn);
+                    }
+                    default -> fail();
+                }
+                assertSameGame(state, playout);
+            }
+        }
+    }
+
+    @Test
+    void playoutOfEndedGameKeepsItsPoints() {
+        var random = new Random(2024);
+        var state = RandomGames.initialState(random);
+        while (state.nextAction() != Action.END_GAME) state = RandomGames.nextState(state, random);
+
+        var playout = Playout.of(state);
+        assertSameGame(state, playout);
+        assertNull(playout.currentPlayer());
+    }
+}
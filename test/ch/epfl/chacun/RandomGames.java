@@ -0,0 +1,90 @@
+package ch.epfl.chacun;
+
+import java.util.*;
+
+/**
+ * Shuffled decks, random boards and random playouts, shared by the tests that check an optimized path
+ * against a straightforward one on many random games.
+ */
+final class RandomGames {
+    static final List<PlayerColor> PLAYERS = List.of(PlayerColor.RED, PlayerColor.BLUE, PlayerColor.GREEN);
+
+    private RandomGames() {
+    }
+
+    static TileDecks shuffledDecks(Random random) {
+        var tiles = new ArrayList<>(Tiles.TILES);
+        Collections.shuffle(tiles, random);
+        return new TileDecks(
+                tiles.stream().filter(t -> t.kind() == Tile.Kind.START).toList(),
+                tiles.stream().filter(t -> t.kind() == Tile.Kind.NORMAL).toList(),
+                tiles.stream().filter(t -> t.kind() == Tile.Kind.MENHIR).toList());
+    }
+
+    static Board startingBoard() {
+        return Board.EMPTY.withNewTile(new PlacedTile(Tiles.TILES.get(56), null, Rotation.NONE, Pos.ORIGIN));
+    }
+
+    // Returns the board unchanged if the tile cannot be placed
+    static Board withRandomPlacement(Board board, Tile tile, PlayerColor placer, Random random) {
+        var kernel = PlacementKernel.local();
+        int count = kernel.findPlacements(board, tile);
+        if (count == 0) return board;
+        int i = random.nextInt(count);
+        return board.withNewTile(new PlacedTile(tile, placer, kernel.placementRotation(i), kernel.placementPos(i)));
+    }
+
+    // Returns the successive boards obtained by placing the tiles that can be placed, in turn by each player
+    static List<Board> randomBoards(Random random, List<Tile> tiles, boolean withOccupants) {
+        var boards = new ArrayList<Board>();
+        var board = startingBoard();
+        for (int t = 0; t < tiles.size(); t += 1) {
+            var newBoard = withRandomPlacement(board, tiles.get(t), PLAYERS.get(t % PLAYERS.size()), random);
+            if (newBoard == board) continue;
+            board = newBoard;
+            var occupants = List.copyOf(board.lastTilePotentialOccupants());
+            if (withOccupants && !occupants.isEmpty() && random.nextBoolean()) {
+                try {
+                    board = board.withOccupant(occupants.get(random.nextInt(occupants.size())));
+                } catch (IllegalArgumentException e) {
+                    // A fisher offered on a river whose river system already has a hut, left unoccupied
+                }
+            }
+            boards.add(board);
+        }
+        return boards;
+    }
+
+    static GameState initialState(Random random) {
+        return GameState.initial(PLAYERS, shuffledDecks(random),
+                new TextMakerFr(Map.of(PlayerColor.RED, "Rouge", PlayerColor.BLUE, "Bleu", PlayerColor.GREEN, "Vert")));
+    }
+
+    // Plays the next action of the game at random, occupying a zone most of the time when possible
+    static GameState nextState(GameState state, Random random) {
+        return switch (state.nextAction()) {
+            case START_GAME -> state.withStartingTilePlaced();
+            case PLACE_TILE -> {
+                var kernel = PlacementKernel.local();
+                var i = random.nextInt(kernel.findPlacements(state.board(), state.tileToPlace()));
+                yield state.withPlacedTile(new PlacedTile(state.tileToPlace(), state.currentPlayer(),
+                        kernel.placementRotation(i), kernel.placementPos(i)));
+            }
+            case OCCUPY_TILE -> {
+                List<Occupant> occupants;
+                try {
+                    occupants = state.lastTilePotentialOccupants().stream()
+                            .sorted(Comparator.comparingInt(Occupant::zoneId).thenComparing(Occupant::kind))
+                            .toList();
+                } catch (IllegalArgumentException e) {
+                    occupants = List.of();
+                }
+                yield state.withNewOccupant(occupants.isEmpty() || random.nextInt(8) == 0
+                        ? null
+                        : occupants.get(random.nextInt(occupants.size())));
+            }
+            case RETAKE_PAWN -> state.withOccupantRemoved(null);
+            case END_GAME -> throw new IllegalStateException("game over");
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static ch.epfl.chacun.GameState.Action;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreProjectionTest {
+    private static Map<PlayerColor, Integer> pointsIfEndedNow(GameState state) {
+        var ending = new GameState(state.players(),
+                new TileDecks(List.of(), List.of(), state.tileDecks().menhirTiles()),
+                null,
+                state.board(),
+                Action.OCCUPY_TILE,
+                state.messageBoard());
+        var ended = ending.withNewOccupant(null);
+        assertEquals(Action.END_GAME, ended.nextAction());
+        return ended.messageBoard().points();
+    }
+
+    @Test
+    void scoreProjectionMatchesFinalPointsCountedAtEachTurn() {
+        var checkedCount = 0;
+        for (int seed = 0; seed < 40; seed += 1) {
+            var random = new Random(seed);
+            var state = RandomGames.initialState(random);
+            var projection = ScoreProjection.of(state);
+            while (state.nextAction() != Action.END_GAME) {
+                state = RandomGames.nextState(state, random);
+                projection = projection.withState(state);
+
+                var fromScratch = ScoreProjection.of(state);
+                for (var player : state.players()) {
+                    assertEquals(fromScratch.projectedPoints(player), projection.projectedPoints(player));
+                    assertEquals(fromScratch.finalPoints(player), projection.finalPoints(player));
+                }
+                assertEquals(fromScratch.projectedPoints(), projection.projectedPoints());
+
+                var hasPoints = !state.messageBoard().points().isEmpty()
+                        || state.players().stream().anyMatch(p -> fromScratch.finalPoints(p) > 0);
+                if (state.nextAction() == Action.PLACE_TILE
+                        && state.board().lastPlacementOutcome().isEmpty()
+                        && hasPoints) {
+                    var expected = pointsIfEndedNow(state);
+                    for (var player : state.players()) {
+                        assertEquals(expected.getOrDefault(player, 0), projection.projectedPoints(player));
+                    }
+                    checkedCount += 1;
+                }
+            }
+            // The final points of the ended game are on the message board, and are not counted twice
+            for (var player : state.players()) {
+                assertEquals(state.messageBoard().points().getOrDefault(player, 0), projection.projectedPoints(player));
+                assertEquals(0, projection.finalPoints(player));
+            }
+        }
+        assertTrue(checkedCount > 100);
+    }
+
+    @Test
+    void scoreProjectionOfInitialStateIsEmpty() {
+        var state = RandomGames.initialState(new Random(3));
+        var projection = ScoreProjection.of(state);
+        for (var player : state.players()) assertEquals(0, projection.projectedPoints(player));
+        assertEquals(Set.copyOf(state.players()), projection.projectedPoints().keySet());
+    }
+}
@@ -192,6 +192,28 @@ class TileDecksTest {
                 decks.withTopTileDrawnUntil(Tile.Kind.MENHIR, falsePredicate).menhirTiles());
     }
 
+    @Test
+    void tileDecksDrawingKeepsPreviousDecksUnchanged() {
+        var dN = new ArrayList<Tile>();
+        for (int i = 0; i < 100; i += 1) dN.add(getTile(i, Tile.Kind.NORMAL));
+        var decks = new TileDecks(List.of(), dN, List.of());
+
+        var history = new ArrayList<TileDecks>();
+        history.add(decks);
+        while (decks.deckSize(Tile.Kind.NORMAL) > 0) {
+            decks = decks.withTopTileDrawn(Tile.Kind.NORMAL);
+            history.add(decks);
+        }
+        for (int i = 0; i < history.size(); i += 1) {
+            assertEquals(dN.subList(i, dN.size()), history.get(i).normalTiles());
+            assertEquals(i == dN.size() ? null : dN.get(i), history.get(i).topTile(Tile.Kind.NORMAL));
+        }
+        assertEquals(history.get(42), new TileDecks(List.of(), dN.subList(42, dN.size()), List.of()));
+        assertEquals(history.get(42), history.getFirst().withTopTileDrawnUntil(Tile.Kind.NORMAL, t -> t.id() == 42));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(99).normalTiles().get(1));
+        assertThrows(UnsupportedOperationException.class, () -> history.get(50).normalTiles().set(0, dN.get(0)));
+    }
+
     record ConstantPredicate(boolean b) implements Predicate<Tile> {
         @Override
         public boolean test(Tile tile) {
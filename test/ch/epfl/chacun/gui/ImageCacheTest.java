@@ -0,0 +1,103 @@
+package ch.epfl.chacun.gui;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageCacheTest {
+    // Decoded size of an image of 10 by 10 pixels
+    private static final long IMAGE_BYTES = 10 * 10 * 4;
+
+    private static Image image() {
+        return new WritableImage(1, 1);
+    }
+
+    @Test
+    void imageCacheRejectsNonPositiveBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new ImageCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new ImageCache(-1));
+    }
+
+    @Test
+    void imageCacheEvictsLeastRecentlyUsedImagesFirst() {
+        var cache = new ImageCache(3 * IMAGE_BYTES);
+        cache.put(1, 10, image());
+        cache.put(2, 10, image());
+        cache.put(3, 10, image());
+        assertNotNull(cache.getIfPresent(1, 10));
+
+        cache.put(4, 10, image());
+        assertTrue(cache.contains(1, 10));
+        assertFalse(cache.contains(2, 10));
+        assertTrue(cache.contains(3, 10));
+        assertTrue(cache.contains(4, 10));
+
+        cache.put(5, 10, image());
+        assertFalse(cache.contains(3, 10));
+        assertTrue(cache.contains(1, 10));
+    }
+
+    @Test
+    void imageCacheStaysWithinItsByteBudget() {
+        var cache = new ImageCache(5 * IMAGE_BYTES + 1);
+        for (int tileId = 0; tileId < 20; tileId += 1) {
+            cache.put(tileId, 10, image());
+            cache.put(tileId, 10, image());
+            var stats = cache.stats();
+            assertTrue(stats.bytes() <= stats.byteBudget());
+            assertEquals(stats.size() * IMAGE_BYTES, stats.bytes());
+        }
+        assertEquals(5, cache.stats().size());
+        assertEquals(15, cache.stats().evictions());
+
+        cache.put(100, 20, image());
+        assertTrue(cache.contains(100, 20));
+        assertEquals(2, cache.stats().size());
+        assertEquals(20 * 20 * 4 + IMAGE_BYTES, cache.stats().bytes());
+    }
+
+    @Test
+    void imageCacheNeverEvictsTheImageJustAdded() {
+        var cache = new ImageCache(IMAGE_BYTES);
+        cache.put(1, 10, image());
+        var large = image();
+        cache.put(2, 64, large);
+        assertSame(large, cache.getIfPresent(2, 64));
+        assertFalse(cache.contains(1, 10));
+        assertEquals(1, cache.stats().size());
+        assertEquals(64 * 64 * 4, cache.stats().bytes());
+    }
+
+    @Test
+    void imageCacheCountsHitsMissesAndEvictions() {
+        var cache = new ImageCache(2 * IMAGE_BYTES);
+        var decodes = new AtomicInteger();
+        var first = cache.get(1, 10, () -> {
+            decodes.incrementAndGet();
+            return image();
+        });
+        assertSame(first, cache.get(1, 10, () -> fail("decoded twice")));
+        assertNull(cache.getIfPresent(2, 10));
+        cache.get(2, 10, () -> {
+            decodes.incrementAndGet();
+            return image();
+        });
+        cache.get(3, 10, () -> {
+            decodes.incrementAndGet();
+            return image();
+        });
+
+        var stats = cache.stats();
+        assertEquals(3, decodes.get());
+        assertEquals(1, stats.hits());
+        assertEquals(3, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.size());
+        assertEquals(2 * IMAGE_BYTES, stats.bytes());
+        assertEquals(2 * IMAGE_BYTES, stats.byteBudget());
+    }
+}
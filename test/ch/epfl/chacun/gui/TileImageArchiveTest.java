@@ -0,0 +1,131 @@
+package ch.epfl.chacun.gui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileImageArchiveTest {
+    private static final int[] COLORS = {0x2060A0, 0xC08040};
+
+    private static Path resourcesWithTwoTiles(Path directory) throws IOException {
+        var resources = directory.resolve("resources");
+        Files.createDirectories(resources.resolve("256"));
+        Files.createDirectories(resources.resolve("512"));
+        for (int tileId = 0; tileId < COLORS.length; tileId += 1) {
+            writeJpeg(resources.resolve("256").resolve("0" + tileId + ".jpg"), 256, COLORS[tileId]);
+        }
+        // Only the first tile has a large image
+        writeJpeg(resources.resolve("512").resolve("00.jpg"), 512, COLORS[0]);
+        Files.writeString(resources.resolve("256").resolve("notes.txt"), "not a tile");
+        return resources;
+    }
+
+    private static void writeJpeg(Path path, int pixelSize, int rgb) throws IOException {
+        var image = new BufferedImage(pixelSize, pixelSize, BufferedImage.TYPE_INT_RGB);
+        var graphics = image.createGraphics();
+        graphics.setColor(new Color(rgb));
+        graphics.fillRect(0, 0, pixelSize, pixelSize);
+        graphics.dispose();
+        assertTrue(ImageIO.write(image, "jpg", path.toFile()));
+    }
+
+    private static void assertCloseColor(int expectedRgb, int actualArgb) {
+        assertEquals(0xFF, actualArgb >>> 24);
+        for (int shift = 0; shift <= 16; shift += 8) {
+            assertEquals(expectedRgb >>> shift & 0xFF, actualArgb >>> shift & 0xFF, 4);
+        }
+    }
+
+    @Test
+    void tileImageArchiveWritesHeaderAndIndex(@TempDir Path directory) throws IOException {
+        var archive = directory.resolve("tiles.pack");
+        assertEquals(7, TileImageArchiveBuilder.build(resourcesWithTwoTiles(directory), archive));
+
+        var data = ByteBuffer.wrap(Files.readAllBytes(archive));
+        assertEquals(TileImageArchive.MAGIC, data.getInt(0));
+        assertEquals(TileImageArchive.VERSION, data.getInt(Integer.BYTES));
+        assertEquals(7, data.getInt(2 * Integer.BYTES));
+
+        int[][] expected = {
+                {0, 64}, {0, 128}, {0, 256}, {0, 512},
+                {1, 64}, {1, 128}, {1, 256}};
+        long offset = TileImageArchive.HEADER_BYTES + 7L * TileImageArchive.ENTRY_BYTES;
+        for (int i = 0; i < expected.length; i += 1) {
+            int at = TileImageArchive.HEADER_BYTES + i * TileImageArchive.ENTRY_BYTES;
+            int pixelSize = expected[i][1];
+            assertEquals(expected[i][0], data.getInt(at));
+            assertEquals(pixelSize, data.getInt(at + Integer.BYTES));
+            assertEquals(offset, data.getLong(at + 3 * Integer.BYTES));
+            int length = data.getInt(at + 3 * Integer.BYTES + Long.BYTES);
+            if (pixelSize == 512) {
+                assertEquals(TileImageArchive.FORMAT_JPEG, data.getInt(at + 2 * Integer.BYTES));
+                var jpeg = Files.readAllBytes(directory.resolve("resources").resolve("512").resolve("00.jpg"));
+                assertEquals(jpeg.length, length);
+            } else {
+                assertEquals(TileImageArchive.FORMAT_BGRA_PRE, data.getInt(at + 2 * Integer.BYTES));
+                assertEquals(4 * pixelSize * pixelSize, length);
+            }
+            offset += length;
+        }
+        assertEquals(offset, data.capacity());
+    }
+
+    @Test
+    void tileImageArchiveReadsBackWhatWasWritten(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("tiles.pack");
+        TileImageArchiveBuilder.build(resourcesWithTwoTiles(directory), path);
+        var archive = TileImageArchive.openIfPresent(path);
+        assertNotNull(archive);
+
+        for (int tileId = 0; tileId < COLORS.length; tileId += 1) {
+            for (int pixelSize : new int[]{64, 128, 256}) {
+                assertTrue(archive.contains(tileId, pixelSize));
+                var image = archive.read(tileId, pixelSize);
+                assertEquals(pixelSize, image.getWidth());
+                assertEquals(pixelSize, image.getHeight());
+                assertCloseColor(COLORS[tileId], image.getPixelReader().getArgb(pixelSize / 2, pixelSize / 2));
+            }
+        }
+
+        var large = archive.read(0, 512);
+        assertEquals(512, large.getWidth());
+        assertCloseColor(COLORS[0], large.getPixelReader().getArgb(256, 256));
+
+        assertFalse(archive.contains(1, 512));
+        assertNull(archive.read(1, 512));
+        assertFalse(archive.contains(2, 64));
+    }
+
+    @Test
+    void tileImageArchiveRejectsMissingOrInvalidFiles(@TempDir Path directory) throws IOException {
+        assertNull(TileImageArchive.openIfPresent(directory.resolve("missing.pack")));
+
+        var path = directory.resolve("tiles.pack");
+        TileImageArchiveBuilder.build(resourcesWithTwoTiles(directory), path);
+        var bytes = Files.readAllBytes(path);
+
+        var wrongMagic = bytes.clone();
+        wrongMagic[0] ^= 1;
+        Files.write(path, wrongMagic);
+        assertNull(TileImageArchive.openIfPresent(path));
+
+        var wrongVersion = bytes.clone();
+        wrongVersion[Integer.BYTES + 3] += 1;
+        Files.write(path, wrongVersion);
+        assertNull(TileImageArchive.openIfPresent(path));
+
+        var truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(path, truncated);
+        assertNull(TileImageArchive.openIfPresent(path));
+    }
+}